@@ -0,0 +1,64 @@
+#!/bin/sh
+# Conta os comandos SQL por requisição (métrica blog.consultas.por.requisicao) nas listagens de postagens:
+# feed de entidades (/postagens/pagina, tema, usuário) contra a visão de leitura (/postagens/resumo, tema, usuário).
+# Usa os dados do teste de carga (perfil "loadtest"; gere antes com scripts/teste-carga.sh) e percorre PAGINAS
+# páginas seguidas de cada listagem, seguindo o proximoCursor.
+#
+#   scripts/consultas-por-requisicao.sh
+#   PAGINAS=50 TAMANHO=50 TEMA=3 USUARIO=1 scripts/consultas-por-requisicao.sh
+#
+# Imprime, por endpoint, requisições, média e máximo de comandos SQL. O máximo costuma ser a primeira página,
+# com o cache de segundo nível (Usuario, Tema) ainda frio.
+set -eu
+cd "$(dirname "$0")/.."
+
+MVN=${MVN:-sh ./mvnw}
+PAGINAS=${PAGINAS:-20}
+TAMANHO=${TAMANHO:-20}
+TEMA=${TEMA:-1}
+USUARIO=${USUARIO:-1}
+PORTA=${PORTA:-8080}
+URL=http://localhost:$PORTA
+
+[ -f data/loadtest/blog.mv.db ] || { echo "Sem dados: rode scripts/teste-carga.sh antes"; exit 1; }
+
+$MVN -B -q -Ploadtest test-compile dependency:build-classpath \
+    -Dmdep.outputFile=target/classpath-carga.txt -Dmdep.includeScope=test
+CP="target/classes:target/test-classes:$(cat target/classpath-carga.txt)"
+
+java -Dspring.devtools.restart.enabled=false -cp "$CP" nilton.acelera.demo.AceleraMakerBlogApplication \
+    --spring.profiles.active=loadtest --server.port="$PORTA" > target/consultas-aplicacao.log 2>&1 &
+APP=$!
+trap 'kill $APP 2>/dev/null || true' EXIT INT TERM
+
+until curl -sf http://localhost:9091/actuator/health > /dev/null; do
+    kill -0 $APP 2>/dev/null || { echo "A aplicação não subiu"; tail -50 target/consultas-aplicacao.log; exit 1; }
+    sleep 1
+done
+
+# percorrer CAMINHO: PAGINAS páginas a partir da primeira
+percorrer() {
+    cursor=
+    for _ in $(seq "$PAGINAS"); do
+        curl -sf -G "$URL$1" -d "tamanho=$TAMANHO" ${cursor:+--data-urlencode "cursor=$cursor"} \
+            -o target/consultas-pagina.json
+        cursor=$(grep -o '"proximoCursor":"[^"]*' target/consultas-pagina.json | sed 's/.*:"//' || true)
+        [ -n "$cursor" ] || break
+    done
+}
+
+percorrer /postagens/pagina
+percorrer /postagens/resumo
+percorrer "/postagens/tema/$TEMA/pagina"
+percorrer "/postagens/resumo/tema/$TEMA"
+percorrer "/postagens/usuario/$USUARIO/pagina"
+percorrer "/postagens/resumo/usuario/$USUARIO"
+
+printf '%-40s %12s %8s %8s\n' endpoint requisicoes media maximo
+curl -sf http://localhost:9091/actuator/prometheus | grep '^blog_consultas_por_requisicao_\(count\|sum\|max\)' \
+    | grep 'uri="/postagens/\(pagina\|resumo\|tema\|usuario\)' \
+    | sed 's/^blog_consultas_por_requisicao_\([a-z]*\){.*uri="\([^"]*\)".*} \(.*\)$/\2 \1 \3/' \
+    | awk '{ v[$1, $2] = $3; u[$1] = 1 }
+           END { for (k in u) if (v[k, "count"] > 0)
+                     printf "%-40s %12d %8.1f %8d\n", k, v[k, "count"], v[k, "sum"] / v[k, "count"], v[k, "max"] }' \
+    | sort
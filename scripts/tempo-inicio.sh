@@ -0,0 +1,43 @@
+#!/bin/sh
+# Mede o tempo de início da aplicação (JVM até o fim do refresh do contexto Spring) em quatro variantes:
+#   jar          java -jar no fat jar (como o Dockerfile antigo)
+#   extraido     jar extraído (jar + lib/), sem AOT
+#   aot          extraído + -Dspring.aot.enabled=true
+#   aot+cds      extraído + AOT + arquivo AppCDS gerado por uma execução de treino
+# Sem banco: o perfil prod não consulta metadados JDBC no boot, e o contexto encerra (spring.context.exit=onRefresh)
+# antes dos listeners de ApplicationReady. O ddl-auto=update contra o RDS, que o perfil prod deixou de fazer,
+# não entra na conta: é ganho adicional.
+#
+#   scripts/tempo-inicio.sh              # 5 execuções por variante, imprime a mediana em ms
+#   EXECUCOES=10 scripts/tempo-inicio.sh
+set -eu
+cd "$(dirname "$0")/.."
+
+MVN=${MVN:-sh ./mvnw}
+EXECUCOES=${EXECUCOES:-5}
+JAR=demo-0.0.1-SNAPSHOT.jar
+DIR=target/inicio
+ARGS="--spring.profiles.active=prod --spring.datasource.url=jdbc:mysql://127.0.0.1:1/inicio"
+
+$MVN -B -q package -DskipTests -Paot
+rm -rf "$DIR"
+java -Djarmode=tools -jar "target/$JAR" extract --destination "$DIR"
+(cd "$DIR" && java -XX:ArchiveClassesAtExit=app.jsa -Xlog:cds=off -Xlog:cds+dynamic=off \
+    -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh -jar "$JAR" $ARGS > treino.log 2>&1)
+
+# Mediana, em ms, de EXECUCOES inícios do jar $1 (relativo a $DIR) com as opções de JVM seguintes
+medir() {
+    jar=$1
+    shift
+    for _ in $(seq "$EXECUCOES"); do
+        inicio=$(date +%s%N)
+        (cd "$DIR" && java "$@" -Dspring.context.exit=onRefresh -jar "$jar" $ARGS > /dev/null 2>&1)
+        echo $(( ($(date +%s%N) - inicio) / 1000000 ))
+    done | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+printf '%-10s %8s\n' variante mediana_ms
+printf '%-10s %8s\n' jar "$(medir "../$JAR")"
+printf '%-10s %8s\n' extraido "$(medir "$JAR")"
+printf '%-10s %8s\n' aot "$(medir "$JAR" -Dspring.aot.enabled=true)"
+printf '%-10s %8s\n' aot+cds "$(medir "$JAR" -XX:SharedArchiveFile=app.jsa -Xlog:cds=off -Dspring.aot.enabled=true)"
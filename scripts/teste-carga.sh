@@ -0,0 +1,50 @@
+#!/bin/sh
+# Teste de carga reproduzível: H2 local (perfil "loadtest"), dados gerados com semente fixa e driver em modelo aberto.
+#
+#   scripts/teste-carga.sh                          # 200 req/s por 60 s com a mistura padrão
+#   TAXA=500 DURACAO=120 scripts/teste-carga.sh
+#   PERFIS=loadtest,virtual scripts/teste-carga.sh  # mesma carga com threads virtuais (build -Pjdk21)
+#   RESEMEAR=1 USUARIOS=10000 POSTAGENS=100000 scripts/teste-carga.sh
+#
+# Resultado em target/carga-resultado.json (p50/p99/p99.9/máximo, vazão, erros, 429 e 503 por cenário).
+set -eu
+cd "$(dirname "$0")/.."
+
+MVN=${MVN:-sh ./mvnw}
+USUARIOS=${USUARIOS:-100000}
+TEMAS=${TEMAS:-40}
+POSTAGENS=${POSTAGENS:-1000000}
+SEMENTE=${SEMENTE:-42}
+TAXA=${TAXA:-200}
+DURACAO=${DURACAO:-60}
+AQUECIMENTO=${AQUECIMENTO:-15}
+MISTURA=${MISTURA:-feed:50,busca:20,perfil:15,escrita:10,login:5}
+PERFIS=${PERFIS:-loadtest}
+PORTA=${PORTA:-8080}
+
+$MVN -B -q -Ploadtest test-compile dependency:build-classpath \
+    -Dmdep.outputFile=target/classpath-carga.txt -Dmdep.includeScope=test
+CP="target/classes:target/test-classes:$(cat target/classpath-carga.txt)"
+
+if [ ! -f data/loadtest/blog.mv.db ] || [ "${RESEMEAR:-0}" = "1" ]; then
+    # Banco novo a cada geração: a collation do H2 (application-loadtest) não muda num arquivo que já tem tabelas
+    mkdir -p data/loadtest
+    rm -f data/loadtest/blog.mv.db data/loadtest/blog.trace.db
+    java -Dspring.devtools.restart.enabled=false -cp "$CP" nilton.acelera.demo.carga.GeradorDados \
+        --usuarios="$USUARIOS" --temas="$TEMAS" --postagens="$POSTAGENS" --semente="$SEMENTE"
+fi
+
+java ${JAVA_OPTS:-} -Dspring.devtools.restart.enabled=false -cp "$CP" nilton.acelera.demo.AceleraMakerBlogApplication \
+    --spring.profiles.active="$PERFIS" --server.port="$PORTA" > target/carga-aplicacao.log 2>&1 &
+APP=$!
+trap 'kill $APP 2>/dev/null || true' EXIT INT TERM
+
+echo "Aguardando a aplicação (log em target/carga-aplicacao.log)..."
+until curl -sf http://localhost:9091/actuator/health > /dev/null; do
+    kill -0 $APP 2>/dev/null || { echo "A aplicação não subiu"; tail -50 target/carga-aplicacao.log; exit 1; }
+    sleep 1
+done
+
+java -cp "$CP" nilton.acelera.demo.carga.CargaAberta \
+    --url="http://localhost:$PORTA" --taxa="$TAXA" --duracao="$DURACAO" --aquecimento="$AQUECIMENTO" \
+    --mistura="$MISTURA" --usuarios="$USUARIOS" --semente="$SEMENTE"
@@ -0,0 +1,193 @@
+#!/bin/sh
+# Teste de coerência entre instâncias: sobe duas cópias da aplicação (A e B) no mesmo banco, escreve pela A e
+# confere que a B enxerga a escrita nas estruturas em memória (filtro de logins, cache de segundo nível, catálogo
+# de temas, índice de busca, contadores) depois de no máximo ESPERA segundos.
+#
+#   scripts/teste-coerencia.sh                                  # H2 em arquivo compartilhado (AUTO_SERVER)
+#   BANCO_URL=jdbc:mysql://localhost:3306/blog BANCO_USUARIO=root BANCO_SENHA=... scripts/teste-coerencia.sh
+#   COERENCIA=false scripts/teste-coerencia.sh                  # controle: sem o registro de alterações a B fica defasada
+#
+# Sai com código 1 se alguma verificação falhar. Logs em target/coerencia-a.log e target/coerencia-b.log.
+set -eu
+cd "$(dirname "$0")/.."
+
+MVN=${MVN:-sh ./mvnw}
+PERFIS=${PERFIS:-loadtest}
+ESPERA=${ESPERA:-3}
+COERENCIA=${COERENCIA:-true}
+A=http://localhost:8081
+B=http://localhost:8082
+
+if [ -z "${BANCO_URL:-}" ]; then
+    rm -rf data/coerencia
+    BANCO_URL="jdbc:h2:file:./data/coerencia/blog;AUTO_SERVER=TRUE;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;COLLATION=PORTUGUESE STRENGTH PRIMARY"
+    BANCO_USUARIO=sa
+fi
+
+$MVN -B -q -Ploadtest test-compile dependency:build-classpath \
+    -Dmdep.outputFile=target/classpath-carga.txt -Dmdep.includeScope=test
+CP="target/classes:target/test-classes:$(cat target/classpath-carga.txt)"
+
+encerrar() {
+    [ -n "${PID_A:-}" ] && kill "$PID_A" 2>/dev/null || true
+    [ -n "${PID_B:-}" ] && kill "$PID_B" 2>/dev/null || true
+}
+trap encerrar EXIT INT TERM
+
+# subir NOME PORTA PORTA_ACTUATOR: cada instância com suas portas e seu arquivo de índice
+subir() {
+    java -Dspring.devtools.restart.enabled=false -cp "$CP" nilton.acelera.demo.AceleraMakerBlogApplication \
+        --spring.profiles.active="$PERFIS" --server.port="$2" --management.server.port="$3" \
+        --spring.datasource.url="$BANCO_URL" --spring.datasource.username="${BANCO_USUARIO:-}" \
+        --spring.datasource.password="${BANCO_SENHA:-}" --blog.busca.arquivo="data/coerencia/indice-$1.bin" \
+        --blog.coerencia.ativo="$COERENCIA" > "target/coerencia-$1.log" 2>&1 &
+    PID=$!
+    until curl -sf "http://localhost:$3/actuator/health" > /dev/null; do
+        kill -0 "$PID" 2>/dev/null || { echo "A instância $1 não subiu"; tail -50 "target/coerencia-$1.log"; exit 1; }
+        sleep 0.2
+    done
+}
+
+# Uma de cada vez: a primeira cria o esquema (ddl-auto) antes de a segunda olhar para ele
+subir a 8081 9191; PID_A=$PID
+
+# Um ADMIN para o DELETE /usuarios/{id}, gravado direto no banco (a API só cria usuários comuns).
+# Hash BCrypt de "senha123", a senha dos dados de carga. Nenhuma instância tem a linha em cache.
+ADMIN="admin$$@teste.local"
+java -cp "$CP" org.h2.tools.Shell -url "$BANCO_URL" -user "${BANCO_USUARIO:-}" -password "${BANCO_SENHA:-}" \
+    -sql "INSERT INTO usuarios (nome, usuario, senha, tipo, data_criacao) VALUES ('Admin Coerência', '$ADMIN',
+          '\$2a\$10\$yqQVV.lz9mm4FmPTdPLjmOP/ixh4/H73Z64ygWvIappg3CiRA4oKO', 'ROLE_ADMIN', CURRENT_TIMESTAMP)" > /dev/null
+
+subir b 8082 9192; PID_B=$PID
+
+FALHAS=0
+CORPO=target/coerencia-resposta.txt
+
+# chamar INSTANCIA METODO CAMINHO STATUS_ESPERADO [corpo JSON] [token]   (STATUS_ESPERADO aceita 401|403)
+chamar() {
+    base=$1; metodo=$2; caminho=$3; esperado=$4; dados=${5:-}; token=${6:-}
+    set -- -s -o "$CORPO" -w '%{http_code}' -X "$metodo" "$base$caminho"
+    [ -n "$dados" ] && set -- "$@" -H 'Content-Type: application/json' -d "$dados"
+    [ -n "$token" ] && set -- "$@" -H "Authorization: Bearer $token"
+    status=$(curl "$@" || echo 000)
+    instancia=$( [ "$base" = "$A" ] && echo A || echo B )
+    case "|$esperado|" in
+        *"|$status|"*) printf '  ok    %s %-6s %-42s %s\n' "$instancia" "$metodo" "$caminho" "$status" ;;
+        *) printf '  FALHA %s %-6s %-42s %s (esperado %s)\n' "$instancia" "$metodo" "$caminho" "$status" "$esperado"
+           FALHAS=$((FALHAS + 1)) ;;
+    esac
+}
+
+# contem TEXTO: confere o corpo da última resposta
+contem() {
+    if grep -qF "$1" "$CORPO"; then echo "        ...contém $1"
+    else echo "  FALHA ...não contém $1"; FALHAS=$((FALHAS + 1)); fi
+}
+
+campo() {
+    grep -o "\"$1\" *: *\"\{0,1\}[^\",}]*" "$CORPO" | head -1 | sed 's/.*: *"\{0,1\}//'
+}
+
+propagar() {
+    sleep "$ESPERA"
+}
+
+LOGIN="coerencia$$@teste.local"
+LOGIN_NOVO="coerencia$$-novo@teste.local"
+PALAVRA="xilogravura$$"
+
+echo "Usuário cadastrado na A:"
+chamar "$B" GET "/usuarios/disponivel?usuario=$LOGIN" 200
+contem '"disponivel":true'
+chamar "$A" POST /usuarios/cadastrar 201 "{\"nome\":\"Coerência\",\"usuario\":\"$LOGIN\",\"senha\":\"senha123\"}"
+USUARIO_ID=$(campo id)
+propagar
+# O filtro de logins da B diria "certamente não existe" sem a alteração da A
+chamar "$B" GET "/usuarios/disponivel?usuario=$LOGIN" 200
+contem '"disponivel":false'
+# Login pela B: o usuário entra no cache de segundo nível e no cache de usuários dela
+chamar "$B" POST /usuarios/login 200 "{\"usuario\":\"$LOGIN\",\"senha\":\"senha123\"}"
+TOKEN=$(campo token)
+
+echo "Tema criado e alterado na A:"
+chamar "$A" POST /temas 201 "{\"descricao\":\"Coerência $$\"}"
+TEMA_ID=$(campo id)
+propagar
+chamar "$B" GET "/temas/$TEMA_ID" 200
+chamar "$A" PUT /temas 200 "{\"id\":$TEMA_ID,\"descricao\":\"Coerência $$ editado\"}" "$TOKEN"
+propagar
+chamar "$B" GET "/temas/$TEMA_ID" 200
+contem "editado"
+
+echo "Postagem criada e removida na A:"
+chamar "$A" POST /postagens 201 "{\"titulo\":\"Entre instâncias\",\"texto\":\"$PALAVRA\",\"tema\":{\"id\":$TEMA_ID}}" "$TOKEN"
+POSTAGEM_ID=$(campo id)
+propagar
+chamar "$B" GET "/postagens/busca?q=$PALAVRA" 200
+contem "\"id\":$POSTAGEM_ID"
+chamar "$B" GET "/usuarios/$USUARIO_ID/estatisticas" 200 "" "$TOKEN"
+contem '"totalPostagens":1'
+chamar "$A" DELETE "/postagens/$POSTAGEM_ID" 204 "" "$TOKEN"
+propagar
+chamar "$B" GET "/usuarios/$USUARIO_ID/estatisticas" 200 "" "$TOKEN"
+contem '"totalPostagens":0'
+
+echo "Postagem assíncrona na A, consultada na B:"
+chamar "$A" POST /postagens/assincrona 202 "{\"titulo\":\"Pela fila\",\"texto\":\"fila\",\"tema\":{\"id\":$TEMA_ID}}" "$TOKEN"
+RASTREIO=$(campo rastreio)
+propagar
+# A B não tem o pedido na memória: a situação CRIADA vem do registro de alterações
+chamar "$B" GET "/postagens/assincrona/$RASTREIO" 200 "" "$TOKEN"
+contem '"situacao":"CRIADA"'
+chamar "$A" DELETE "/postagens/$(campo postagemId)" 204 "" "$TOKEN"
+propagar
+
+echo "Postagem removida na A com a B parada:"
+chamar "$A" POST /postagens 201 "{\"titulo\":\"Com a B parada\",\"texto\":\"${PALAVRA}b\",\"tema\":{\"id\":$TEMA_ID}}" "$TOKEN"
+POSTAGEM_ID=$(campo id)
+propagar
+chamar "$B" GET "/postagens/busca?q=${PALAVRA}b" 200
+contem "\"id\":$POSTAGEM_ID"
+# A B grava o retrato do índice ao parar e, na volta, relê do registro o que mudou desde ele
+kill "$PID_B"; wait "$PID_B" 2>/dev/null || true
+chamar "$A" DELETE "/postagens/$POSTAGEM_ID" 204 "" "$TOKEN"
+subir b 8082 9192; PID_B=$PID
+until [ "$(curl -s -o /dev/null -w '%{http_code}' "$B/postagens/busca?q=${PALAVRA}b")" = 200 ]; do sleep 0.2; done
+chamar "$B" GET "/postagens/busca?q=${PALAVRA}b" 200
+contem "[]"
+
+echo "Recontagem na A com delta pendente na B:"
+chamar "$A" POST /usuarios/login 200 "{\"usuario\":\"$ADMIN\",\"senha\":\"senha123\"}"
+TOKEN_ADMIN=$(campo token)
+chamar "$B" POST /postagens 201 "{\"titulo\":\"Antes da recontagem\",\"texto\":\"$PALAVRA\",\"tema\":{\"id\":$TEMA_ID}}" "$TOKEN"
+POSTAGEM_ID=$(campo id)
+# O delta da B (geração anterior) já entra no COUNT da A e não pode ser somado de novo na gravação dela
+chamar "$A" POST /monitoramento/contadores/recontar 204 "" "$TOKEN_ADMIN"
+# Gravação da B (5 s) e releitura dos contadores com delta remoto (dois intervalos sem delta)
+sleep 15
+chamar "$B" GET "/usuarios/$USUARIO_ID/estatisticas" 200 "" "$TOKEN"
+contem '"totalPostagens":1'
+chamar "$A" GET "/usuarios/$USUARIO_ID/estatisticas" 200 "" "$TOKEN"
+contem '"totalPostagens":1'
+chamar "$B" DELETE "/postagens/$POSTAGEM_ID" 204 "" "$TOKEN"
+
+echo "Login e senha trocados na A:"
+chamar "$A" PUT /usuarios/atualizar 200 \
+    "{\"id\":$USUARIO_ID,\"nome\":\"Coerência\",\"usuario\":\"$LOGIN_NOVO\",\"senha\":\"novasenha\"}" "$TOKEN"
+propagar
+chamar "$B" POST /usuarios/login "401|403" "{\"usuario\":\"$LOGIN\",\"senha\":\"senha123\"}"
+chamar "$B" POST /usuarios/login 200 "{\"usuario\":\"$LOGIN_NOVO\",\"senha\":\"novasenha\"}"
+TOKEN=$(campo token)
+
+echo "Tema e usuário removidos na A:"
+chamar "$A" DELETE "/temas/$TEMA_ID" "200|204" "" "$TOKEN"
+# Remover usuário é só para ADMIN (@PreAuthorize)
+chamar "$A" DELETE "/usuarios/$USUARIO_ID" 403 "" "$TOKEN"
+chamar "$A" DELETE "/usuarios/$USUARIO_ID" 204 "" "$TOKEN_ADMIN"
+propagar
+chamar "$B" GET "/temas/$TEMA_ID" 404
+chamar "$B" POST /usuarios/login "401|403" "{\"usuario\":\"$LOGIN_NOVO\",\"senha\":\"novasenha\"}"
+
+echo
+echo "Falhas: $FALHAS (espera de ${ESPERA}s por verificação, coerência ativa: $COERENCIA)"
+[ "$FALHAS" -eq 0 ]
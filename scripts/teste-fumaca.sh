@@ -0,0 +1,145 @@
+#!/bin/sh
+# Teste de fumaça: sobe a aplicação (por padrão o binário nativo target/blog), passa por todos os endpoints
+# conferindo o status HTTP e no fim mostra o tempo até o health responder e a memória residente (RSS).
+#
+#   mvn -Pnative native:compile -DskipTests && scripts/teste-fumaca.sh
+#   APP="java -jar target/demo-0.0.1-SNAPSHOT.jar" scripts/teste-fumaca.sh     # mesma bateria na JVM
+#   BANCO_URL=jdbc:mysql://localhost:3306/blog BANCO_USUARIO=root BANCO_SENHA=... scripts/teste-fumaca.sh
+#
+# Sem BANCO_URL, sobe um MySQL descartável no Docker (contêiner blog-fumaca-mysql, removido no fim).
+# Sai com código 1 se algum endpoint responder com status diferente do esperado.
+set -eu
+cd "$(dirname "$0")/.."
+
+APP=${APP:-target/blog}
+PERFIS=${PERFIS:-prod,esquema}
+PORTA=${PORTA:-8080}
+URL="http://localhost:$PORTA"
+MYSQL=""
+
+encerrar() {
+    [ -n "${PID:-}" ] && kill "$PID" 2>/dev/null || true
+    [ -n "$MYSQL" ] && docker rm -f "$MYSQL" > /dev/null 2>&1 || true
+}
+trap encerrar EXIT INT TERM
+
+if [ -z "${BANCO_URL:-}" ]; then
+    MYSQL=blog-fumaca-mysql
+    docker run -d --rm --name "$MYSQL" -p 3307:3306 -e MYSQL_ROOT_PASSWORD=fumaca -e MYSQL_DATABASE=blog mysql:8.4 > /dev/null
+    until docker exec "$MYSQL" mysqladmin ping -h 127.0.0.1 -pfumaca --silent 2> /dev/null; do sleep 1; done
+    BANCO_URL=jdbc:mysql://127.0.0.1:3307/blog
+    BANCO_USUARIO=root
+    BANCO_SENHA=fumaca
+fi
+
+mkdir -p target
+inicio=$(date +%s%N)
+$APP --spring.profiles.active="$PERFIS" --server.port="$PORTA" \
+    --spring.datasource.url="$BANCO_URL" --spring.datasource.username="${BANCO_USUARIO:-}" \
+    --spring.datasource.password="${BANCO_SENHA:-}" > target/fumaca-aplicacao.log 2>&1 &
+PID=$!
+until curl -sf http://localhost:9091/actuator/health > /dev/null; do
+    kill -0 "$PID" 2>/dev/null || { echo "A aplicação não subiu"; tail -50 target/fumaca-aplicacao.log; exit 1; }
+    sleep 0.05
+done
+tempo_inicio=$(( ($(date +%s%N) - inicio) / 1000000 ))
+
+FALHAS=0
+CORPO=target/fumaca-resposta.txt
+
+# chamar METODO CAMINHO STATUS_ESPERADO [corpo] [token] [tipo do corpo, padrão application/json]
+# (STATUS_ESPERADO aceita alternativas: 200|201)
+chamar() {
+    metodo=$1; caminho=$2; esperado=$3; dados=${4:-}; token=${5:-}; tipo=${6:-application/json}
+    set -- -s -o "$CORPO" -w '%{http_code}' -X "$metodo" "$URL$caminho"
+    [ -n "$dados" ] && set -- "$@" -H "Content-Type: $tipo" -d "$dados"
+    [ -n "$token" ] && set -- "$@" -H "Authorization: Bearer $token"
+    status=$(curl "$@" || echo 000)
+    case "|$esperado|" in
+        *"|$status|"*) printf '  ok    %-6s %-45s %s\n' "$metodo" "$caminho" "$status" ;;
+        *) printf '  FALHA %-6s %-45s %s (esperado %s)\n' "$metodo" "$caminho" "$status" "$esperado"
+           FALHAS=$((FALHAS + 1)) ;;
+    esac
+}
+
+# Valor da primeira ocorrência de um campo na última resposta (JSON simples, sem depender de jq)
+campo() {
+    grep -o "\"$1\" *: *\"\{0,1\}[^\",}]*" "$CORPO" | head -1 | sed 's/.*: *"\{0,1\}//'
+}
+
+LOGIN="fumaca$$@teste.local"
+echo "Endpoints:"
+chamar GET  /v3/api-docs 200
+chamar GET  /swagger-ui/index.html 200
+curl -sf http://localhost:9091/actuator/prometheus > /dev/null \
+    && echo "  ok    GET    :9091/actuator/prometheus" \
+    || { echo "  FALHA GET    :9091/actuator/prometheus"; FALHAS=$((FALHAS + 1)); }
+
+chamar GET  "/usuarios/disponivel?usuario=$LOGIN" 200
+chamar POST /usuarios/cadastrar 201 "{\"nome\":\"Fumaça\",\"usuario\":\"$LOGIN\",\"senha\":\"senha123\"}"
+USUARIO_ID=$(campo id)
+chamar POST /usuarios/cadastrar 400 "{\"nome\":\"Fumaça\",\"usuario\":\"$LOGIN\",\"senha\":\"senha123\"}"
+chamar POST /usuarios/login 200 "{\"usuario\":\"$LOGIN\",\"senha\":\"senha123\"}"
+TOKEN=$(campo token)
+RENOVACAO=$(campo tokenRenovacao)
+chamar POST /usuarios/login "401|403" "{\"usuario\":\"$LOGIN\",\"senha\":\"errada\"}"
+chamar POST /usuarios/renovar 200 "{\"tokenRenovacao\":\"$RENOVACAO\"}"
+TOKEN=$(campo token)
+chamar POST /usuarios/renovar 401 "{\"tokenRenovacao\":\"$RENOVACAO\"}"
+chamar PUT  /usuarios/atualizar 200 \
+    "{\"id\":$USUARIO_ID,\"nome\":\"Fumaça 2\",\"usuario\":\"$LOGIN\",\"senha\":\"senha123\"}" "$TOKEN"
+chamar GET  "/usuarios/$USUARIO_ID/estatisticas" 200 "" "$TOKEN"
+
+chamar POST /temas 201 "{\"descricao\":\"Fumaça $$\"}"
+TEMA_ID=$(campo id)
+chamar GET  /temas 200
+chamar GET  "/temas/$TEMA_ID" 200
+chamar GET  /temas/contagens 200
+chamar GET  "/temas/descricao/Fuma" 200
+chamar PUT  /temas 200 "{\"id\":$TEMA_ID,\"descricao\":\"Fumaça $$ editado\"}" "$TOKEN"
+
+chamar POST /postagens "401|403" "{\"titulo\":\"sem token\",\"texto\":\"x\",\"tema\":{\"id\":$TEMA_ID}}"
+chamar POST /postagens 201 "{\"titulo\":\"Teste de fumaça\",\"texto\":\"binário nativo\",\"tema\":{\"id\":$TEMA_ID}}" "$TOKEN"
+POSTAGEM_ID=$(campo id)
+chamar GET  "/postagens/$POSTAGEM_ID" 200
+chamar PUT  /postagens 200 \
+    "{\"id\":$POSTAGEM_ID,\"titulo\":\"Teste de fumaça\",\"texto\":\"editado\",\"tema\":{\"id\":$TEMA_ID}}" "$TOKEN"
+chamar POST /postagens/assincrona 202 "{\"titulo\":\"Assíncrona\",\"texto\":\"fila\",\"tema\":{\"id\":$TEMA_ID}}" "$TOKEN"
+chamar GET  "/postagens/assincrona/$(campo rastreio)" 200 "" "$TOKEN"
+chamar GET  /postagens 200
+chamar GET  "/postagens/titulo/fuma" 200
+chamar GET  "/postagens/busca?q=fuma%C3%A7a" "200|503"
+chamar GET  "/postagens/pagina?tamanho=5" 200
+chamar GET  "/postagens/titulo/fuma/pagina?tamanho=5" 200
+chamar GET  "/postagens/tema/$TEMA_ID/pagina" 200
+chamar GET  "/postagens/usuario/$USUARIO_ID/pagina" 200
+chamar GET  /postagens/resumo 200
+chamar GET  "/postagens/resumo/tema/$TEMA_ID" 200
+chamar GET  "/postagens/resumo/usuario/$USUARIO_ID" 200
+chamar GET  "/postagens/usuario/$USUARIO_ID/recentes" 200
+chamar GET  "/postagens/exportar?formato=ndjson" "401|403"
+
+# Rotas de ADMIN com usuário comum: confere autenticação e autorização
+chamar POST /postagens/busca/reconstruir 403 "" "$TOKEN"
+chamar GET  "/postagens/exportar?formato=json" 403 "" "$TOKEN"
+chamar POST /postagens/lote 403 "{\"titulo\":\"lote\",\"texto\":\"x\",\"usuarioId\":$USUARIO_ID,\"temaId\":$TEMA_ID}" \
+    "$TOKEN" application/x-ndjson
+chamar GET  /monitoramento/linha-do-tempo 403 "" "$TOKEN"
+chamar GET  /monitoramento/senhas 403 "" "$TOKEN"
+chamar GET  /monitoramento/limite 403 "" "$TOKEN"
+chamar GET  /monitoramento/filtro-usuarios 403 "" "$TOKEN"
+chamar GET  /monitoramento/cache-segundo-nivel 403 "" "$TOKEN"
+chamar GET  /monitoramento/coerencia 403 "" "$TOKEN"
+chamar POST /monitoramento/contadores/recontar 403 "" "$TOKEN"
+# @PreAuthorize("hasRole('ADMIN')")
+chamar DELETE "/usuarios/$USUARIO_ID" 403 "" "$TOKEN"
+
+chamar DELETE "/postagens/$POSTAGEM_ID" 204 "" "$TOKEN"
+chamar GET  "/postagens/$POSTAGEM_ID" 404
+# O tema ainda tem a postagem assíncrona: a remoção é recusada
+chamar DELETE "/temas/$TEMA_ID" 400 "" "$TOKEN"
+
+rss=$(awk '/VmRSS/ { print int($2 / 1024) }' "/proc/$PID/status" 2>/dev/null || echo "?")
+echo
+echo "Início até o health: ${tempo_inicio} ms   RSS depois da bateria: ${rss} MB   Falhas: $FALHAS"
+[ "$FALHAS" -eq 0 ]
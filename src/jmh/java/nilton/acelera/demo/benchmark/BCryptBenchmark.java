@@ -0,0 +1,38 @@
+package nilton.acelera.demo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// Custo do BCrypt por fator (blog.senha.custo): base para escolher o custo e dimensionar o ExecutorSenhas
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BCryptBenchmark {
+
+    @Param({ "4", "8", "10", "12" })
+    public int custo;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void preparar() {
+        encoder = new BCryptPasswordEncoder(custo);
+        hash = encoder.encode("senha-de-teste-123");
+    }
+
+    @Benchmark
+    public String codificar() {
+        return encoder.encode("senha-de-teste-123");
+    }
+
+    @Benchmark
+    public boolean verificar() {
+        return encoder.matches("senha-de-teste-123", hash);
+    }
+}
@@ -0,0 +1,49 @@
+package nilton.acelera.demo.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import nilton.acelera.demo.model.Postagem;
+import nilton.acelera.demo.model.Tema;
+import nilton.acelera.demo.model.TipoUsuario;
+import nilton.acelera.demo.model.Usuario;
+
+// Objetos de exemplo compartilhados pelos benchmarks
+final class Dados {
+
+    private Dados() {
+    }
+
+    static Usuario usuario() {
+        Usuario usuario = new Usuario();
+        usuario.setId(42L);
+        usuario.setNome("Maria da Silva");
+        usuario.setUsuario("maria@exemplo.com");
+        usuario.setFoto("https://exemplo.com/fotos/maria.png");
+        usuario.setTipo(TipoUsuario.ROLE_USER);
+        usuario.setDataCriacao(LocalDateTime.of(2024, 1, 15, 10, 30));
+        return usuario;
+    }
+
+    static List<Postagem> postagens(int quantidade) {
+        Usuario autor = usuario();
+        Tema tema = new Tema();
+        tema.setId(3L);
+        tema.setDescricao("Tecnologia");
+
+        List<Postagem> postagens = new ArrayList<>(quantidade);
+        LocalDateTime data = LocalDateTime.of(2025, 5, 1, 8, 0);
+        for (int i = 0; i < quantidade; i++) {
+            Postagem postagem = new Postagem();
+            postagem.setId((long) i + 1);
+            postagem.setTitulo("Título da postagem número " + i);
+            postagem.setTexto("Texto da postagem " + i + ". " + "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(8));
+            postagem.setData(data.minusMinutes(i));
+            postagem.setUsuario(autor);
+            postagem.setTema(tema);
+            postagens.add(postagem);
+        }
+        return postagens;
+    }
+}
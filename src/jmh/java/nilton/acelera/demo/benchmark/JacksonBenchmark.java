@@ -0,0 +1,39 @@
+package nilton.acelera.demo.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import nilton.acelera.demo.model.Postagem;
+
+// Serialização de listas de Postagem (com usuário e tema aninhados) como nas respostas dos controllers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int tamanho;
+
+    private ObjectMapper mapper;
+    private List<Postagem> postagens;
+
+    @Setup
+    public void preparar() {
+        // Mesmo construtor que o Spring Boot usa para o ObjectMapper da aplicação (JavaTimeModule etc.)
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        postagens = Dados.postagens(tamanho);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws Exception {
+        return mapper.writeValueAsBytes(postagens);
+    }
+}
@@ -0,0 +1,53 @@
+package nilton.acelera.demo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nilton.acelera.demo.security.jwt.CacheTokensVerificados;
+import nilton.acelera.demo.security.jwt.JwtService;
+
+// Geração e validação de tokens: caminho antigo (validarToken + extrairUsuario = dois parses)
+// contra verificar() com um parse, com e sem o cache de tokens verificados.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtService comCache;
+    private JwtService semCache;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        comCache = new JwtService(new CacheTokensVerificados(10_000), new SimpleMeterRegistry());
+        semCache = new JwtService(new CacheTokensVerificados(0), new SimpleMeterRegistry());
+        token = comCache.gerarTokenComAuthorities(Dados.usuario());
+        comCache.verificar(token);
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return semCache.gerarTokenComAuthorities(Dados.usuario());
+    }
+
+    @Benchmark
+    public String validarEExtrairAntigo() {
+        return semCache.validarToken(token) ? semCache.extrairUsuario(token) : null;
+    }
+
+    @Benchmark
+    public Claims verificarUmParse() {
+        return semCache.verificar(token).orElse(null);
+    }
+
+    @Benchmark
+    public Claims verificarComCache() {
+        return comCache.verificar(token).orElse(null);
+    }
+}
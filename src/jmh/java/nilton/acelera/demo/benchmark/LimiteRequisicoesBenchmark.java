@@ -0,0 +1,49 @@
+package nilton.acelera.demo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.FilterChain;
+import nilton.acelera.demo.security.LimiteRequisicoesFilter;
+
+// Custo por requisição do limite de requisições (meta: abaixo de 1 µs). Cada thread do JMH é um cliente (IP);
+// para medir contenção use -t N em uma máquina com N núcleos.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LimiteRequisicoesBenchmark {
+
+    private LimiteRequisicoesFilter filtro;
+    private final FilterChain cadeia = (req, res) -> { };
+
+    @State(Scope.Thread)
+    public static class Cliente {
+        MockHttpServletRequest requisicao;
+        MockHttpServletResponse resposta;
+
+        @Setup
+        public void preparar() {
+            requisicao = new MockHttpServletRequest("GET", "/postagens/pagina");
+            requisicao.setRemoteAddr("10.0.0." + Thread.currentThread().getId() % 250);
+            resposta = new MockHttpServletResponse();
+        }
+    }
+
+    @Setup
+    public void preparar() {
+        // Limite alto: mede o caminho de quem passa, não o 429
+        filtro = new LimiteRequisicoesFilter(true, "", 100_000, 10, 10, 30, 60, 1_000_000, 1_000_000_000);
+    }
+
+    @Benchmark
+    public int filtrar(Cliente cliente) throws Exception {
+        filtro.doFilter(cliente.requisicao, cliente.resposta, cadeia);
+        return cliente.resposta.getStatus();
+    }
+}
@@ -0,0 +1,65 @@
+package nilton.acelera.demo.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import nilton.acelera.demo.repository.UsuarioRepository;
+import nilton.acelera.demo.security.CacheUsuarios;
+import nilton.acelera.demo.security.jwt.CacheTokensVerificados;
+import nilton.acelera.demo.security.jwt.JwtService;
+import nilton.acelera.demo.security.jwt.TokenFilter;
+
+// TokenFilter completo (cabeçalho -> verificação -> principal no contexto) com o repositório mockado.
+// semEstado=true monta o principal pelas claims; false passa pelo cache de usuários.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenFilterBenchmark {
+
+    @Param({ "true", "false" })
+    public boolean semEstado;
+
+    @Param({ "true", "false" })
+    public boolean cacheDeTokens;
+
+    private TokenFilter filtro;
+    private MockHttpServletRequest requisicao;
+    private MockHttpServletResponse resposta;
+    private final FilterChain cadeia = (req, res) -> { };
+
+    @Setup
+    public void preparar() {
+        UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+        when(usuarioRepository.findByUsuario(anyString())).thenReturn(Optional.of(Dados.usuario()));
+
+        JwtService jwtService = new JwtService(new CacheTokensVerificados(cacheDeTokens ? 10_000 : 0),
+                new SimpleMeterRegistry());
+        filtro = new TokenFilter(jwtService, new CacheUsuarios(usuarioRepository, 60_000, 10_000), semEstado);
+
+        requisicao = new MockHttpServletRequest("GET", "/postagens/pagina");
+        requisicao.addHeader("Authorization", "Bearer " + jwtService.gerarTokenComAuthorities(Dados.usuario()));
+        resposta = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object filtrar() throws Exception {
+        filtro.doFilter(requisicao, resposta, cadeia);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
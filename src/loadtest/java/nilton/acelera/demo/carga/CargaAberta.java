@@ -0,0 +1,250 @@
+package nilton.acelera.demo.carga;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Driver de carga em modelo aberto: as chegadas seguem um processo de Poisson com a taxa pedida, independente
+// de quanto o servidor demora. A latência é medida a partir do instante PLANEJADO de envio, então fila no
+// servidor (ou no próprio cliente) aparece nos percentis em vez de sumir (sem "coordinated omission").
+// Requisições além de --maximo-em-voo não são enviadas: contam como descartadas e entram no cenário como erro com
+// latência igual ao tempo limite (30 s), o mesmo que o cliente registraria se tivesse esperado por elas.
+//
+// Uso: CargaAberta --url=http://localhost:8080 --taxa=200 --duracao=60 --aquecimento=15
+//        --mistura=feed:50,busca:20,perfil:15,escrita:10,login:5 --usuarios=100000 --semente=7
+public class CargaAberta {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Duration TEMPO_LIMITE = Duration.ofSeconds(30);
+
+    private final HttpClient cliente;
+    private final String url;
+    private final int usuarios;
+    private final DistribuicaoZipf perfis;
+    private final List<String> tokens = new ArrayList<>();
+    private final Map<String, Resultados> porCenario = new ConcurrentHashMap<>();
+    private final AtomicLong descartadas = new AtomicLong();
+
+    CargaAberta(String url, int usuarios) {
+        this.url = url;
+        this.usuarios = usuarios;
+        this.perfis = new DistribuicaoZipf(usuarios, 1.1);
+        this.cliente = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> p = GeradorDados.parametros(args);
+        String url = p.getOrDefault("url", "http://localhost:8080");
+        double taxa = Double.parseDouble(p.getOrDefault("taxa", "200"));
+        int duracao = Integer.parseInt(p.getOrDefault("duracao", "60"));
+        int aquecimento = Integer.parseInt(p.getOrDefault("aquecimento", "15"));
+        int maximoEmVoo = Integer.parseInt(p.getOrDefault("maximo-em-voo", "2000"));
+        int usuarios = Integer.parseInt(p.getOrDefault("usuarios", "100000"));
+        long semente = Long.parseLong(p.getOrDefault("semente", "7"));
+        String[][] mistura = mistura(p.getOrDefault("mistura", "feed:50,busca:20,perfil:15,escrita:10,login:5"));
+        String saida = p.getOrDefault("saida", "target/carga-resultado.json");
+
+        CargaAberta carga = new CargaAberta(url, usuarios);
+        carga.autenticarEscritores(Math.min(50, usuarios));
+        carga.executar(new SplittableRandom(semente), taxa, aquecimento, duracao, maximoEmVoo, mistura);
+
+        String relatorio = carga.relatorio(taxa, duracao);
+        System.out.println(relatorio);
+        Path arquivo = Path.of(saida);
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        Files.writeString(arquivo, relatorio);
+        System.exit(0);
+    }
+
+    // Faz login antes da medição: o cenário "escrita" reaproveita esses tokens, o "login" mede o BCrypt à parte
+    private void autenticarEscritores(int quantidade) throws Exception {
+        for (int id = 1; id <= quantidade; id++) {
+            HttpResponse<String> resposta = cliente.send(login(id), HttpResponse.BodyHandlers.ofString());
+            Matcher m = TOKEN.matcher(resposta.body());
+            if (resposta.statusCode() == 200 && m.find()) {
+                tokens.add(m.group(1));
+            }
+        }
+        if (tokens.isEmpty()) {
+            throw new IllegalStateException("Nenhum login funcionou em " + url + " (banco gerado pelo GeradorDados?)");
+        }
+    }
+
+    private void executar(SplittableRandom aleatorio, double taxa, int aquecimento, int duracao, int maximoEmVoo,
+            String[][] mistura) throws InterruptedException {
+        Semaphore emVoo = new Semaphore(maximoEmVoo);
+        int[] pesos = Arrays.stream(mistura).mapToInt(c -> Integer.parseInt(c[1])).toArray();
+        int pesoTotal = Arrays.stream(pesos).sum();
+
+        long inicio = System.nanoTime();
+        long inicioMedicao = inicio + TimeUnit.SECONDS.toNanos(aquecimento);
+        long fim = inicioMedicao + TimeUnit.SECONDS.toNanos(duracao);
+        double proxima = inicio;
+
+        while (proxima < fim) {
+            // Intervalo exponencial entre chegadas = processo de Poisson
+            proxima += -Math.log(1 - aleatorio.nextDouble()) / taxa * 1e9;
+            long planejado = (long) proxima;
+            long espera = planejado - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            boolean medindo = planejado >= inicioMedicao;
+
+            String cenario = sortearCenario(aleatorio, mistura, pesos, pesoTotal);
+            if (!emVoo.tryAcquire()) {
+                if (medindo) {
+                    descartadas.incrementAndGet();
+                    porCenario.computeIfAbsent(cenario, c -> new Resultados()).registrar(TEMPO_LIMITE.toNanos(), -1);
+                }
+                continue;
+            }
+            cliente.sendAsync(requisicao(cenario, aleatorio), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resposta, erro) -> {
+                        emVoo.release();
+                        if (medindo) {
+                            long latencia = System.nanoTime() - planejado;
+                            porCenario.computeIfAbsent(cenario, c -> new Resultados())
+                                    .registrar(latencia, erro == null ? resposta.statusCode() : -1);
+                        }
+                    });
+        }
+        // Espera as que ainda estão em voo (até 30 s) antes de fechar o relatório
+        emVoo.tryAcquire(maximoEmVoo, 30, TimeUnit.SECONDS);
+    }
+
+    private static String sortearCenario(SplittableRandom aleatorio, String[][] mistura, int[] pesos, int total) {
+        int sorteio = aleatorio.nextInt(total);
+        for (int i = 0; i < pesos.length; i++) {
+            sorteio -= pesos[i];
+            if (sorteio < 0) return mistura[i][0];
+        }
+        return mistura[mistura.length - 1][0];
+    }
+
+    private HttpRequest requisicao(String cenario, SplittableRandom aleatorio) {
+        switch (cenario) {
+            case "feed":
+                return get("/postagens/pagina?tamanho=20");
+            case "busca":
+                String termo = Vocabulario.palavra(aleatorio) + " " + Vocabulario.palavra(aleatorio);
+                return get("/postagens/busca?q=" + URLEncoder.encode(termo, StandardCharsets.UTF_8));
+            case "perfil":
+                return get("/postagens/usuario/" + perfis.sortear(aleatorio) + "/recentes");
+            case "login":
+                return login(1 + aleatorio.nextInt(usuarios));
+            case "escrita":
+                String corpo = "{\"titulo\":\"" + Vocabulario.frase(aleatorio, 3, 8, 100)
+                        + "\",\"texto\":\"" + Vocabulario.frase(aleatorio, 20, 80, 1000)
+                        + "\",\"tema\":{\"id\":1}}";
+                return HttpRequest.newBuilder(URI.create(url + "/postagens"))
+                        .header("Content-Type", "application/json")
+                        .header("Authorization", "Bearer " + tokens.get(aleatorio.nextInt(tokens.size())))
+                        .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                        .timeout(TEMPO_LIMITE)
+                        .build();
+            default:
+                throw new IllegalArgumentException("Cenário desconhecido: " + cenario);
+        }
+    }
+
+    private HttpRequest get(String caminho) {
+        return HttpRequest.newBuilder(URI.create(url + caminho)).GET().timeout(TEMPO_LIMITE).build();
+    }
+
+    private HttpRequest login(int id) {
+        String corpo = "{\"usuario\":\"usuario" + id + "@carga.local\",\"senha\":\"" + GeradorDados.SENHA + "\"}";
+        return HttpRequest.newBuilder(URI.create(url + "/usuarios/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .timeout(TEMPO_LIMITE)
+                .build();
+    }
+
+    private static String[][] mistura(String texto) {
+        return Arrays.stream(texto.split(",")).map(c -> c.trim().split(":")).toArray(String[][]::new);
+    }
+
+    private String relatorio(double taxa, int duracao) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"taxaPedida\": ").append(taxa)
+                .append(",\n  \"duracaoSegundos\": ").append(duracao)
+                .append(",\n  \"descartadas\": ").append(descartadas.get())
+                .append(",\n  \"cenarios\": {");
+        String separador = "\n";
+        long total = 0;
+        for (Map.Entry<String, Resultados> e : porCenario.entrySet()) {
+            json.append(separador).append("    \"").append(e.getKey()).append("\": ").append(e.getValue().json(duracao));
+            total += e.getValue().quantidade();
+            separador = ",\n";
+        }
+        json.append("\n  },\n  \"vazaoTotal\": ").append(String.format(Locale.ROOT, "%.1f", (double) total / duracao))
+                .append("\n}");
+        return json.toString();
+    }
+
+    // Latências em microssegundos + contagem por tipo de resposta de um cenário
+    private static final class Resultados {
+
+        private long[] latencias = new long[1024];
+        private int quantidade;
+        private long erros;
+        private long limitadas;
+        private long sobrecarga;
+
+        synchronized void registrar(long latenciaNanos, int status) {
+            if (quantidade == latencias.length) {
+                latencias = Arrays.copyOf(latencias, quantidade * 2);
+            }
+            latencias[quantidade++] = latenciaNanos / 1_000;
+            if (status == 429) limitadas++;
+            else if (status == 503) sobrecarga++;
+            else if (status < 200 || status >= 400) erros++;
+        }
+
+        synchronized int quantidade() {
+            return quantidade;
+        }
+
+        synchronized String json(int duracao) {
+            long[] ordenadas = Arrays.copyOf(latencias, quantidade);
+            Arrays.sort(ordenadas);
+            return String.format(Locale.ROOT,
+                    "{\"requisicoes\": %d, \"vazao\": %.1f, \"p50us\": %d, \"p99us\": %d, \"p999us\": %d, "
+                            + "\"maximoUs\": %d, \"erros\": %d, \"status429\": %d, \"status503\": %d}",
+                    quantidade, (double) quantidade / duracao, percentil(ordenadas, 0.50), percentil(ordenadas, 0.99),
+                    percentil(ordenadas, 0.999), quantidade == 0 ? 0 : ordenadas[quantidade - 1],
+                    erros, limitadas, sobrecarga);
+        }
+
+        private static long percentil(long[] ordenadas, double p) {
+            if (ordenadas.length == 0) return 0;
+            return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)];
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package nilton.acelera.demo.carga;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Sorteia 1..n com probabilidade proporcional a 1/k^expoente (poucos itens muito populares, cauda longa).
+// Usada para autores por postagem, temas e perfis visitados. CDF pré-calculada + busca binária.
+final class DistribuicaoZipf {
+
+    private final double[] acumulada;
+
+    DistribuicaoZipf(int n, double expoente) {
+        acumulada = new double[n];
+        double soma = 0;
+        for (int k = 1; k <= n; k++) {
+            soma += 1.0 / Math.pow(k, expoente);
+            acumulada[k - 1] = soma;
+        }
+        for (int i = 0; i < n; i++) {
+            acumulada[i] /= soma;
+        }
+    }
+
+    int sortear(SplittableRandom aleatorio) {
+        int posicao = Arrays.binarySearch(acumulada, aleatorio.nextDouble());
+        return (posicao >= 0 ? posicao : -posicao - 1) + 1;
+    }
+}
@@ -0,0 +1,141 @@
+package nilton.acelera.demo.carga;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import nilton.acelera.demo.AceleraMakerBlogApplication;
+
+// Popula o banco do perfil "loadtest" com usuários, temas e postagens em distribuições realistas:
+// - autores por Zipf (poucos autores escrevem muito), temas por Zipf, datas espalhadas nos últimos 2 anos;
+// - todos os usuários com a senha "senha123" (um único hash BCrypt) e logins usuarioN@carga.local, N = id;
+// - usuário 1 é ROLE_ADMIN.
+// Sobe o contexto Spring (porta aleatória; a configuração de segurança exige o contexto web) só para o Hibernate criar o esquema; os dados entram por JDBC batch.
+//
+// Uso: GeradorDados --usuarios=100000 --temas=40 --postagens=1000000 --semente=42
+public class GeradorDados {
+
+    static final String SENHA = "senha123";
+
+    private static final int LOTE = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = parametros(args);
+        int usuarios = Integer.parseInt(parametros.getOrDefault("usuarios", "100000"));
+        int temas = Integer.parseInt(parametros.getOrDefault("temas", "40"));
+        int postagens = Integer.parseInt(parametros.getOrDefault("postagens", "1000000"));
+        long semente = Long.parseLong(parametros.getOrDefault("semente", "42"));
+
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(AceleraMakerBlogApplication.class)
+                .profiles("loadtest")
+                .run("--spring.jpa.hibernate.ddl-auto=create", "--server.port=0", "--management.server.port=-1");
+        try (Connection conexao = contexto.getBean(DataSource.class).getConnection()) {
+            conexao.setAutoCommit(false);
+            SplittableRandom aleatorio = new SplittableRandom(semente);
+            long inicio = System.nanoTime();
+
+            inserirTemas(conexao, temas);
+            inserirUsuarios(conexao, usuarios);
+            inserirPostagens(conexao, postagens, usuarios, temas, aleatorio);
+            try (Statement comando = conexao.createStatement()) {
+                comando.executeUpdate("DELETE FROM contadores_postagens");
+            }
+            conexao.commit();
+
+            System.out.printf("Dados gerados em %d s: %d usuários, %d temas, %d postagens%n",
+                    (System.nanoTime() - inicio) / 1_000_000_000, usuarios, temas, postagens);
+        } finally {
+            contexto.close();
+        }
+        // Contadores e índice de busca são refeitos a partir do banco na próxima subida da aplicação
+        Files.deleteIfExists(Path.of("data/loadtest/indice-postagens.bin"));
+    }
+
+    private static void inserirTemas(Connection conexao, int temas) throws Exception {
+        try (PreparedStatement comando = conexao.prepareStatement("INSERT INTO temas (descricao) VALUES (?)")) {
+            for (int i = 1; i <= temas; i++) {
+                comando.setString(1, "Tema " + i + " - " + Vocabulario.PALAVRAS[i % Vocabulario.PALAVRAS.length]);
+                comando.addBatch();
+            }
+            comando.executeBatch();
+        }
+        conexao.commit();
+    }
+
+    private static void inserirUsuarios(Connection conexao, int usuarios) throws Exception {
+        String hash = new BCryptPasswordEncoder().encode(SENHA);
+        Timestamp criacao = Timestamp.valueOf(LocalDateTime.now().minusYears(2));
+        try (PreparedStatement comando = conexao.prepareStatement(
+                "INSERT INTO usuarios (nome, usuario, senha, foto, tipo, data_criacao) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= usuarios; i++) {
+                comando.setString(1, "Usuário " + i);
+                comando.setString(2, "usuario" + i + "@carga.local");
+                comando.setString(3, hash);
+                comando.setString(4, null);
+                comando.setString(5, i == 1 ? "ROLE_ADMIN" : "ROLE_USER");
+                comando.setTimestamp(6, criacao);
+                comando.addBatch();
+                if (i % LOTE == 0) {
+                    comando.executeBatch();
+                    conexao.commit();
+                }
+            }
+            comando.executeBatch();
+        }
+        conexao.commit();
+    }
+
+    private static void inserirPostagens(Connection conexao, int postagens, int usuarios, int temas,
+            SplittableRandom aleatorio) throws Exception {
+        DistribuicaoZipf autores = new DistribuicaoZipf(usuarios, 1.1);
+        DistribuicaoZipf temasPopulares = new DistribuicaoZipf(temas, 1.0);
+        long agora = System.currentTimeMillis();
+        long doisAnos = 730L * 24 * 60 * 60 * 1000;
+
+        try (PreparedStatement comando = conexao.prepareStatement(
+                "INSERT INTO postagens (titulo, texto, data_criacao, usuario_id, tema_id) VALUES (?, ?, ?, ?, ?)",
+                Statement.NO_GENERATED_KEYS)) {
+            for (int i = 1; i <= postagens; i++) {
+                comando.setString(1, Vocabulario.frase(aleatorio, 3, 8, 100));
+                comando.setString(2, Vocabulario.frase(aleatorio, 20, 120, 1000));
+                comando.setTimestamp(3, new Timestamp(agora - (long) (aleatorio.nextDouble() * doisAnos)));
+                comando.setLong(4, autores.sortear(aleatorio));
+                comando.setLong(5, temasPopulares.sortear(aleatorio));
+                comando.addBatch();
+                if (i % LOTE == 0) {
+                    comando.executeBatch();
+                    conexao.commit();
+                    if (i % (LOTE * 20) == 0) {
+                        System.out.printf("  %d postagens%n", i);
+                    }
+                }
+            }
+            comando.executeBatch();
+        }
+        conexao.commit();
+    }
+
+    static Map<String, String> parametros(String[] args) {
+        Map<String, String> parametros = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int igual = arg.indexOf('=');
+                parametros.put(arg.substring(2, igual), arg.substring(igual + 1));
+            }
+        }
+        return parametros;
+    }
+}
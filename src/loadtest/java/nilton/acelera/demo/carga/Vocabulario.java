@@ -0,0 +1,40 @@
+package nilton.acelera.demo.carga;
+
+import java.util.SplittableRandom;
+
+// Palavras usadas nos títulos/textos gerados e nas buscas do driver de carga (as buscas encontram resultados)
+final class Vocabulario {
+
+    static final String[] PALAVRAS = {
+        "java", "spring", "banco", "dados", "desempenho", "memória", "cache", "consulta", "índice", "servidor",
+        "aplicação", "usuário", "segurança", "token", "senha", "teste", "carga", "latência", "rede", "nuvem",
+        "arquitetura", "projeto", "equipe", "código", "revisão", "função", "classe", "objeto", "lista", "mapa",
+        "viagem", "cozinha", "receita", "música", "filme", "livro", "futebol", "corrida", "jardim", "praia",
+        "montanha", "cidade", "história", "ciência", "saúde", "escola", "trabalho", "família", "amigo", "café",
+        "tecnologia", "programação", "algoritmo", "estrutura", "sistema", "processo", "thread", "fila", "lote",
+        "evento", "versão", "entrega", "produção", "monitoramento", "métrica", "alerta", "registro", "arquivo"
+    };
+
+    private Vocabulario() {
+    }
+
+    static String palavra(SplittableRandom aleatorio) {
+        return PALAVRAS[aleatorio.nextInt(PALAVRAS.length)];
+    }
+
+    static String frase(SplittableRandom aleatorio, int minimoPalavras, int maximoPalavras, int limiteCaracteres) {
+        int quantidade = minimoPalavras + aleatorio.nextInt(maximoPalavras - minimoPalavras + 1);
+        StringBuilder frase = new StringBuilder(quantidade * 9);
+        for (int i = 0; i < quantidade; i++) {
+            String palavra = palavra(aleatorio);
+            if (frase.length() + palavra.length() + 1 > limiteCaracteres) {
+                break;
+            }
+            if (i > 0) {
+                frase.append(' ');
+            }
+            frase.append(palavra);
+        }
+        return frase.toString();
+    }
+}
@@ -0,0 +1,168 @@
+package nilton.acelera.demo.busca;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Índice invertido termo -> (postagem -> frequência) com ranqueamento BM25.
+// Não é thread-safe: quem usa (IndicePostagens) controla o acesso concorrente.
+class IndiceInvertido {
+
+    private static final int MAGICO = 0x424C4F47; // "BLOG"
+    private static final int VERSAO_FORMATO = 1;
+
+    // Termos do título contam como se aparecessem várias vezes no texto
+    private static final int PESO_TITULO = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    private long somaComprimentos;
+    private long maiorId;
+
+    private static final class Documento {
+        final String[] termos;
+        final int comprimento;
+
+        Documento(String[] termos, int comprimento) {
+            this.termos = termos;
+            this.comprimento = comprimento;
+        }
+    }
+
+    void indexar(long id, String titulo, String texto) {
+        Map<String, Integer> frequencias = new HashMap<>();
+        for (String termo : Tokenizador.tokenizar(titulo)) {
+            frequencias.merge(termo, PESO_TITULO, Integer::sum);
+        }
+        for (String termo : Tokenizador.tokenizar(texto)) {
+            frequencias.merge(termo, 1, Integer::sum);
+        }
+        indexar(id, frequencias);
+    }
+
+    private void indexar(long id, Map<String, Integer> frequencias) {
+        remover(id);
+        int comprimento = 0;
+        for (Map.Entry<String, Integer> entrada : frequencias.entrySet()) {
+            postings.computeIfAbsent(entrada.getKey(), t -> new HashMap<>()).put(id, entrada.getValue());
+            comprimento += entrada.getValue();
+        }
+        documentos.put(id, new Documento(frequencias.keySet().toArray(new String[0]), comprimento));
+        somaComprimentos += comprimento;
+        maiorId = Math.max(maiorId, id);
+    }
+
+    void remover(long id) {
+        Documento documento = documentos.remove(id);
+        if (documento == null) {
+            return;
+        }
+        for (String termo : documento.termos) {
+            Map<Long, Integer> lista = postings.get(termo);
+            if (lista != null) {
+                lista.remove(id);
+                if (lista.isEmpty()) {
+                    postings.remove(termo);
+                }
+            }
+        }
+        somaComprimentos -= documento.comprimento;
+    }
+
+    List<ResultadoBusca> buscar(String consulta, int limite) {
+        List<String> termos = Tokenizador.tokenizar(consulta);
+        if (termos.isEmpty() || documentos.isEmpty()) {
+            return Collections.emptyList();
+        }
+        double totalDocumentos = documentos.size();
+        double comprimentoMedio = (double) somaComprimentos / documentos.size();
+
+        Map<Long, Double> pontuacoes = new HashMap<>();
+        for (String termo : termos.stream().distinct().toList()) {
+            Map<Long, Integer> lista = postings.get(termo);
+            if (lista == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (totalDocumentos - lista.size() + 0.5) / (lista.size() + 0.5));
+            for (Map.Entry<Long, Integer> entrada : lista.entrySet()) {
+                int tf = entrada.getValue();
+                int comprimento = documentos.get(entrada.getKey()).comprimento;
+                double parcial = idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * comprimento / comprimentoMedio));
+                pontuacoes.merge(entrada.getKey(), parcial, Double::sum);
+            }
+        }
+
+        // Top-k com heap mínimo em vez de ordenar todos os candidatos
+        Comparator<ResultadoBusca> porPontuacao = Comparator.comparingDouble(ResultadoBusca::getPontuacao)
+            .thenComparingLong(ResultadoBusca::getPostagemId);
+        PriorityQueue<ResultadoBusca> melhores = new PriorityQueue<>(limite + 1, porPontuacao);
+        for (Map.Entry<Long, Double> entrada : pontuacoes.entrySet()) {
+            melhores.add(new ResultadoBusca(entrada.getKey(), entrada.getValue()));
+            if (melhores.size() > limite) {
+                melhores.poll();
+            }
+        }
+        List<ResultadoBusca> resultado = new ArrayList<>(melhores);
+        resultado.sort(porPontuacao.reversed());
+        return resultado;
+    }
+
+    int totalDocumentos() {
+        return documentos.size();
+    }
+
+    int totalTermos() {
+        return postings.size();
+    }
+
+    long getMaiorId() {
+        return maiorId;
+    }
+
+    // Formato: cabeçalho, maiorId, e para cada documento o id e seus pares (termo, frequência)
+    void gravar(DataOutputStream saida) throws IOException {
+        saida.writeInt(MAGICO);
+        saida.writeInt(VERSAO_FORMATO);
+        saida.writeLong(maiorId);
+        saida.writeInt(documentos.size());
+        for (Map.Entry<Long, Documento> entrada : documentos.entrySet()) {
+            long id = entrada.getKey();
+            String[] termos = entrada.getValue().termos;
+            saida.writeLong(id);
+            saida.writeInt(termos.length);
+            for (String termo : termos) {
+                saida.writeUTF(termo);
+                saida.writeInt(postings.get(termo).get(id));
+            }
+        }
+    }
+
+    static IndiceInvertido ler(DataInputStream entrada) throws IOException {
+        if (entrada.readInt() != MAGICO || entrada.readInt() != VERSAO_FORMATO) {
+            throw new IOException("Arquivo de índice em formato desconhecido");
+        }
+        IndiceInvertido indice = new IndiceInvertido();
+        long maiorId = entrada.readLong();
+        int totalDocumentos = entrada.readInt();
+        for (int d = 0; d < totalDocumentos; d++) {
+            long id = entrada.readLong();
+            int totalTermos = entrada.readInt();
+            Map<String, Integer> frequencias = new HashMap<>(totalTermos * 2);
+            for (int t = 0; t < totalTermos; t++) {
+                frequencias.put(entrada.readUTF(), entrada.readInt());
+            }
+            indice.indexar(id, frequencias);
+        }
+        indice.maiorId = Math.max(indice.maiorId, maiorId);
+        return indice;
+    }
+}
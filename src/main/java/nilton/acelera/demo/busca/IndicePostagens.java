@@ -0,0 +1,334 @@
+package nilton.acelera.demo.busca;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PreDestroy;
+import nilton.acelera.demo.cache.RegistroAlteracoes;
+import nilton.acelera.demo.dto.PostagemResumoDTO;
+import nilton.acelera.demo.evento.OrdemOuvintes;
+import nilton.acelera.demo.evento.PostagemEvento;
+import nilton.acelera.demo.model.Postagem;
+import nilton.acelera.demo.model.RegistroAlteracao;
+import nilton.acelera.demo.repository.PostagemRepository;
+import nilton.acelera.demo.repository.RegistroAlteracaoRepository;
+import nilton.acelera.demo.web.VersaoRecursos;
+
+// Índice de texto em memória das postagens (título + texto).
+// Construído em segundo plano na subida (do arquivo, se existir, ou do banco) e mantido pelos PostagemEvento.
+@Component
+public class IndicePostagens {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndicePostagens.class);
+
+    private static final int TAMANHO_LOTE = 1000;
+    private static final int MAGICO_RETRATO = 0x52455452; // "RETR"
+    private static final int VERSAO_RETRATO = 1;
+
+    private final PostagemRepository postagemRepository;
+    private final RegistroAlteracaoRepository registroRepository;
+    private final RegistroAlteracoes registroAlteracoes;
+    private final VersaoRecursos versaoRecursos;
+    private final Path arquivo;
+    // Recuo sobre o instante do retrato na releitura do registro: cobre commits lentos e o atraso do leitor
+    private final long margemRetratoMs;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndiceInvertido indice = new IndiceInvertido();
+    private volatile boolean pronto;
+
+    // Eventos que chegam durante uma reconstrução são reaplicados no índice novo antes da troca
+    private final Object monitorReconstrucao = new Object();
+    private List<PostagemEvento> pendentes;
+    // Só serializa as gravações do arquivo entre si (reconstrução e parada); ouvintes e buscas não passam por aqui
+    private final Object monitorArquivo = new Object();
+
+    public IndicePostagens(PostagemRepository postagemRepository, RegistroAlteracaoRepository registroRepository,
+            RegistroAlteracoes registroAlteracoes, VersaoRecursos versaoRecursos,
+            @Value("${blog.busca.arquivo:data/indice-postagens.bin}") String arquivo,
+            @Value("${blog.coerencia.espera-lacuna-ms:10000}") long esperaLacunaMs) {
+        this.postagemRepository = postagemRepository;
+        this.registroRepository = registroRepository;
+        this.registroAlteracoes = registroAlteracoes;
+        this.versaoRecursos = versaoRecursos;
+        this.arquivo = arquivo.isBlank() ? null : Paths.get(arquivo);
+        this.margemRetratoMs = 2 * esperaLacunaMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        emSegundoPlano(this::carregarOuReconstruir);
+    }
+
+    // Reconstrução pedida pelo endpoint: roda fora da thread da requisição.
+    // Retorna false se já houver uma construção em andamento.
+    public boolean reconstruirEmSegundoPlano() {
+        synchronized (monitorReconstrucao) {
+            if (pendentes != null) {
+                return false;
+            }
+        }
+        emSegundoPlano(() -> {
+            try {
+                reconstruir();
+            } catch (RuntimeException e) {
+                logger.error("Falha ao reconstruir o índice de postagens", e);
+            }
+        });
+        return true;
+    }
+
+    private static void emSegundoPlano(Runnable tarefa) {
+        Thread construtor = new Thread(tarefa, "indice-postagens");
+        construtor.setDaemon(true);
+        construtor.start();
+    }
+
+    private void carregarOuReconstruir() {
+        try {
+            if (arquivo != null && Files.exists(arquivo) && carregarArquivo()) {
+                return;
+            }
+            reconstruir();
+        } catch (RuntimeException e) {
+            logger.error("Falha ao construir o índice de postagens", e);
+        }
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    public List<ResultadoBusca> buscar(String consulta, int limite) {
+        if (!pronto || consulta == null) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            return indice.buscar(consulta, limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(OrdemOuvintes.MODELOS_DE_LEITURA)
+    public void aoAlterarPostagem(PostagemEvento evento) {
+        synchronized (monitorReconstrucao) {
+            if (pendentes != null) {
+                pendentes.add(evento);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            aplicar(indice, evento);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void aplicar(IndiceInvertido alvo, PostagemEvento evento) {
+        Postagem postagem = evento.getPostagem();
+        if (evento.getTipo() == PostagemEvento.Tipo.REMOVIDA) {
+            alvo.remover(postagem.getId());
+        } else {
+            alvo.indexar(postagem.getId(), postagem.getTitulo(), postagem.getTexto());
+        }
+    }
+
+    // Reconstrói a partir do banco sem bloquear buscas; ao final troca o índice e grava o arquivo.
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        IndiceInvertido novo = construir(() -> {
+            IndiceInvertido indiceNovo = new IndiceInvertido();
+            indexarDoBanco(indiceNovo, 0L);
+            return indiceNovo;
+        });
+        if (novo == null) {
+            return;
+        }
+        logger.info("Índice de postagens reconstruído: {} documentos, {} termos em {} ms",
+            novo.totalDocumentos(), novo.totalTermos(), (System.nanoTime() - inicio) / 1_000_000);
+        gravarArquivo();
+    }
+
+    // O arquivo é um retrato do último salvamento, com o instante em que foi tirado. Postagens novas (id maior)
+    // são completadas do banco; as editadas ou removidas desde então (por esta ou por outra instância) saem de
+    // registro_alteracoes e são relidas. Retrato mais antigo que a retenção do registro = reconstrução completa.
+    // Sem o registro (blog.coerencia.ativo=false), edições e exclusões feitas por outras instâncias com esta
+    // parada só aparecem após POST /postagens/busca/reconstruir.
+    private boolean carregarArquivo() {
+        long inicio = System.nanoTime();
+        IndiceInvertido lido = construir(() -> {
+            IndiceInvertido indiceLido;
+            long retratoEm;
+            try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo)))) {
+                if (entrada.readInt() != MAGICO_RETRATO || entrada.readInt() != VERSAO_RETRATO) {
+                    throw new IOException("Formato de retrato desconhecido");
+                }
+                retratoEm = entrada.readLong();
+                indiceLido = IndiceInvertido.ler(entrada);
+            } catch (IOException e) {
+                logger.warn("Arquivo de índice {} ilegível, reconstruindo do banco", arquivo, e);
+                return null;
+            }
+            LocalDateTime desde = LocalDateTime.ofInstant(Instant.ofEpochMilli(retratoEm - margemRetratoMs),
+                ZoneId.systemDefault());
+            if (registroAlteracoes.isAtivo()
+                    && desde.isBefore(LocalDateTime.now().minus(registroAlteracoes.getRetencao()))) {
+                logger.info("Arquivo de índice {} de {} é anterior à retenção do registro de alterações, reconstruindo",
+                    arquivo, desde);
+                return null;
+            }
+            indexarDoBanco(indiceLido, indiceLido.getMaiorId());
+            if (registroAlteracoes.isAtivo()) {
+                reindexarAlteradas(indiceLido, desde);
+            }
+            return indiceLido;
+        });
+        if (lido == null) {
+            return false;
+        }
+        logger.info("Índice de postagens carregado de {}: {} documentos em {} ms",
+            arquivo, lido.totalDocumentos(), (System.nanoTime() - inicio) / 1_000_000);
+        return true;
+    }
+
+    // Monta um índice novo fora do lock e faz a troca atômica, reaplicando os eventos recebidos no meio tempo.
+    // Retorna nulo se já houver uma construção em andamento ou se a fonte falhar.
+    private IndiceInvertido construir(Supplier<IndiceInvertido> fonte) {
+        synchronized (monitorReconstrucao) {
+            if (pendentes != null) {
+                logger.info("Construção do índice já em andamento");
+                return null;
+            }
+            pendentes = new ArrayList<>();
+        }
+        IndiceInvertido novo = null;
+        try {
+            novo = fonte.get();
+        } finally {
+            synchronized (monitorReconstrucao) {
+                if (novo != null) {
+                    lock.writeLock().lock();
+                    try {
+                        for (PostagemEvento evento : pendentes) {
+                            aplicar(novo, evento);
+                        }
+                        indice = novo;
+                        pronto = true;
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    // O índice novo pode responder /postagens/busca diferente do anterior sem nenhum evento de escrita
+                    versaoRecursos.incrementar(VersaoRecursos.Recurso.POSTAGENS);
+                }
+                pendentes = null;
+            }
+        }
+        return novo;
+    }
+
+    private void indexarDoBanco(IndiceInvertido alvo, long aposId) {
+        long ultimoId = aposId;
+        List<PostagemResumoDTO> lote;
+        do {
+            lote = postagemRepository.buscarResumosComIdMaiorQue(ultimoId, PageRequest.of(0, TAMANHO_LOTE));
+            for (PostagemResumoDTO postagem : lote) {
+                alvo.indexar(postagem.getId(), postagem.getTitulo(), postagem.getTexto());
+                ultimoId = postagem.getId();
+            }
+        } while (lote.size() == TAMANHO_LOTE);
+    }
+
+    // Relê do banco as postagens que aparecem no registro desde o instante dado: presentes são reindexadas,
+    // ausentes (removidas) saem do índice. Idempotente, então a sobreposição com a margem não importa.
+    private void reindexarAlteradas(IndiceInvertido alvo, LocalDateTime desde) {
+        List<Long> ids = registroRepository.referenciasAlteradasDesde(RegistroAlteracao.Entidade.POSTAGEM, desde);
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_LOTE) {
+            List<Long> lote = ids.subList(inicio, Math.min(inicio + TAMANHO_LOTE, ids.size()));
+            Map<Long, PostagemResumoDTO> atuais = new HashMap<>();
+            for (PostagemResumoDTO postagem : postagemRepository.buscarResumosPorIds(lote)) {
+                atuais.put(postagem.getId(), postagem);
+            }
+            for (Long id : lote) {
+                PostagemResumoDTO atual = atuais.get(id);
+                if (atual == null) {
+                    alvo.remover(id);
+                } else {
+                    alvo.indexar(id, atual.getTitulo(), atual.getTexto());
+                }
+            }
+        }
+        logger.info("Índice de postagens: {} postagens alteradas desde o retrato relidas do banco", ids.size());
+    }
+
+    @PreDestroy
+    public void gravarArquivo() {
+        if (arquivo == null || !pronto) {
+            return;
+        }
+        // Retrato em memória sob o lock de leitura (só CPU); o disco fica fora dele, para não segurar
+        // o lock de escrita dos ouvintes de postagem durante o I/O. O instante é tirado antes: o que o retrato
+        // não tiver chegou depois dele (ou dentro da margem) e é relido na próxima carga.
+        ByteArrayOutputStream retrato = new ByteArrayOutputStream(1 << 20);
+        long retratoEm = System.currentTimeMillis();
+        lock.readLock().lock();
+        try {
+            DataOutputStream saida = new DataOutputStream(retrato);
+            saida.writeInt(MAGICO_RETRATO);
+            saida.writeInt(VERSAO_RETRATO);
+            saida.writeLong(retratoEm);
+            indice.gravar(saida);
+        } catch (IOException e) {
+            logger.warn("Não foi possível serializar o índice", e);
+            return;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Grava em arquivo temporário e renomeia, para nunca deixar um índice pela metade no disco
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        synchronized (monitorArquivo) {
+            try {
+                if (arquivo.getParent() != null) {
+                    Files.createDirectories(arquivo.getParent());
+                }
+                try (OutputStream saida = Files.newOutputStream(temporario)) {
+                    retrato.writeTo(saida);
+                }
+                Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                logger.warn("Não foi possível gravar o índice em {}", arquivo, e);
+            }
+        }
+    }
+}
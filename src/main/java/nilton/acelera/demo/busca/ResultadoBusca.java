@@ -0,0 +1,20 @@
+package nilton.acelera.demo.busca;
+
+public class ResultadoBusca {
+
+    private final long postagemId;
+    private final double pontuacao;
+
+    public ResultadoBusca(long postagemId, double pontuacao) {
+        this.postagemId = postagemId;
+        this.pontuacao = pontuacao;
+    }
+
+    public long getPostagemId() {
+        return postagemId;
+    }
+
+    public double getPontuacao() {
+        return pontuacao;
+    }
+}
@@ -0,0 +1,54 @@
+package nilton.acelera.demo.busca;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Quebra texto em termos normalizados: minúsculas, sem acento, só letras/dígitos, sem stopwords.
+// "Programação em Java" -> [programacao, java]
+public final class Tokenizador {
+
+    private static final int TAMANHO_MINIMO = 2;
+
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "o", "as", "os", "um", "uma", "uns", "umas", "de", "do", "da", "dos", "das",
+        "em", "no", "na", "nos", "nas", "por", "pelo", "pela", "pelos", "pelas", "para", "pra",
+        "com", "sem", "e", "ou", "que", "se", "ao", "aos", "como", "mais", "mas", "nao", "sao",
+        "ja", "foi", "ser", "tem", "isso", "esse", "essa", "este", "esta", "eu", "voce", "ele", "ela"
+    );
+
+    private Tokenizador() {
+    }
+
+    public static String normalizar(String texto) {
+        String semAcento = Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return semAcento.toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> tokenizar(String texto) {
+        List<String> termos = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) {
+            return termos;
+        }
+        String normalizado = normalizar(texto);
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean letra = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (letra && inicio < 0) {
+                inicio = i;
+            } else if (!letra && inicio >= 0) {
+                adicionar(termos, normalizado.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return termos;
+    }
+
+    private static void adicionar(List<String> termos, String termo) {
+        if (termo.length() >= TAMANHO_MINIMO && !STOPWORDS.contains(termo)) {
+            termos.add(termo);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package nilton.acelera.demo.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import nilton.acelera.demo.busca.Tokenizador;
+import nilton.acelera.demo.evento.OrdemOuvintes;
+import nilton.acelera.demo.evento.TemaEvento;
+import nilton.acelera.demo.model.Tema;
+import nilton.acelera.demo.repository.TemaRepository;
+
+// Catálogo de temas em memória: um retrato imutável (arrays ordenados por id) trocado atomicamente a cada escrita.
+// Leituras não travam e não vão ao banco; cada chamada recebe cópias, então ninguém altera o retrato compartilhado.
+@Component
+public class CatalogoTemas {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogoTemas.class);
+
+    private static final class Retrato {
+        final long[] ids;
+        final String[] descricoes;
+        // Minúsculas e sem acento, para a busca por descrição
+        final String[] descricoesNormalizadas;
+
+        Retrato(long[] ids, String[] descricoes) {
+            this.ids = ids;
+            this.descricoes = descricoes;
+            this.descricoesNormalizadas = new String[descricoes.length];
+            for (int i = 0; i < descricoes.length; i++) {
+                descricoesNormalizadas[i] = descricoes[i] == null ? "" : Tokenizador.normalizar(descricoes[i]);
+            }
+        }
+    }
+
+    private final TemaRepository temaRepository;
+
+    private volatile Retrato retrato;
+    // ReentrantLock em vez de synchronized: as cargas consultam o banco com a trava segura,
+    // e com threads virtuais um synchronized prenderia a thread portadora durante a consulta
+    private final ReentrantLock escrita = new ReentrantLock();
+
+    public CatalogoTemas(TemaRepository temaRepository) {
+        this.temaRepository = temaRepository;
+    }
+
+    // A consulta roda com a trava de escrita: um evento de tema que chegue no meio espera e é aplicado sobre
+    // o retrato novo, em vez de ser sobrescrito por um retrato lido antes dele. Escritas de tema são raras.
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        escrita.lock();
+        try {
+            List<Tema> temas = temaRepository.findAll();
+            temas.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+            long[] ids = new long[temas.size()];
+            String[] descricoes = new String[temas.size()];
+            for (int i = 0; i < temas.size(); i++) {
+                ids[i] = temas.get(i).getId();
+                descricoes[i] = temas.get(i).getDescricao();
+            }
+            retrato = new Retrato(ids, descricoes);
+            logger.info("Catálogo de temas carregado: {} temas", ids.length);
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    // Requisições podem chegar antes do ApplicationReadyEvent; nesse caso a primeira leitura carrega o catálogo
+    private Retrato retrato() {
+        Retrato atual = retrato;
+        if (atual == null) {
+            escrita.lock();
+            try {
+                if (retrato == null) {
+                    carregar();
+                }
+                atual = retrato;
+            } finally {
+                escrita.unlock();
+            }
+        }
+        return atual;
+    }
+
+    public List<Tema> listarTodos() {
+        Retrato atual = retrato();
+        List<Tema> temas = new ArrayList<>(atual.ids.length);
+        for (int i = 0; i < atual.ids.length; i++) {
+            temas.add(novoTema(atual.ids[i], atual.descricoes[i]));
+        }
+        return temas;
+    }
+
+    public Optional<Tema> buscarPorId(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Retrato atual = retrato();
+        int posicao = Arrays.binarySearch(atual.ids, id);
+        return posicao < 0 ? Optional.empty() : Optional.of(novoTema(atual.ids[posicao], atual.descricoes[posicao]));
+    }
+
+    public boolean existe(Long id) {
+        return id != null && Arrays.binarySearch(retrato().ids, id) >= 0;
+    }
+
+    // Equivalente a findAllByDescricaoContainingIgnoreCase, ignorando também acentos (como a collation do MySQL)
+    public List<Tema> buscarPorDescricao(String descricao) {
+        Retrato atual = retrato();
+        String procurado = Tokenizador.normalizar(descricao);
+        List<Tema> temas = new ArrayList<>();
+        for (int i = 0; i < atual.ids.length; i++) {
+            if (atual.descricoesNormalizadas[i].contains(procurado)) {
+                temas.add(novoTema(atual.ids[i], atual.descricoes[i]));
+            }
+        }
+        return temas;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(OrdemOuvintes.MODELOS_DE_LEITURA)
+    public void aoAlterarTema(TemaEvento evento) {
+        Tema tema = evento.getTema();
+        escrita.lock();
+        try {
+            Retrato atual = retrato();
+            int posicao = Arrays.binarySearch(atual.ids, tema.getId());
+            if (evento.getTipo() == TemaEvento.Tipo.REMOVIDO) {
+                if (posicao >= 0) {
+                    retrato = remover(atual, posicao);
+                }
+            } else if (posicao >= 0) {
+                String[] descricoes = atual.descricoes.clone();
+                descricoes[posicao] = tema.getDescricao();
+                retrato = new Retrato(atual.ids, descricoes);
+            } else {
+                retrato = inserir(atual, -posicao - 1, tema.getId(), tema.getDescricao());
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    private static Retrato inserir(Retrato atual, int posicao, long id, String descricao) {
+        int tamanho = atual.ids.length;
+        long[] ids = new long[tamanho + 1];
+        String[] descricoes = new String[tamanho + 1];
+        System.arraycopy(atual.ids, 0, ids, 0, posicao);
+        System.arraycopy(atual.descricoes, 0, descricoes, 0, posicao);
+        ids[posicao] = id;
+        descricoes[posicao] = descricao;
+        System.arraycopy(atual.ids, posicao, ids, posicao + 1, tamanho - posicao);
+        System.arraycopy(atual.descricoes, posicao, descricoes, posicao + 1, tamanho - posicao);
+        return new Retrato(ids, descricoes);
+    }
+
+    private static Retrato remover(Retrato atual, int posicao) {
+        int tamanho = atual.ids.length;
+        long[] ids = new long[tamanho - 1];
+        String[] descricoes = new String[tamanho - 1];
+        System.arraycopy(atual.ids, 0, ids, 0, posicao);
+        System.arraycopy(atual.descricoes, 0, descricoes, 0, posicao);
+        System.arraycopy(atual.ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+        System.arraycopy(atual.descricoes, posicao + 1, descricoes, posicao, tamanho - posicao - 1);
+        return new Retrato(ids, descricoes);
+    }
+
+    private static Tema novoTema(long id, String descricao) {
+        Tema tema = new Tema();
+        tema.setId(id);
+        tema.setDescricao(descricao);
+        return tema;
+    }
+}
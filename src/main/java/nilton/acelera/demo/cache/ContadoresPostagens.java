@@ -0,0 +1,446 @@
+package nilton.acelera.demo.cache;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import nilton.acelera.demo.evento.OrdemOuvintes;
+import nilton.acelera.demo.evento.PostagemEvento;
+import nilton.acelera.demo.model.ContadorPostagens;
+import nilton.acelera.demo.model.ContadorPostagens.Escopo;
+import nilton.acelera.demo.model.GeracaoContadores;
+import nilton.acelera.demo.model.Postagem;
+import nilton.acelera.demo.repository.ContadorPostagensRepository;
+import nilton.acelera.demo.repository.GeracaoContadoresRepository;
+import nilton.acelera.demo.web.VersaoRecursos;
+
+// Contadores de postagens por tema e por usuário.
+// Cada valor = base (último total gravado em contadores_postagens) + delta pendente em um LongAdder (striped,
+// sem contenção entre escritas concorrentes). Os deltas são somados na tabela periodicamente e na parada.
+//
+// Recontagem em cluster: cada transação de escrita de postagem lê contadores_geracao com trava compartilhada e
+// o delta dela fica marcado com essa geração. A recontagem pega a trava exclusiva (espera as escritas e gravações
+// em andamento em todas as instâncias), conta, regrava a tabela e incrementa a geração. Delta de geração anterior
+// já entrou no COUNT e é descartado, aqui ou na próxima gravação da instância que o tem, que recarrega as bases.
+//
+// Deltas de outras instâncias (via LeitorAlteracoes) entram direto na base, mas não são idempotentes: um lote
+// republicado depois de uma falha, ou um delta que chegou à tabela antes da carga e também depois do cursor,
+// conta duas vezes. A tabela é a referência: o contador que ficou dois intervalos de gravação sem delta remoto
+// (a outra instância já gravou o dela) tem a base relida; logo depois da subida, a tabela inteira é relida.
+@Component
+public class ContadoresPostagens {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContadoresPostagens.class);
+
+    // Limite de ids por consulta na releitura
+    private static final int LOTE_RELEITURA = 1000;
+
+    private final ContadorPostagensRepository contadorRepository;
+    private final GeracaoContadoresRepository geracaoRepository;
+    private final VersaoRecursos versaoRecursos;
+    private final TransactionTemplate transacao;
+
+    private final Map<Escopo, Map<Long, Long>> bases = new EnumMap<>(Escopo.class);
+    // Geração da tabela refletida nas bases
+    private volatile long geracaoBases;
+    // Deltas ainda não gravados, pela geração lida na transação da escrita
+    private final Map<Long, Map<Escopo, Map<Long, LongAdder>>> pendentes = new ConcurrentHashMap<>();
+    // Recurso da transação de escrita com a geração lida nela
+    private final Object chaveGeracao = new Object();
+    // H2 (perfil loadtest) não tem trava compartilhada de linha: lá as escritas de postagem se enfileiram na geração
+    private final boolean travaCompartilhada;
+    // Contador com delta remoto na base -> quando chegou o último (alterado só com a trava de gravação)
+    private final Map<Escopo, Map<Long, Long>> remotos = new EnumMap<>(Escopo.class);
+    private volatile boolean carregado;
+    private final boolean coerenciaAtiva;
+    private final long esperaReleituraMs;
+    // Momento da carga, enquanto a releitura completa da subida não foi feita; 0 depois dela
+    private long releituraCompletaDesde;
+    // Recontagem, gravação e releitura não se sobrepõem (a trava fica segura durante o acesso ao banco)
+    private final ReentrantLock gravacao = new ReentrantLock();
+
+    public ContadoresPostagens(ContadorPostagensRepository contadorRepository,
+            GeracaoContadoresRepository geracaoRepository, VersaoRecursos versaoRecursos,
+            PlatformTransactionManager transactionManager,
+            @Value("${blog.coerencia.ativo:true}") boolean coerenciaAtiva,
+            @Value("${blog.contadores.intervalo-gravacao-ms:5000}") long intervaloGravacaoMs,
+            @Value("${spring.datasource.url:}") String urlBanco) {
+        this.contadorRepository = contadorRepository;
+        this.geracaoRepository = geracaoRepository;
+        this.versaoRecursos = versaoRecursos;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.coerenciaAtiva = coerenciaAtiva;
+        this.esperaReleituraMs = 2 * intervaloGravacaoMs;
+        this.travaCompartilhada = !urlBanco.startsWith("jdbc:h2:");
+        for (Escopo escopo : Escopo.values()) {
+            bases.put(escopo, new ConcurrentHashMap<>());
+            remotos.put(escopo, new HashMap<>());
+        }
+    }
+
+    // Tabela vazia (primeira subida) = recontagem completa a partir de postagens
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        gravacao.lock();
+        try {
+            if (coerenciaAtiva) {
+                releituraCompletaDesde = System.currentTimeMillis();
+            }
+            criarGeracao();
+            List<ContadorPostagens> gravados = new ArrayList<>();
+            long geracao = transacao.execute(status -> {
+                long lida = lerGeracaoCompartilhada();
+                gravados.addAll(contadorRepository.findAll());
+                return lida;
+            });
+            if (gravados.isEmpty()) {
+                recontarTravado();
+                return;
+            }
+            substituirBases(gravados, geracao);
+            carregado = true;
+            logger.info("Contadores de postagens carregados: {} linhas", gravados.size());
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    // Refaz a tabela a partir de COUNT(*) GROUP BY; usado na primeira subida ou para corrigir divergências
+    public void recontar() {
+        gravacao.lock();
+        try {
+            recontarTravado();
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    private void recontarTravado() {
+        List<ContadorPostagens> contadores = new ArrayList<>();
+        long geracao = transacao.execute(status -> {
+            GeracaoContadores atual = geracaoRepository.lerExclusiva()
+                    .orElseGet(() -> new GeracaoContadores(GeracaoContadores.ID, 0L));
+            for (Object[] linha : contadorRepository.contarPorTema()) {
+                contadores.add(new ContadorPostagens(Escopo.TEMA, (Long) linha[0], (Long) linha[1]));
+            }
+            for (Object[] linha : contadorRepository.contarPorUsuario()) {
+                contadores.add(new ContadorPostagens(Escopo.USUARIO, (Long) linha[0], (Long) linha[1]));
+            }
+            contadorRepository.deleteAllInBatch();
+            contadorRepository.saveAll(contadores);
+            atual.setGeracao(atual.getGeracao() + 1);
+            geracaoRepository.save(atual);
+            return atual.getGeracao();
+        });
+        substituirBases(contadores, geracao);
+        carregado = true;
+        logger.info("Contadores de postagens recontados: {} linhas (geração {})", contadores.size(), geracao);
+    }
+
+    // Troca as bases pela tabela de uma geração; os deltas das anteriores já estão nela
+    private void substituirBases(List<ContadorPostagens> contadores, long geracao) {
+        Map<Escopo, Map<Long, Long>> novas = new EnumMap<>(Escopo.class);
+        for (Escopo escopo : Escopo.values()) {
+            novas.put(escopo, new HashMap<>());
+        }
+        for (ContadorPostagens contador : contadores) {
+            novas.get(contador.getEscopo()).put(contador.getReferenciaId(), contador.getTotal());
+        }
+        for (Escopo escopo : Escopo.values()) {
+            bases.get(escopo).putAll(novas.get(escopo));
+            bases.get(escopo).keySet().retainAll(novas.get(escopo).keySet());
+        }
+        geracaoBases = geracao;
+        pendentes.keySet().removeIf(anterior -> anterior < geracao);
+        // /temas/contagens muda sem evento de escrita (a versão de postagens cobre os totais)
+        versaoRecursos.incrementar(VersaoRecursos.Recurso.POSTAGENS);
+    }
+
+    // Primeira subida num banco novo: a linha única da geração; duas instâncias ao mesmo tempo = uma só cria
+    private void criarGeracao() {
+        if (geracaoRepository.existsById(GeracaoContadores.ID)) {
+            return;
+        }
+        try {
+            geracaoRepository.save(new GeracaoContadores(GeracaoContadores.ID, 0L));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Geração dos contadores criada por outra instância");
+        }
+    }
+
+    private long lerGeracaoCompartilhada() {
+        return (travaCompartilhada ? geracaoRepository.lerCompartilhada() : geracaoRepository.lerExclusiva())
+                .map(GeracaoContadores::getGeracao).orElse(geracaoBases);
+    }
+
+    public long totalPorTema(Long temaId) {
+        return total(Escopo.TEMA, temaId);
+    }
+
+    public long totalPorUsuario(Long usuarioId) {
+        return total(Escopo.USUARIO, usuarioId);
+    }
+
+    // Antes da carga não há como responder sem ir ao banco; -1 indica "desconhecido"
+    private long total(Escopo escopo, Long id) {
+        if (!carregado) {
+            return -1;
+        }
+        long minima = geracaoBases;
+        long total = bases.get(escopo).getOrDefault(id, 0L);
+        for (Map.Entry<Long, Map<Escopo, Map<Long, LongAdder>>> daGeracao : pendentes.entrySet()) {
+            LongAdder pendente = daGeracao.getKey() >= minima ? daGeracao.getValue().get(escopo).get(id) : null;
+            if (pendente != null) {
+                total += pendente.sum();
+            }
+        }
+        return total;
+    }
+
+    public boolean isCarregado() {
+        return carregado;
+    }
+
+    // Ainda dentro da transação da escrita, uma vez por transação: a trava compartilhada fica até o commit
+    @EventListener
+    public void lerGeracaoDaEscrita(PostagemEvento evento) {
+        if (evento.isRemoto() || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(chaveGeracao)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(chaveGeracao, lerGeracaoCompartilhada());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(chaveGeracao);
+            }
+        });
+    }
+
+    // Depois do commit a geração lida continua ligada à transação (é desligada no fim do afterCompletion)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(OrdemOuvintes.MODELOS_DE_LEITURA)
+    public void aoAlterarPostagem(PostagemEvento evento) {
+        Postagem postagem = evento.getPostagem();
+        Long temaId = postagem.getTema() == null ? null : postagem.getTema().getId();
+        Long usuarioId = postagem.getUsuario() == null ? null : postagem.getUsuario().getId();
+        switch (evento.getTipo()) {
+            case CRIADA -> {
+                somar(evento, Escopo.TEMA, temaId, 1);
+                somar(evento, Escopo.USUARIO, usuarioId, 1);
+            }
+            case REMOVIDA -> {
+                somar(evento, Escopo.TEMA, temaId, -1);
+                somar(evento, Escopo.USUARIO, usuarioId, -1);
+            }
+            case ATUALIZADA -> {
+                // Mudança de tema move a postagem de um contador para o outro
+                if (evento.getTemaAnteriorId() != null && !evento.getTemaAnteriorId().equals(temaId)) {
+                    somar(evento, Escopo.TEMA, evento.getTemaAnteriorId(), -1);
+                    somar(evento, Escopo.TEMA, temaId, 1);
+                }
+            }
+        }
+    }
+
+    private void somar(PostagemEvento evento, Escopo escopo, Long id, long delta) {
+        if (id == null) {
+            return;
+        }
+        if (evento.isRemoto()) {
+            // Escrita de outra instância: ela grava o delta na tabela; aqui a base em memória acompanha e o
+            // contador fica marcado para ser relido da tabela
+            gravacao.lock();
+            try {
+                bases.get(escopo).merge(id, delta, Long::sum);
+                remotos.get(escopo).put(id, System.currentTimeMillis());
+            } finally {
+                gravacao.unlock();
+            }
+        } else {
+            Long geracao = (Long) TransactionSynchronizationManager.getResource(chaveGeracao);
+            somarPendente(geracao == null ? geracaoBases : geracao, escopo, id, delta);
+        }
+    }
+
+    private void somarPendente(long geracao, Escopo escopo, Long id, long delta) {
+        if (geracao < geracaoBases) {
+            // A escrita fez commit antes de uma recontagem que já a contou
+            return;
+        }
+        Map<Long, LongAdder> deltas = pendentes.computeIfAbsent(geracao, g -> novosPendentes()).get(escopo);
+        while (true) {
+            LongAdder pendente = deltas.computeIfAbsent(id, chave -> new LongAdder());
+            pendente.add(delta);
+            // A gravação tira do mapa os LongAdder zerados; se tirou este no meio do caminho, soma no novo
+            if (deltas.get(id) == pendente) {
+                return;
+            }
+        }
+    }
+
+    private static Map<Escopo, Map<Long, LongAdder>> novosPendentes() {
+        Map<Escopo, Map<Long, LongAdder>> novos = new EnumMap<>(Escopo.class);
+        for (Escopo escopo : Escopo.values()) {
+            novos.put(escopo, new ConcurrentHashMap<>());
+        }
+        return novos;
+    }
+
+    // Passa os deltas acumulados para a tabela (um upsert por contador alterado) e para a base em memória
+    @PreDestroy
+    public void gravarPendentes() {
+        gravacao.lock();
+        try {
+            gravarPendentesTravado();
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${blog.contadores.intervalo-gravacao-ms:5000}")
+    public void gravarERelerRemotos() {
+        gravacao.lock();
+        try {
+            gravarPendentesTravado();
+            relerRemotosTravado();
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao reler contadores alterados por outras instâncias; nova tentativa no próximo ciclo", e);
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    // Uma transação com a geração em trava compartilhada: a recontagem não intercala. Se a geração mudou (recontagem
+    // em outra instância), as bases são recarregadas da tabela nova e os deltas anteriores a ela, descartados.
+    private void gravarPendentesTravado() {
+        List<ContadorPostagens> recarregados = new ArrayList<>();
+        Map<Escopo, Map<Long, Long>> gravados = new EnumMap<>(Escopo.class);
+        long geracao;
+        try {
+            geracao = transacao.execute(status -> {
+                long atual = lerGeracaoCompartilhada();
+                if (atual != geracaoBases) {
+                    recarregados.addAll(contadorRepository.findAll());
+                }
+                Map<Escopo, Map<Long, LongAdder>> daGeracao = pendentes.get(atual);
+                for (Escopo escopo : Escopo.values()) {
+                    // Em ordem de id: duas instâncias gravando os mesmos contadores travam as linhas na mesma ordem
+                    Map<Long, Long> doEscopo = new TreeMap<>();
+                    if (daGeracao != null) {
+                        daGeracao.get(escopo).forEach((id, pendente) -> doEscopo.put(id, pendente.sum()));
+                    }
+                    doEscopo.values().removeIf(delta -> delta == 0);
+                    doEscopo.forEach((id, delta) -> contadorRepository.somar(escopo.name(), id, delta));
+                    gravados.put(escopo, doEscopo);
+                }
+                return atual;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao gravar os contadores de postagens; nova tentativa no próximo ciclo", e);
+            return;
+        }
+        if (geracao != geracaoBases) {
+            substituirBases(recarregados, geracao);
+            logger.info("Contadores de postagens recarregados após recontagem (geração {})", geracao);
+        }
+        Map<Escopo, Map<Long, LongAdder>> daGeracao = pendentes.get(geracao);
+        if (daGeracao == null) {
+            return;
+        }
+        for (Escopo escopo : Escopo.values()) {
+            Map<Long, LongAdder> deltas = daGeracao.get(escopo);
+            // Primeiro soma na base, depois desconta do pendente: leitores nunca veem o delta sumir
+            gravados.get(escopo).forEach((id, delta) -> {
+                bases.get(escopo).merge(id, delta, Long::sum);
+                deltas.get(id).add(-delta);
+            });
+            // Zerados saem, senão o mapa cresce com todo autor e tema que já teve uma escrita
+            deltas.forEach((id, pendente) -> {
+                if (pendente.sum() == 0) {
+                    deltas.remove(id, pendente);
+                }
+            });
+        }
+    }
+
+    // Os deltas locais já estão na tabela e na base (gravados acima, com a trava), então base = total da tabela
+    private void relerRemotosTravado() {
+        long limite = System.currentTimeMillis() - esperaReleituraMs;
+        if (releituraCompletaDesde != 0 && releituraCompletaDesde <= limite) {
+            Map<Escopo, Map<Long, Long>> totais = new EnumMap<>(Escopo.class);
+            for (Escopo escopo : Escopo.values()) {
+                totais.put(escopo, new HashMap<>());
+            }
+            for (ContadorPostagens contador : contadorRepository.findAll()) {
+                totais.get(contador.getEscopo()).put(contador.getReferenciaId(), contador.getTotal());
+            }
+            for (Escopo escopo : Escopo.values()) {
+                Set<Long> ids = new HashSet<>(bases.get(escopo).keySet());
+                ids.addAll(totais.get(escopo).keySet());
+                for (Long id : ids) {
+                    corrigirBase(escopo, id, totais.get(escopo).getOrDefault(id, 0L), limite);
+                }
+            }
+            releituraCompletaDesde = 0;
+            return;
+        }
+        for (Escopo escopo : Escopo.values()) {
+            List<Long> quietos = new ArrayList<>();
+            remotos.get(escopo).forEach((id, ultimo) -> {
+                if (ultimo <= limite) {
+                    quietos.add(id);
+                }
+            });
+            for (int inicio = 0; inicio < quietos.size(); inicio += LOTE_RELEITURA) {
+                List<Long> lote = quietos.subList(inicio, Math.min(inicio + LOTE_RELEITURA, quietos.size()));
+                Map<Long, Long> totais = new HashMap<>();
+                for (ContadorPostagens contador : contadorRepository.findByEscopoAndReferenciaIdIn(escopo, lote)) {
+                    totais.put(contador.getReferenciaId(), contador.getTotal());
+                }
+                for (Long id : lote) {
+                    corrigirBase(escopo, id, totais.getOrDefault(id, 0L), limite);
+                }
+            }
+        }
+    }
+
+    // Delta remoto recente pode ainda não estar na tabela: esse contador espera a próxima releitura
+    private void corrigirBase(Escopo escopo, Long id, long total, long limite) {
+        Long ultimo = remotos.get(escopo).get(id);
+        if (ultimo != null && ultimo > limite) {
+            return;
+        }
+        Long anterior = bases.get(escopo).put(id, total);
+        remotos.get(escopo).remove(id);
+        if (anterior == null ? total != 0 : anterior != total) {
+            logger.debug("Contador {} {} corrigido pela tabela: {} -> {}", escopo, id, anterior, total);
+            versaoRecursos.incrementar(VersaoRecursos.Recurso.POSTAGENS);
+        }
+    }
+}
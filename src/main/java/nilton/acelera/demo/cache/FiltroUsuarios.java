@@ -0,0 +1,228 @@
+package nilton.acelera.demo.cache;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PreDestroy;
+import nilton.acelera.demo.busca.Tokenizador;
+import nilton.acelera.demo.evento.OrdemOuvintes;
+import nilton.acelera.demo.evento.UsuarioEvento;
+import nilton.acelera.demo.repository.UsuarioRepository;
+
+// Filtro de Bloom dos logins existentes. "Não existe" é definitivo e dispensa o banco;
+// "pode existir" cai na consulta indexada. Bits em AtomicLongArray: inserções concorrentes sem trava.
+// Logins removidos ou renomeados continuam no filtro (só geram falso positivo, que o banco resolve);
+// quando eles passam de uma fração do total, o filtro é refeito do zero, numa thread própria (não na do commit).
+@Component
+public class FiltroUsuarios {
+
+    private static final Logger logger = LoggerFactory.getLogger(FiltroUsuarios.class);
+
+    private final UsuarioRepository usuarioRepository;
+    private final int bits;
+    private final int funcoes;
+
+    private volatile AtomicLongArray filtro;
+    // Filtro sendo construído: recebe também os cadastros que chegam durante a carga
+    private volatile AtomicLongArray emConstrucao;
+
+    // Uma construção por vez; a consulta ao banco acontece com a trava segura (ReentrantLock: sem pinning)
+    private final ReentrantLock construcao = new ReentrantLock();
+    // Reconstruções disparadas por remoções/renomeações; no máximo uma na fila
+    private final ExecutorService reconstrucao = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "filtro-usuarios");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean reconstrucaoAgendada = new AtomicBoolean();
+
+    private final LongAdder inseridos = new LongAdder();
+    private final LongAdder obsoletos = new LongAdder();
+    private final LongAdder negativos = new LongAdder();
+    private final LongAdder consultasAoBanco = new LongAdder();
+
+    public FiltroUsuarios(UsuarioRepository usuarioRepository,
+            @Value("${blog.usuarios.filtro.bits:1048576}") int bits,
+            @Value("${blog.usuarios.filtro.funcoes:7}") int funcoes) {
+        this.usuarioRepository = usuarioRepository;
+        // Múltiplo de 64 para ocupar longs inteiros
+        this.bits = Math.max(64, (bits + 63) & ~63);
+        this.funcoes = Math.max(1, funcoes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        construcao.lock();
+        try {
+            construirTravado();
+        } finally {
+            construcao.unlock();
+        }
+    }
+
+    private void construirTravado() {
+        AtomicLongArray novo = new AtomicLongArray(bits / 64);
+        emConstrucao = novo;
+        List<String> logins = usuarioRepository.listarLogins();
+        for (String login : logins) {
+            adicionar(novo, login);
+        }
+        filtro = novo;
+        emConstrucao = null;
+        inseridos.reset();
+        inseridos.add(logins.size());
+        obsoletos.reset();
+        logger.info("Filtro de logins construído: {} usuários, {} bits", logins.size(), bits);
+    }
+
+    // true = o login com certeza não existe; false = pode existir (ou o filtro ainda não foi carregado)
+    public boolean certamenteNaoExiste(String usuario) {
+        AtomicLongArray atual = filtro;
+        if (atual == null || usuario == null) {
+            return false;
+        }
+        long h = hash(usuario);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 0; i < funcoes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            if ((atual.get(bit >>> 6) & (1L << bit)) == 0) {
+                negativos.increment();
+                return true;
+            }
+        }
+        consultasAoBanco.increment();
+        return false;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(OrdemOuvintes.MODELOS_DE_LEITURA)
+    public void aoAlterarUsuario(UsuarioEvento evento) {
+        switch (evento.getTipo()) {
+            case CADASTRADO -> adicionarNovo(evento.getUsuario().getUsuario());
+            case ATUALIZADO -> {
+                String atual = evento.getUsuario().getUsuario();
+                if (atual != null && !atual.equals(evento.getUsuarioAnterior())) {
+                    adicionarNovo(atual);
+                    obsoletos.increment();
+                }
+            }
+            case REMOVIDO -> obsoletos.increment();
+        }
+        // Muitos logins que não existem mais = mais falsos positivos; refaz a partir do banco
+        if (filtro != null && obsoletos.sum() > Math.max(100, inseridos.sum() / 10)
+                && reconstrucaoAgendada.compareAndSet(false, true)) {
+            reconstrucao.execute(this::reconstruir);
+        }
+    }
+
+    private void reconstruir() {
+        try {
+            construir();
+        } catch (RuntimeException e) {
+            // O filtro atual continua valendo; a próxima remoção tenta de novo
+            logger.warn("Falha ao refazer o filtro de logins", e);
+        } finally {
+            reconstrucaoAgendada.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        reconstrucao.shutdownNow();
+    }
+
+    // Lê emConstrucao antes de filtro, na ordem inversa da troca em construirTravado() (filtro = novo, depois
+    // emConstrucao = null): se a construção terminar no meio, o filtro lido já é o novo, e o login não se perde
+    private void adicionarNovo(String usuario) {
+        AtomicLongArray construindo = emConstrucao;
+        AtomicLongArray atual = filtro;
+        if (construindo != null) {
+            adicionar(construindo, usuario);
+        }
+        if (atual != null && atual != construindo) {
+            adicionar(atual, usuario);
+        }
+        inseridos.increment();
+    }
+
+    private void adicionar(AtomicLongArray destino, String usuario) {
+        if (usuario == null) {
+            return;
+        }
+        long h = hash(usuario);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 0; i < funcoes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            int indice = bit >>> 6;
+            long mascara = 1L << bit;
+            long valor;
+            do {
+                valor = destino.get(indice);
+                if ((valor & mascara) != 0) {
+                    break;
+                }
+            } while (!destino.compareAndSet(indice, valor, valor | mascara));
+        }
+    }
+
+    // FNV-1a 64 bits sobre o login normalizado como na busca: a collation padrão do MySQL 8 (utf8mb4_0900_ai_ci) compara
+    // logins sem diferenciar maiúsculas nem acentos, e dois logins iguais para o banco precisam dar o mesmo hash
+    private static long hash(String usuario) {
+        String normalizado = Tokenizador.normalizar(usuario.trim());
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalizado.length(); i++) {
+            h ^= normalizado.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        // Mistura final para espalhar os bits altos (usados como segundo hash)
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public boolean isPronto() {
+        return filtro != null;
+    }
+
+    public long getNegativos() {
+        return negativos.sum();
+    }
+
+    public long getConsultasAoBanco() {
+        return consultasAoBanco.sum();
+    }
+
+    // Fração de bits ligados; a taxa de falso positivo é aproximadamente ocupacao ^ funcoes
+    public double getOcupacao() {
+        AtomicLongArray atual = filtro;
+        if (atual == null) {
+            return 0;
+        }
+        long ligados = 0;
+        for (int i = 0; i < atual.length(); i++) {
+            ligados += Long.bitCount(atual.get(i));
+        }
+        return ligados / (double) bits;
+    }
+
+    public int getFuncoes() {
+        return funcoes;
+    }
+}
@@ -0,0 +1,277 @@
+package nilton.acelera.demo.cache;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import nilton.acelera.demo.evento.PostagemEvento;
+import nilton.acelera.demo.evento.TemaEvento;
+import nilton.acelera.demo.evento.UsuarioEvento;
+import nilton.acelera.demo.model.Postagem;
+import nilton.acelera.demo.model.RegistroAlteracao;
+import nilton.acelera.demo.model.Tema;
+import nilton.acelera.demo.model.Usuario;
+import nilton.acelera.demo.repository.PostagemRepository;
+import nilton.acelera.demo.repository.RegistroAlteracaoRepository;
+import nilton.acelera.demo.repository.TemaRepository;
+
+// Acompanha registro_alteracoes e aplica aqui as escritas feitas pelas outras instâncias.
+// Cada alteração remota tira a entidade do cache de segundo nível e é republicada como evento local (remoto=true),
+// então catálogo de temas, cache de usuários, filtro de logins, índice de busca, linhas do tempo, contadores e
+// versões (ETag) se atualizam pelos mesmos ouvintes das escritas locais.
+//
+// Leitura em ordem de id a partir de um cursor. Um id só aparece no commit, e transações terminam fora de ordem:
+// o id pulado vira "lacuna" e é procurado de novo a cada ciclo, até blog.coerencia.espera-lacuna-ms (depois disso
+// é tratado como rollback). Defasagem máxima = intervalo de leitura, para escritas que fazem commit dentro da espera.
+// Uma transação mais lenta que isso não é aplicada: o cache de segundo nível se corrige pelo TTL e os contadores na
+// releitura da tabela (ContadoresPostagens), mas índice de busca, catálogo de temas, filtro de logins e linhas do
+// tempo ficam defasados até a próxima subida (o índice também pela reconstrução). Avisos no log e em lacunasDescartadas.
+@Component
+public class LeitorAlteracoes {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeitorAlteracoes.class);
+
+    // Acima disso o salto de ids não é uma transação em andamento (ex.: auto_increment reiniciado)
+    private static final long MAXIMO_LACUNA = 10_000;
+
+    private final RegistroAlteracaoRepository registroRepository;
+    private final RegistroAlteracoes registroAlteracoes;
+    private final PostagemRepository postagemRepository;
+    private final TemaRepository temaRepository;
+    private final SessionFactory sessionFactory;
+    private final ApplicationEventPublisher eventos;
+    private final int tamanhoLote;
+    private final long esperaLacunaMs;
+
+    // Último id lido; -1 até a subida terminar
+    private volatile long cursor = -1;
+    // id ainda não visto -> quando foi notado (acesso só dentro de acompanhar(): fixedDelay não sobrepõe execuções)
+    private final Map<Long, Long> lacunas = new HashMap<>();
+    private volatile int lacunasPendentes;
+    private volatile long atrasoMs;
+    private final LongAdder aplicadas = new LongAdder();
+    private final LongAdder lacunasRecuperadas = new LongAdder();
+    private final LongAdder lacunasDescartadas = new LongAdder();
+
+    public LeitorAlteracoes(RegistroAlteracaoRepository registroRepository, RegistroAlteracoes registroAlteracoes,
+            PostagemRepository postagemRepository, TemaRepository temaRepository,
+            EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventos,
+            @Value("${blog.coerencia.lote:500}") int tamanhoLote,
+            @Value("${blog.coerencia.espera-lacuna-ms:10000}") long esperaLacunaMs) {
+        this.registroRepository = registroRepository;
+        this.registroAlteracoes = registroAlteracoes;
+        this.postagemRepository = postagemRepository;
+        this.temaRepository = temaRepository;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.eventos = eventos;
+        this.tamanhoLote = tamanhoLote;
+        this.esperaLacunaMs = esperaLacunaMs;
+    }
+
+    // Antes das cargas das estruturas em memória (também no ApplicationReadyEvent): o que for gravado entre o
+    // cursor e a carga é aplicado duas vezes, em vez de nenhuma. Os contadores, que não são idempotentes,
+    // são relidos da tabela depois
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void iniciar() {
+        if (registroAlteracoes.isAtivo()) {
+            cursor = registroRepository.ultimoId();
+            logger.info("Registro de alterações: lendo a partir do id {} (instância {})",
+                cursor, registroAlteracoes.getInstancia());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${blog.coerencia.intervalo-ms:1000}")
+    public void acompanhar() {
+        if (cursor < 0) {
+            return;
+        }
+        List<RegistroAlteracao> novas;
+        do {
+            List<RegistroAlteracao> tardias = lacunas.isEmpty()
+                    ? List.of() : registroRepository.findByIdInOrderByIdAsc(lacunas.keySet());
+            novas = registroRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(tamanhoLote));
+
+            List<RegistroAlteracao> lidas = new ArrayList<>(tardias);
+            lidas.addAll(novas);
+            lidas.sort(Comparator.comparing(RegistroAlteracao::getId));
+            // Se aplicar falhar (ex.: banco fora), cursor e lacunas não andam e o lote é relido no próximo ciclo
+            aplicar(lidas);
+
+            for (RegistroAlteracao tardia : tardias) {
+                lacunas.remove(tardia.getId());
+                lacunasRecuperadas.increment();
+            }
+            long agora = System.currentTimeMillis();
+            for (RegistroAlteracao nova : novas) {
+                anotarLacunas(cursor, nova.getId(), agora);
+                cursor = nova.getId();
+            }
+            int antes = lacunas.size();
+            lacunas.values().removeIf(notadaEm -> agora - notadaEm > esperaLacunaMs);
+            if (lacunas.size() < antes) {
+                lacunasDescartadas.add(antes - lacunas.size());
+                logger.warn("Registro de alterações: {} lacunas descartadas após {} ms; estruturas em memória podem "
+                        + "ficar defasadas", antes - lacunas.size(), esperaLacunaMs);
+            }
+            lacunasPendentes = lacunas.size();
+        } while (novas.size() == tamanhoLote);
+    }
+
+    private void anotarLacunas(long anterior, long atual, long agora) {
+        if (atual - anterior - 1 > MAXIMO_LACUNA) {
+            logger.warn("Registro de alterações: salto de {} para {}, lacunas não acompanhadas", anterior, atual);
+            return;
+        }
+        for (long id = anterior + 1; id < atual; id++) {
+            lacunas.put(id, agora);
+        }
+    }
+
+    private void aplicar(List<RegistroAlteracao> lidas) {
+        String instancia = registroAlteracoes.getInstancia();
+        List<RegistroAlteracao> remotas = lidas.stream().filter(a -> !instancia.equals(a.getInstancia())).toList();
+        if (remotas.isEmpty()) {
+            return;
+        }
+
+        // Cache de segundo nível primeiro: as releituras abaixo (e as próximas requisições) vão ao banco
+        Set<Long> idsPostagens = new HashSet<>();
+        Set<Long> idsTemas = new HashSet<>();
+        for (RegistroAlteracao alteracao : remotas) {
+            switch (alteracao.getEntidade()) {
+                case POSTAGEM -> idsPostagens.add(alteracao.getReferenciaId());
+                case TEMA -> {
+                    idsTemas.add(alteracao.getReferenciaId());
+                    sessionFactory.getCache().evictEntityData(Tema.class, alteracao.getReferenciaId());
+                }
+                case USUARIO -> {
+                    sessionFactory.getCache().evictEntityData(Usuario.class, alteracao.getReferenciaId());
+                    // O login antigo -> id pode estar em cache; a região inteira é pequena e escritas de usuário são raras
+                    sessionFactory.getCache().evictNaturalIdData(Usuario.class);
+                }
+            }
+        }
+        Map<Long, Postagem> postagens = idsPostagens.isEmpty() ? Map.of()
+                : postagemRepository.findAllById(idsPostagens).stream()
+                        .collect(Collectors.toMap(Postagem::getId, Function.identity()));
+        Map<Long, Tema> temas = idsTemas.isEmpty() ? Map.of()
+                : temaRepository.findAllById(idsTemas).stream()
+                        .collect(Collectors.toMap(Tema::getId, Function.identity()));
+
+        for (RegistroAlteracao alteracao : remotas) {
+            switch (alteracao.getEntidade()) {
+                case POSTAGEM -> publicarPostagem(alteracao, postagens.get(alteracao.getReferenciaId()));
+                case TEMA -> publicarTema(alteracao, temas.get(alteracao.getReferenciaId()));
+                case USUARIO -> publicarUsuario(alteracao);
+            }
+            aplicadas.increment();
+        }
+        LocalDateTime ultima = remotas.get(remotas.size() - 1).getCriadoEm();
+        atrasoMs = System.currentTimeMillis() - ultima.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Tema e autor vêm da linha do registro, não da releitura: os contadores precisam do valor daquela escrita,
+    // mesmo que a postagem já tenha mudado de novo (ou sumido) desde então
+    private void publicarPostagem(RegistroAlteracao alteracao, Postagem atual) {
+        PostagemEvento.Tipo tipo = PostagemEvento.Tipo.valueOf(alteracao.getTipo());
+        Postagem postagem = new Postagem();
+        postagem.setId(alteracao.getReferenciaId());
+        if (atual != null && tipo != PostagemEvento.Tipo.REMOVIDA) {
+            postagem.setTitulo(atual.getTitulo());
+            postagem.setTexto(atual.getTexto());
+            postagem.setData(atual.getData());
+        } else {
+            // Já removida: entra vazia no índice e na linha do tempo; a linha REMOVIDA logo adiante a tira
+            postagem.setTitulo("");
+            postagem.setTexto("");
+            postagem.setData(alteracao.getCriadoEm());
+        }
+        postagem.setTema(tema(alteracao.getTemaId()));
+        postagem.setUsuario(usuario(alteracao.getUsuarioId(), null));
+        eventos.publishEvent(PostagemEvento.remoto(tipo, postagem, alteracao.getTemaAnteriorId()));
+    }
+
+    // Tema criado/alterado e já removido: nada a publicar, a linha REMOVIDO vem depois
+    private void publicarTema(RegistroAlteracao alteracao, Tema atual) {
+        TemaEvento.Tipo tipo = TemaEvento.Tipo.valueOf(alteracao.getTipo());
+        if (tipo == TemaEvento.Tipo.REMOVIDO) {
+            eventos.publishEvent(new TemaEvento(tipo, tema(alteracao.getReferenciaId()), true));
+        } else if (atual != null) {
+            eventos.publishEvent(new TemaEvento(tipo, atual, true));
+        }
+    }
+
+    // Os ouvintes de usuário só usam id e logins, que estão na própria linha
+    private void publicarUsuario(RegistroAlteracao alteracao) {
+        UsuarioEvento.Tipo tipo = UsuarioEvento.Tipo.valueOf(alteracao.getTipo());
+        Usuario usuario = usuario(alteracao.getReferenciaId(), alteracao.getLogin());
+        eventos.publishEvent(new UsuarioEvento(tipo, usuario, alteracao.getLoginAnterior(), true));
+    }
+
+    private static Tema tema(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Tema tema = new Tema();
+        tema.setId(id);
+        return tema;
+    }
+
+    private static Usuario usuario(Long id, String login) {
+        if (id == null) {
+            return null;
+        }
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        usuario.setUsuario(login);
+        return usuario;
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+
+    public int getLacunasPendentes() {
+        return lacunasPendentes;
+    }
+
+    public long getAtrasoMs() {
+        return atrasoMs;
+    }
+
+    public long getAplicadas() {
+        return aplicadas.sum();
+    }
+
+    public long getLacunasRecuperadas() {
+        return lacunasRecuperadas.sum();
+    }
+
+    public long getLacunasDescartadas() {
+        return lacunasDescartadas.sum();
+    }
+}
@@ -0,0 +1,133 @@
+package nilton.acelera.demo.cache;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Anel limitado com as postagens mais recentes de um autor, da mais nova (posição lógica 0) para a mais antiga.
+// Sempre guarda um prefixo da linha do tempo real; "completa" indica que o prefixo é a linha do tempo inteira.
+// Não é thread-safe: LinhasDoTempoAutores segura a trava de cada instância.
+class LinhaDoTempo {
+
+    // ReentrantLock e não synchronized: a carga inicial consulta o banco com a trava segura
+    final ReentrantLock trava = new ReentrantLock();
+
+    private final long[] ids;
+    private final long[] temas;
+    // Data de criação em microssegundos (a precisão do DATETIME(6) do MySQL), em vez de LocalDateTime:
+    // 8 bytes por entrada em vez de três objetos (~72 bytes) por entrada
+    private final long[] datas;
+    private int inicio;
+    private int tamanho;
+    private boolean completa;
+
+    LinhaDoTempo(int capacidade) {
+        this.ids = new long[capacidade];
+        this.temas = new long[capacidade];
+        this.datas = new long[capacidade];
+    }
+
+    // Carga inicial: entradas em ordem decrescente; completa se o banco devolveu menos que a capacidade + 1
+    void preencher(List<Long> idsOrdenados, List<LocalDateTime> datasOrdenadas, List<Long> temasOrdenados,
+            boolean historicoCompleto) {
+        inicio = 0;
+        tamanho = Math.min(idsOrdenados.size(), ids.length);
+        for (int i = 0; i < tamanho; i++) {
+            ids[i] = idsOrdenados.get(i);
+            datas[i] = micros(datasOrdenadas.get(i));
+            temas[i] = temasOrdenados.get(i);
+        }
+        completa = historicoCompleto && idsOrdenados.size() <= ids.length;
+    }
+
+    void inserir(long id, LocalDateTime dataCriacao, long tema) {
+        long data = micros(dataCriacao);
+        remover(id);
+        int posicao = 0;
+        while (posicao < tamanho && maisRecente(fisica(posicao), data, id)) {
+            posicao++;
+        }
+        if (posicao == tamanho && !completa) {
+            // Mais antiga do que tudo que está no anel: pertence ao histórico profundo, que fica no banco
+            return;
+        }
+        if (posicao == ids.length) {
+            // Anel cheio e completo: a nova entrada seria a mais antiga e não cabe
+            completa = false;
+            return;
+        }
+        if (posicao == 0) {
+            // Caso comum (postagem nova): avança o início do anel, sem deslocar nada
+            if (tamanho == ids.length) {
+                completa = false;
+            } else {
+                tamanho++;
+            }
+            inicio = (inicio - 1 + ids.length) % ids.length;
+            gravar(fisica(0), id, data, tema);
+            return;
+        }
+        if (tamanho == ids.length) {
+            completa = false;
+        } else {
+            tamanho++;
+        }
+        for (int i = tamanho - 1; i > posicao; i--) {
+            copiar(fisica(i - 1), fisica(i));
+        }
+        gravar(fisica(posicao), id, data, tema);
+    }
+
+    void remover(long id) {
+        for (int i = 0; i < tamanho; i++) {
+            if (ids[fisica(i)] == id) {
+                for (int j = i; j < tamanho - 1; j++) {
+                    copiar(fisica(j + 1), fisica(j));
+                }
+                tamanho--;
+                return;
+            }
+        }
+    }
+
+    // Até "limite" ids (opcionalmente só de um tema); nulo se o anel não basta e é preciso ir ao banco
+    List<Long> listar(int limite, Long tema) {
+        List<Long> resultado = new ArrayList<>(Math.min(limite, tamanho));
+        for (int i = 0; i < tamanho && resultado.size() < limite; i++) {
+            int posicao = fisica(i);
+            if (tema == null || temas[posicao] == tema) {
+                resultado.add(ids[posicao]);
+            }
+        }
+        return resultado.size() == limite || completa ? resultado : null;
+    }
+
+    private boolean maisRecente(int posicao, long data, long id) {
+        return datas[posicao] > data || (datas[posicao] == data && ids[posicao] > id);
+    }
+
+    // data_criacao é anulável; no ORDER BY ... DESC do MySQL os nulos ficam por último.
+    // O fuso não importa: o valor só é comparado com outros convertidos do mesmo jeito.
+    private static long micros(LocalDateTime data) {
+        if (data == null) {
+            return Long.MIN_VALUE;
+        }
+        return data.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + data.getNano() / 1_000;
+    }
+
+    private int fisica(int logica) {
+        return (inicio + logica) % ids.length;
+    }
+
+    private void gravar(int posicao, long id, long data, long tema) {
+        ids[posicao] = id;
+        datas[posicao] = data;
+        temas[posicao] = tema;
+    }
+
+    private void copiar(int origem, int destino) {
+        gravar(destino, ids[origem], datas[origem], temas[origem]);
+    }
+}
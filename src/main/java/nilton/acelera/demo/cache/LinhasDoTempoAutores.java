@@ -0,0 +1,190 @@
+package nilton.acelera.demo.cache;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import nilton.acelera.demo.dto.EntradaLinhaDoTempoDTO;
+import nilton.acelera.demo.evento.OrdemOuvintes;
+import nilton.acelera.demo.evento.PostagemEvento;
+import nilton.acelera.demo.model.Postagem;
+import nilton.acelera.demo.repository.PostagemRepository;
+
+// Linhas do tempo materializadas por autor: as N postagens mais recentes de cada um, carregadas na primeira visita
+// ao perfil e mantidas pelos PostagemEvento. Pedidos que vão além do anel caem no banco.
+@Component
+public class LinhasDoTempoAutores {
+
+    private final PostagemRepository postagemRepository;
+    private final int capacidade;
+    private final int maximoAutores;
+
+    // Autores em ordem de acesso: ao passar de maximoAutores sai o menos recente (LRU).
+    // A trava só cobre as operações do mapa, O(1); consultas ao banco e o anel de cada autor ficam fora dela.
+    private final Map<Long, LinhaDoTempo> linhas;
+    private final ReentrantLock travaLinhas = new ReentrantLock();
+
+    // Acerto: atendido pelo anel já carregado. Falta: anel carregado do banco nesta chamada.
+    // Banco: o anel não bastava (histórico profundo) e a listagem foi feita por consulta.
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder consultasAoBanco = new LongAdder();
+
+    public LinhasDoTempoAutores(PostagemRepository postagemRepository,
+            @Value("${blog.linha-do-tempo.capacidade:100}") int capacidade,
+            @Value("${blog.linha-do-tempo.maximo-autores:10000}") int maximoAutores) {
+        this.postagemRepository = postagemRepository;
+        this.capacidade = capacidade;
+        this.maximoAutores = maximoAutores;
+        this.linhas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, LinhaDoTempo> maisAntigo) {
+                return size() > LinhasDoTempoAutores.this.maximoAutores;
+            }
+        };
+    }
+
+    // Também conta como acesso: um autor que acabou de postar fica na memória
+    private LinhaDoTempo linha(Long usuarioId) {
+        travaLinhas.lock();
+        try {
+            return linhas.get(usuarioId);
+        } finally {
+            travaLinhas.unlock();
+        }
+    }
+
+    // Ids das postagens mais recentes do autor (opcionalmente de um tema), ou nulo se for preciso consultar o banco
+    public List<Long> listar(Long usuarioId, Long temaId, int limite) {
+        if (limite > capacidade) {
+            consultasAoBanco.increment();
+            return null;
+        }
+        LinhaDoTempo linha = linha(usuarioId);
+        boolean carregada = linha != null;
+        if (!carregada) {
+            linha = carregar(usuarioId);
+        }
+        List<Long> ids;
+        linha.trava.lock();
+        try {
+            ids = linha.listar(limite, temaId);
+        } finally {
+            linha.trava.unlock();
+        }
+        if (ids == null) {
+            consultasAoBanco.increment();
+        } else if (carregada) {
+            acertos.increment();
+        } else {
+            faltas.increment();
+        }
+        return ids;
+    }
+
+    private LinhaDoTempo carregar(Long usuarioId) {
+        LinhaDoTempo nova = new LinhaDoTempo(capacidade);
+        // A carga acontece com o anel já travado e publicado: eventos do mesmo autor esperam e são aplicados depois
+        nova.trava.lock();
+        try {
+            LinhaDoTempo existente = publicar(usuarioId, nova);
+            if (existente != null) {
+                return existente;
+            }
+            try {
+                List<EntradaLinhaDoTempoDTO> entradas =
+                    postagemRepository.buscarEntradasLinhaDoTempo(usuarioId, PageRequest.of(0, capacidade + 1));
+                List<Long> ids = new ArrayList<>(entradas.size());
+                List<LocalDateTime> datas = new ArrayList<>(entradas.size());
+                List<Long> temas = new ArrayList<>(entradas.size());
+                for (EntradaLinhaDoTempoDTO entrada : entradas) {
+                    ids.add(entrada.getPostagemId());
+                    datas.add(entrada.getData());
+                    temas.add(entrada.getTemaId());
+                }
+                nova.preencher(ids, datas, temas, true);
+            } catch (RuntimeException e) {
+                travaLinhas.lock();
+                try {
+                    linhas.remove(usuarioId, nova);
+                } finally {
+                    travaLinhas.unlock();
+                }
+                throw e;
+            }
+            return nova;
+        } finally {
+            nova.trava.unlock();
+        }
+    }
+
+    // Publica o anel novo, a menos que outra requisição já tenha publicado o do mesmo autor (devolve esse).
+    // O autor menos recente sai do mapa aqui; se voltar a ser visitado, é recarregado.
+    private LinhaDoTempo publicar(Long usuarioId, LinhaDoTempo nova) {
+        travaLinhas.lock();
+        try {
+            return linhas.putIfAbsent(usuarioId, nova);
+        } finally {
+            travaLinhas.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(OrdemOuvintes.MODELOS_DE_LEITURA)
+    public void aoAlterarPostagem(PostagemEvento evento) {
+        Postagem postagem = evento.getPostagem();
+        if (postagem.getUsuario() == null) {
+            return;
+        }
+        // Autor sem anel carregado: nada a fazer, a próxima visita lê do banco
+        LinhaDoTempo linha = linha(postagem.getUsuario().getId());
+        if (linha == null) {
+            return;
+        }
+        linha.trava.lock();
+        try {
+            switch (evento.getTipo()) {
+                // Atualizar pode mudar o tema e também a data (o PUT grava a postagem recebida), então reposiciona
+                case CRIADA, ATUALIZADA -> linha.inserir(postagem.getId(), postagem.getData(), postagem.getTema().getId());
+                case REMOVIDA -> linha.remover(postagem.getId());
+            }
+        } finally {
+            linha.trava.unlock();
+        }
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFaltas() {
+        return faltas.sum();
+    }
+
+    public long getConsultasAoBanco() {
+        return consultasAoBanco.sum();
+    }
+
+    public int getAutoresEmMemoria() {
+        travaLinhas.lock();
+        try {
+            return linhas.size();
+        } finally {
+            travaLinhas.unlock();
+        }
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+}
@@ -0,0 +1,177 @@
+package nilton.acelera.demo.cache;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import nilton.acelera.demo.evento.PostagemEvento;
+import nilton.acelera.demo.evento.TemaEvento;
+import nilton.acelera.demo.evento.UsuarioEvento;
+import nilton.acelera.demo.model.Postagem;
+import nilton.acelera.demo.model.RegistroAlteracao;
+import nilton.acelera.demo.model.RegistroAlteracao.Entidade;
+import nilton.acelera.demo.repository.RegistroAlteracaoRepository;
+
+// Grava cada evento de escrita em registro_alteracoes, para as outras instâncias (LeitorAlteracoes).
+// Ouve com @EventListener comum, e não depois do commit: dentro de uma transação as linhas são acumuladas e
+// inseridas num único executeBatch no beforeCommit, então a escrita e o registro dela entram (ou não) juntos.
+// Evento publicado fora de transação é erro de programação (a escrita já foi confirmada sozinha): falha na hora.
+@Component
+public class RegistroAlteracoes {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistroAlteracoes.class);
+
+    private static final String INSERT = "INSERT INTO registro_alteracoes (instancia, entidade, tipo, referencia_id, "
+        + "tema_id, usuario_id, tema_anterior_id, login, login_anterior, rastreio, criado_em) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RegistroAlteracaoRepository registroRepository;
+    private final boolean ativo;
+    private final Duration retencao;
+    // Identifica esta instância nas linhas gravadas; muda a cada subida
+    private final String instancia = UUID.randomUUID().toString();
+
+    public RegistroAlteracoes(JdbcTemplate jdbcTemplate, RegistroAlteracaoRepository registroRepository,
+            @Value("${blog.coerencia.ativo:true}") boolean ativo,
+            @Value("${blog.coerencia.retencao-horas:24}") long retencaoHoras) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.registroRepository = registroRepository;
+        this.ativo = ativo;
+        this.retencao = Duration.ofHours(retencaoHoras);
+    }
+
+    public String getInstancia() {
+        return instancia;
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    public Duration getRetencao() {
+        return retencao;
+    }
+
+    // Eventos remotos já estão no registro (foi assim que chegaram aqui)
+    @EventListener
+    public void aoAlterarPostagem(PostagemEvento evento) {
+        if (!ativo || evento.isRemoto()) {
+            return;
+        }
+        Postagem postagem = evento.getPostagem();
+        RegistroAlteracao alteracao = nova(Entidade.POSTAGEM, evento.getTipo().name(), postagem.getId());
+        alteracao.setTemaId(postagem.getTema() == null ? null : postagem.getTema().getId());
+        alteracao.setUsuarioId(postagem.getUsuario() == null ? null : postagem.getUsuario().getId());
+        alteracao.setTemaAnteriorId(evento.getTemaAnteriorId());
+        alteracao.setRastreio(evento.getRastreio());
+        registrar(alteracao);
+    }
+
+    @EventListener
+    public void aoAlterarTema(TemaEvento evento) {
+        if (!ativo || evento.isRemoto()) {
+            return;
+        }
+        registrar(nova(Entidade.TEMA, evento.getTipo().name(), evento.getTema().getId()));
+    }
+
+    @EventListener
+    public void aoAlterarUsuario(UsuarioEvento evento) {
+        if (!ativo || evento.isRemoto()) {
+            return;
+        }
+        RegistroAlteracao alteracao = nova(Entidade.USUARIO, evento.getTipo().name(), evento.getUsuario().getId());
+        alteracao.setLogin(evento.getUsuario().getUsuario());
+        alteracao.setLoginAnterior(evento.getUsuarioAnterior());
+        registrar(alteracao);
+    }
+
+    private RegistroAlteracao nova(Entidade entidade, String tipo, Long referenciaId) {
+        RegistroAlteracao alteracao = new RegistroAlteracao();
+        alteracao.setInstancia(instancia);
+        alteracao.setEntidade(entidade);
+        alteracao.setTipo(tipo);
+        alteracao.setReferenciaId(referenciaId);
+        alteracao.setCriadoEm(LocalDateTime.now());
+        return alteracao;
+    }
+
+    private void registrar(RegistroAlteracao alteracao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Evento de escrita publicado fora de transação: " + alteracao.getEntidade()
+                    + " " + alteracao.getTipo() + " " + alteracao.getReferenciaId());
+        }
+        Pendentes pendentes = (Pendentes) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            pendentes = new Pendentes();
+            TransactionSynchronizationManager.bindResource(this, pendentes);
+            TransactionSynchronizationManager.registerSynchronization(pendentes);
+        }
+        pendentes.alteracoes.add(alteracao);
+    }
+
+    private void inserir(List<RegistroAlteracao> alteracoes) {
+        jdbcTemplate.batchUpdate(INSERT, alteracoes, alteracoes.size(), RegistroAlteracoes::preencher);
+    }
+
+    private static void preencher(PreparedStatement comando, RegistroAlteracao alteracao) throws SQLException {
+        comando.setString(1, alteracao.getInstancia());
+        comando.setString(2, alteracao.getEntidade().name());
+        comando.setString(3, alteracao.getTipo());
+        comando.setLong(4, alteracao.getReferenciaId());
+        comando.setObject(5, alteracao.getTemaId(), Types.BIGINT);
+        comando.setObject(6, alteracao.getUsuarioId(), Types.BIGINT);
+        comando.setObject(7, alteracao.getTemaAnteriorId(), Types.BIGINT);
+        comando.setString(8, alteracao.getLogin());
+        comando.setString(9, alteracao.getLoginAnterior());
+        comando.setString(10, alteracao.getRastreio());
+        comando.setTimestamp(11, Timestamp.valueOf(alteracao.getCriadoEm()));
+    }
+
+    // Linhas da transação corrente, gravadas antes do commit; a falha no INSERT desfaz a escrita junto
+    private final class Pendentes implements TransactionSynchronization {
+
+        final List<RegistroAlteracao> alteracoes = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            inserir(alteracoes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RegistroAlteracoes.this);
+        }
+    }
+
+    // Todas as instâncias apagam (o DELETE é idempotente). A retenção cobre o atraso de uma instância em execução
+    // e o tempo que o arquivo do índice de busca pode ficar parado: retrato mais antigo que ela = reconstrução.
+    @Scheduled(fixedDelayString = "${blog.coerencia.intervalo-limpeza-ms:3600000}")
+    public void apagarAntigas() {
+        if (!ativo) {
+            return;
+        }
+        int apagadas = registroRepository.apagarAnteriores(LocalDateTime.now().minus(retencao));
+        if (apagadas > 0) {
+            logger.info("Registro de alterações: {} linhas antigas apagadas", apagadas);
+        }
+    }
+}
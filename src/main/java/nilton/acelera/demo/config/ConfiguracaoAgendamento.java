@@ -0,0 +1,10 @@
+package nilton.acelera.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Habilita os métodos @Scheduled (ex.: gravação periódica dos contadores de postagens)
+@Configuration
+@EnableScheduling
+public class ConfiguracaoAgendamento {
+}
@@ -0,0 +1,95 @@
+package nilton.acelera.demo.config;
+
+import java.net.URI;
+import java.time.Duration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+// Cache de segundo nível do Hibernate (JCache, implementado pelo Ehcache, só em heap).
+// Regiões: "usuarios" (Usuario por id), "usuarios-login" (login -> id, o natural id) e "temas".
+// Cada região tem capacidade (entradas) e TTL próprios, em blog.cache.<regiao>.*; o TTL é o teto de
+// defasagem quando outra instância altera o registro, já que a invalidação do Hibernate é local.
+@Configuration
+public class ConfiguracaoCacheSegundoNivel {
+
+    public static final String USUARIOS = "usuarios";
+    public static final String USUARIOS_LOGIN = "usuarios-login";
+    public static final String TEMAS = "temas";
+    public static final String[] REGIOES = { USUARIOS, USUARIOS_LOGIN, TEMAS };
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheSegundoNivel(
+            @Value("${blog.cache.usuarios.capacidade:10000}") long capacidadeUsuarios,
+            @Value("${blog.cache.usuarios.ttl-segundos:300}") long ttlUsuarios,
+            @Value("${blog.cache.usuarios-login.capacidade:10000}") long capacidadeLogins,
+            @Value("${blog.cache.usuarios-login.ttl-segundos:300}") long ttlLogins,
+            @Value("${blog.cache.temas.capacidade:1000}") long capacidadeTemas,
+            @Value("${blog.cache.temas.ttl-segundos:3600}") long ttlTemas) {
+        org.ehcache.config.Configuration configuracao = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(USUARIOS, regiao(capacidadeUsuarios, ttlUsuarios))
+                .withCache(USUARIOS_LOGIN, regiao(capacidadeLogins, ttlLogins))
+                .withCache(TEMAS, regiao(capacidadeTemas, ttlTemas))
+                .build();
+        EhcacheCachingProvider provedor = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        return provedor.getCacheManager(URI.create("urn:blog:segundo-nivel"), configuracao);
+    }
+
+    // missing_cache_strategy=fail: uma região anotada na entidade e esquecida aqui falha na subida,
+    // em vez de o Hibernate criar um cache sem limite de tamanho nem expiração
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheSegundoNivel) {
+        return propriedades -> {
+            propriedades.put("hibernate.cache.use_second_level_cache", true);
+            propriedades.put("hibernate.cache.region.factory_class", "jcache");
+            propriedades.put("hibernate.javax.cache.cache_manager", cacheSegundoNivel);
+            propriedades.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+
+    // Acertos, faltas e gravações por região já saem em hibernate.second.level.cache.*; aqui vai a taxa
+    // de acerto pronta (acertos / consultas desde a subida), por região. Só com o perfil "estatisticas".
+    @Bean
+    public MeterBinder metricasCacheSegundoNivel(EntityManagerFactory entityManagerFactory) {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registro -> {
+            if (!estatisticas.isStatisticsEnabled()) {
+                return;
+            }
+            for (String regiao : REGIOES) {
+                Gauge.builder("blog.cache.segundo.nivel.taxa.acerto", estatisticas,
+                                e -> taxaAcerto(e.getDomainDataRegionStatistics(regiao)))
+                        .tag("regiao", regiao).register(registro);
+            }
+        };
+    }
+
+    public static double taxaAcerto(CacheRegionStatistics regiao) {
+        long consultas = regiao.getHitCount() + regiao.getMissCount();
+        return consultas == 0 ? 0 : (double) regiao.getHitCount() / consultas;
+    }
+
+    private static CacheConfigurationBuilder<Object, Object> regiao(long capacidade, long ttlSegundos) {
+        return CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(capacidade))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSegundos)));
+    }
+}
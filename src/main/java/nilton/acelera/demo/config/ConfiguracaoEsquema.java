@@ -0,0 +1,63 @@
+package nilton.acelera.demo.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Verificações que rodam antes do ddl-auto=update do perfil "esquema". O bean existe em todos os perfis (o AOT
+// congela os beans no build) e só vai ao banco com blog.esquema.verificar=true, ligado em application-esquema.
+@Configuration
+public class ConfiguracaoEsquema {
+
+    @Bean
+    public VerificacaoLoginsRepetidos verificacaoLoginsRepetidos(JdbcTemplate jdbcTemplate,
+            @Value("${blog.esquema.verificar:false}") boolean ativa) {
+        return new VerificacaoLoginsRepetidos(jdbcTemplate, ativa);
+    }
+
+    // O EntityManagerFactory (que aplica o ddl-auto) só é criado depois da verificação
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor esquemaDependeDaVerificacao() {
+        return new EntityManagerFactoryDependsOnPostProcessor(VerificacaoLoginsRepetidos.class);
+    }
+
+    // O @NaturalId de Usuario.usuario gera uma chave única. Na collation padrão do MySQL 8 (utf8mb4_0900_ai_ci)
+    // "Joao" e "joão" são o mesmo valor: havendo logins assim, o ALTER TABLE falha e o Hibernate só registra o
+    // erro e segue, sem a chave. O GROUP BY usa a mesma collation da chave, então acha exatamente esses casos.
+    public static class VerificacaoLoginsRepetidos implements InitializingBean {
+
+        private static final String CONSULTA = "SELECT MIN(usuario) FROM usuarios GROUP BY usuario HAVING COUNT(*) > 1";
+
+        private final JdbcTemplate jdbcTemplate;
+        private final boolean ativa;
+
+        public VerificacaoLoginsRepetidos(JdbcTemplate jdbcTemplate, boolean ativa) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.ativa = ativa;
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            if (!ativa) {
+                return;
+            }
+            List<String> repetidos;
+            try {
+                repetidos = jdbcTemplate.queryForList(CONSULTA, String.class);
+            } catch (BadSqlGrammarException e) {
+                // Banco novo: a tabela ainda não existe
+                return;
+            }
+            if (!repetidos.isEmpty()) {
+                throw new IllegalStateException("Logins repetidos (sem diferenciar maiúsculas e acentos) impedem a "
+                        + "chave única de usuarios.usuario; renomeie ou remova antes do deploy: " + repetidos);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package nilton.acelera.demo.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import nilton.acelera.demo.busca.IndicePostagens;
+import nilton.acelera.demo.cache.FiltroUsuarios;
+import nilton.acelera.demo.cache.LeitorAlteracoes;
+import nilton.acelera.demo.cache.LinhasDoTempoAutores;
+import nilton.acelera.demo.metricas.ContadorConsultas;
+import nilton.acelera.demo.security.jwt.CacheTokensVerificados;
+import nilton.acelera.demo.security.ExecutorSenhas;
+import nilton.acelera.demo.security.LimiteRequisicoesFilter;
+import nilton.acelera.demo.service.FilaCriacaoPostagens;
+
+// Métricas próprias da aplicação. As de HTTP (http.server.requests), Hikari (hikaricp.*) e
+// Hibernate (hibernate.*) vêm da autoconfiguração do Actuator; aqui entram as estruturas em memória.
+@Configuration
+public class ConfiguracaoMetricas {
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorConsultas() {
+        return propriedades -> propriedades.put("hibernate.session_factory.statement_inspector", new ContadorConsultas());
+    }
+
+    @Bean
+    public MeterBinder metricasBlog(ExecutorSenhas executorSenhas, LimiteRequisicoesFilter limiteRequisicoes,
+            LinhasDoTempoAutores linhasDoTempo, FiltroUsuarios filtroUsuarios, CacheTokensVerificados cacheTokens,
+            IndicePostagens indicePostagens, FilaCriacaoPostagens filaCriacao, LeitorAlteracoes leitorAlteracoes) {
+        return registro -> {
+            Gauge.builder("blog.senhas.fila", executorSenhas, ExecutorSenhas::getProfundidadeFila)
+                    .description("Operações de senha aguardando na fila do BCrypt").register(registro);
+            Gauge.builder("blog.senhas.ativas", executorSenhas, ExecutorSenhas::getEmExecucao).register(registro);
+            FunctionCounter.builder("blog.senhas.recusadas", executorSenhas, ExecutorSenhas::getRecusadas)
+                    .register(registro);
+            FunctionCounter.builder("blog.senhas.prazo.esgotado", executorSenhas, ExecutorSenhas::getPrazoEsgotado)
+                    .register(registro);
+
+            Gauge.builder("blog.limite.baldes", limiteRequisicoes, LimiteRequisicoesFilter::getBaldes).register(registro);
+            FunctionCounter.builder("blog.limite.recusadas", limiteRequisicoes, LimiteRequisicoesFilter::getRecusadas)
+                    .register(registro);
+
+            FunctionCounter.builder("blog.linha.do.tempo.consultas", linhasDoTempo, LinhasDoTempoAutores::getAcertos)
+                    .tag("resultado", "acerto").register(registro);
+            FunctionCounter.builder("blog.linha.do.tempo.consultas", linhasDoTempo, LinhasDoTempoAutores::getFaltas)
+                    .tag("resultado", "falta").register(registro);
+            FunctionCounter.builder("blog.linha.do.tempo.consultas", linhasDoTempo, LinhasDoTempoAutores::getConsultasAoBanco)
+                    .tag("resultado", "banco").register(registro);
+            Gauge.builder("blog.linha.do.tempo.autores", linhasDoTempo, LinhasDoTempoAutores::getAutoresEmMemoria)
+                    .register(registro);
+
+            FunctionCounter.builder("blog.filtro.usuarios.consultas", filtroUsuarios, FiltroUsuarios::getNegativos)
+                    .tag("resultado", "negativo").register(registro);
+            FunctionCounter.builder("blog.filtro.usuarios.consultas", filtroUsuarios, FiltroUsuarios::getConsultasAoBanco)
+                    .tag("resultado", "banco").register(registro);
+
+            Gauge.builder("blog.jwt.cache.tamanho", cacheTokens, CacheTokensVerificados::tamanho).register(registro);
+            Gauge.builder("blog.busca.indice.pronto", indicePostagens, indice -> indice.isPronto() ? 1 : 0)
+                    .register(registro);
+            Gauge.builder("blog.criacao.assincrona.fila", filaCriacao, FilaCriacaoPostagens::getTamanhoFila)
+                    .register(registro);
+
+            Gauge.builder("blog.coerencia.atraso", leitorAlteracoes, LeitorAlteracoes::getAtrasoMs)
+                    .baseUnit("milliseconds")
+                    .description("Tempo entre a escrita remota mais recente aplicada e a sua aplicação nesta instância")
+                    .register(registro);
+            FunctionCounter.builder("blog.coerencia.aplicadas", leitorAlteracoes, LeitorAlteracoes::getAplicadas)
+                    .register(registro);
+            Gauge.builder("blog.coerencia.lacunas", leitorAlteracoes, LeitorAlteracoes::getLacunasPendentes)
+                    .register(registro);
+            FunctionCounter.builder("blog.coerencia.lacunas.descartadas", leitorAlteracoes,
+                    LeitorAlteracoes::getLacunasDescartadas).register(registro);
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package nilton.acelera.demo.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import nilton.acelera.demo.dto.CursorPostagem;
+import nilton.acelera.demo.dto.DisponibilidadeUsuarioDTO;
+import nilton.acelera.demo.dto.EntradaLinhaDoTempoDTO;
+import nilton.acelera.demo.dto.EstatisticasUsuarioDTO;
+import nilton.acelera.demo.dto.PaginaDTO;
+import nilton.acelera.demo.dto.PostagemImportacaoDTO;
+import nilton.acelera.demo.dto.PostagemResumoDTO;
+import nilton.acelera.demo.dto.RelatorioImportacaoDTO;
+import nilton.acelera.demo.dto.RenovacaoTokenDTO;
+import nilton.acelera.demo.dto.StatusCriacaoDTO;
+import nilton.acelera.demo.dto.TemaContagemDTO;
+import nilton.acelera.demo.dto.UsuarioLogin;
+import nilton.acelera.demo.dto.UsuarioLoginDTO;
+import nilton.acelera.demo.dto.UsuarioTokenDTO;
+import nilton.acelera.demo.model.ContadorPostagens;
+import nilton.acelera.demo.model.GeracaoContadores;
+import nilton.acelera.demo.model.Postagem;
+import nilton.acelera.demo.model.RegistroAlteracao;
+import nilton.acelera.demo.model.Tema;
+import nilton.acelera.demo.model.TipoUsuario;
+import nilton.acelera.demo.model.TokenRenovacao;
+import nilton.acelera.demo.model.Usuario;
+
+// Metadados de alcançabilidade para a imagem nativa (mvn -Pnative native:compile). O AOT do Spring já cobre
+// beans, controllers e repositórios; aqui fica o que é carregado por nome ou por reflexão fora dele.
+// Na JVM as dicas são ignoradas.
+@Configuration
+@ImportRuntimeHints(ConfiguracaoNativa.Dicas.class)
+public class ConfiguracaoNativa {
+
+    static class Dicas implements RuntimeHintsRegistrar {
+
+        // jjwt-api instancia a implementação por nome (Jwts.builder(), Jwts.parserBuilder(), Jwts.claims()...)
+        private static final String[] JJWT = {
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            // Serializador/desserializador JSON, achados via ServiceLoader
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+        };
+
+        // Entidades (Hibernate lê campos e construtores por reflexão) e tudo que o Jackson lê ou escreve,
+        // inclusive fora dos controllers (exportação/importação em lote usam o ObjectMapper direto)
+        private static final Class<?>[] MODELOS = {
+            Postagem.class, Tema.class, Usuario.class, TipoUsuario.class, TokenRenovacao.class,
+            ContadorPostagens.class, GeracaoContadores.class, RegistroAlteracao.class,
+            CursorPostagem.class, DisponibilidadeUsuarioDTO.class, EntradaLinhaDoTempoDTO.class,
+            EstatisticasUsuarioDTO.class, PaginaDTO.class, PostagemImportacaoDTO.class, PostagemResumoDTO.class,
+            RelatorioImportacaoDTO.class, RenovacaoTokenDTO.class, StatusCriacaoDTO.class, TemaContagemDTO.class,
+            UsuarioLogin.class, UsuarioLoginDTO.class, UsuarioTokenDTO.class
+        };
+
+        private final BindingReflectionHintsRegistrar jackson = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String tipo : JJWT) {
+                hints.reflection().registerType(TypeReference.of(tipo), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            }
+            hints.resources()
+                    .registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            jackson.registerReflectionHints(hints.reflection(), MODELOS);
+            for (Class<?> modelo : MODELOS) {
+                hints.reflection().registerType(modelo, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+
+            // springdoc: as anotações de ConfiguracaoSwagger e os arquivos do Swagger UI (webjar + versão,
+            // lida do pom.properties). O resto vem das dicas do próprio springdoc (SpringDocHints).
+            hints.reflection().registerType(ConfiguracaoSwagger.class, MemberCategory.INTROSPECT_DECLARED_METHODS);
+            hints.resources()
+                    .registerPattern("META-INF/resources/webjars/swagger-ui/**")
+                    .registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package nilton.acelera.demo.config;
 
+import java.util.regex.Pattern;
+
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
 import io.swagger.v3.oas.annotations.info.Info;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
@@ -24,4 +29,27 @@ import org.springframework.context.annotation.Configuration;
 )
 public class ConfiguracaoSwagger {
     // Configuração padrão do Swagger para suporte a JWT.
+
+    // Beans do Swagger UI que precisam existir no início: os resource handlers são registrados uma vez só, e
+    // SpringDocUIConfiguration grava a versão do webjar nas propriedades. Lazy, /swagger-ui/index.html dá 404.
+    private static final Pattern SWAGGER_UI_NO_INICIO =
+            Pattern.compile("^org\\.springdoc\\.(webmvc\\.ui\\.|core\\.configuration\\.SpringDocUIConfiguration)");
+
+    // Os demais beans do springdoc (varredura dos controllers, montagem do OpenAPI) ficam para o primeiro acesso
+    // à documentação em vez de pesar no início da aplicação. Estático: roda antes de qualquer outro bean existir.
+    @Bean
+    static BeanFactoryPostProcessor documentacaoPreguicosa() {
+        return beanFactory -> {
+            for (String nome : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definicao = beanFactory.getBeanDefinition(nome);
+                String classe = definicao.getBeanClassName();
+                if (classe == null && definicao.getFactoryBeanName() != null) {
+                    classe = beanFactory.getBeanDefinition(definicao.getFactoryBeanName()).getBeanClassName();
+                }
+                if (classe != null && classe.startsWith("org.springdoc.") && !SWAGGER_UI_NO_INICIO.matcher(classe).find()) {
+                    definicao.setLazyInit(true);
+                }
+            }
+        };
+    }
 }
@@ -0,0 +1,43 @@
+package nilton.acelera.demo.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import nilton.acelera.demo.metricas.ConsultasPorRequisicaoInterceptor;
+import nilton.acelera.demo.security.UsuarioAutenticadoResolver;
+import nilton.acelera.demo.web.GetCondicionalInterceptor;
+
+@Configuration
+public class ConfiguracaoWeb implements WebMvcConfigurer {
+
+    private final GetCondicionalInterceptor getCondicionalInterceptor;
+    private final UsuarioAutenticadoResolver usuarioAutenticadoResolver;
+    private final ConsultasPorRequisicaoInterceptor consultasPorRequisicaoInterceptor;
+
+    public ConfiguracaoWeb(GetCondicionalInterceptor getCondicionalInterceptor,
+            UsuarioAutenticadoResolver usuarioAutenticadoResolver,
+            ConsultasPorRequisicaoInterceptor consultasPorRequisicaoInterceptor) {
+        this.getCondicionalInterceptor = getCondicionalInterceptor;
+        this.usuarioAutenticadoResolver = usuarioAutenticadoResolver;
+        this.consultasPorRequisicaoInterceptor = consultasPorRequisicaoInterceptor;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(usuarioAutenticadoResolver);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Primeiro, para contar também as respostas 304 (que devem ter zero consultas)
+        registry.addInterceptor(consultasPorRequisicaoInterceptor);
+        registry.addInterceptor(getCondicionalInterceptor)
+                .addPathPatterns("/postagens/**", "/temas/**")
+                // O status da criação assíncrona muda sem escrita confirmada (ex.: falha), então não entra na versão
+                .excludePathPatterns("/postagens/assincrona/**");
+    }
+}
@@ -0,0 +1,156 @@
+package nilton.acelera.demo.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import nilton.acelera.demo.cache.ContadoresPostagens;
+import nilton.acelera.demo.cache.FiltroUsuarios;
+import nilton.acelera.demo.cache.LeitorAlteracoes;
+import nilton.acelera.demo.cache.LinhasDoTempoAutores;
+import nilton.acelera.demo.config.ConfiguracaoCacheSegundoNivel;
+import nilton.acelera.demo.security.ExecutorSenhas;
+import nilton.acelera.demo.security.LimiteRequisicoesFilter;
+import nilton.acelera.demo.security.UsuarioAutenticado;
+
+// Estatísticas internas das estruturas em memória (somente ADMIN)
+@RestController
+@RequestMapping("/monitoramento")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class MonitoramentoController {
+
+    @Autowired
+    private LinhasDoTempoAutores linhasDoTempo;
+
+    @Autowired
+    private ContadoresPostagens contadoresPostagens;
+
+    @Autowired
+    private ExecutorSenhas executorSenhas;
+
+    @Autowired
+    private LimiteRequisicoesFilter limiteRequisicoes;
+
+    @Autowired
+    private FiltroUsuarios filtroUsuarios;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LeitorAlteracoes leitorAlteracoes;
+
+    @GetMapping("/linha-do-tempo")
+    public ResponseEntity<Map<String, Object>> linhaDoTempo(UsuarioAutenticado usuarioLogado) {
+        if (!isAdmin(usuarioLogado)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("acertos", linhasDoTempo.getAcertos());
+        estatisticas.put("faltas", linhasDoTempo.getFaltas());
+        estatisticas.put("consultasAoBanco", linhasDoTempo.getConsultasAoBanco());
+        estatisticas.put("autoresEmMemoria", linhasDoTempo.getAutoresEmMemoria());
+        estatisticas.put("capacidadePorAutor", linhasDoTempo.getCapacidade());
+        return ResponseEntity.ok(estatisticas);
+    }
+
+    // Pool de hashing de senhas: fila, latência do BCrypt e recusas por sobrecarga
+    @GetMapping("/senhas")
+    public ResponseEntity<Map<String, Object>> senhas(UsuarioAutenticado usuarioLogado) {
+        if (!isAdmin(usuarioLogado)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("custo", executorSenhas.getCusto());
+        estatisticas.put("threads", executorSenhas.getThreads());
+        estatisticas.put("emExecucao", executorSenhas.getEmExecucao());
+        estatisticas.put("profundidadeFila", executorSenhas.getProfundidadeFila());
+        estatisticas.put("capacidadeFila", executorSenhas.getCapacidadeFila());
+        estatisticas.put("operacoes", executorSenhas.getOperacoes());
+        estatisticas.put("mediaMs", executorSenhas.getMediaMs());
+        estatisticas.put("maximoMs", executorSenhas.getMaximoMs());
+        estatisticas.put("recusadas", executorSenhas.getRecusadas());
+        estatisticas.put("prazoEsgotado", executorSenhas.getPrazoEsgotado());
+        return ResponseEntity.ok(estatisticas);
+    }
+
+    @GetMapping("/limite")
+    public ResponseEntity<Map<String, Object>> limite(UsuarioAutenticado usuarioLogado) {
+        if (!isAdmin(usuarioLogado)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("baldes", limiteRequisicoes.getBaldes());
+        estatisticas.put("recusadas", limiteRequisicoes.getRecusadas());
+        return ResponseEntity.ok(estatisticas);
+    }
+
+    @GetMapping("/filtro-usuarios")
+    public ResponseEntity<Map<String, Object>> filtroUsuarios(UsuarioAutenticado usuarioLogado) {
+        if (!isAdmin(usuarioLogado)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("pronto", filtroUsuarios.isPronto());
+        estatisticas.put("negativosSemBanco", filtroUsuarios.getNegativos());
+        estatisticas.put("consultasAoBanco", filtroUsuarios.getConsultasAoBanco());
+        double ocupacao = filtroUsuarios.getOcupacao();
+        estatisticas.put("ocupacao", ocupacao);
+        estatisticas.put("falsoPositivoEstimado", Math.pow(ocupacao, filtroUsuarios.getFuncoes()));
+        return ResponseEntity.ok(estatisticas);
+    }
+
+    // Cache de segundo nível do Hibernate, por região (contagens desde a subida da instância)
+    @GetMapping("/cache-segundo-nivel")
+    public ResponseEntity<Map<String, Object>> cacheSegundoNivel(UsuarioAutenticado usuarioLogado) {
+        if (!isAdmin(usuarioLogado)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        Statistics estatisticasHibernate = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Sem o perfil "estatisticas" o Hibernate não conta nada: zeros aqui enganariam
+        if (!estatisticasHibernate.isStatisticsEnabled()) return ResponseEntity.notFound().build();
+
+        Map<String, Object> regioes = new LinkedHashMap<>();
+        for (String nome : ConfiguracaoCacheSegundoNivel.REGIOES) {
+            CacheRegionStatistics regiao = estatisticasHibernate.getDomainDataRegionStatistics(nome);
+            Map<String, Object> estatisticas = new LinkedHashMap<>();
+            estatisticas.put("acertos", regiao.getHitCount());
+            estatisticas.put("faltas", regiao.getMissCount());
+            estatisticas.put("gravacoes", regiao.getPutCount());
+            estatisticas.put("taxaAcerto", ConfiguracaoCacheSegundoNivel.taxaAcerto(regiao));
+            regioes.put(nome, estatisticas);
+        }
+        return ResponseEntity.ok(regioes);
+    }
+
+    // Leitura do registro de alterações das outras instâncias
+    @GetMapping("/coerencia")
+    public ResponseEntity<Map<String, Object>> coerencia(UsuarioAutenticado usuarioLogado) {
+        if (!isAdmin(usuarioLogado)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("cursor", leitorAlteracoes.getCursor());
+        estatisticas.put("aplicadas", leitorAlteracoes.getAplicadas());
+        estatisticas.put("atrasoMs", leitorAlteracoes.getAtrasoMs());
+        estatisticas.put("lacunasPendentes", leitorAlteracoes.getLacunasPendentes());
+        estatisticas.put("lacunasRecuperadas", leitorAlteracoes.getLacunasRecuperadas());
+        estatisticas.put("lacunasDescartadas", leitorAlteracoes.getLacunasDescartadas());
+        return ResponseEntity.ok(estatisticas);
+    }
+
+    // Refaz os contadores de postagens por tema/usuário a partir de COUNT(*) no banco
+    @PostMapping("/contadores/recontar")
+    public ResponseEntity<Void> recontarContadores(UsuarioAutenticado usuarioLogado) {
+        if (!isAdmin(usuarioLogado)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        contadoresPostagens.recontar();
+        return ResponseEntity.noContent().build();
+    }
+
+    private boolean isAdmin(UsuarioAutenticado usuarioLogado) {
+        return usuarioLogado != null && usuarioLogado.isAdmin();
+    }
+}
@@ -1,33 +1,110 @@
 package nilton.acelera.demo.controller;
 
-import java.security.Principal;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import jakarta.servlet.http.HttpServletResponse;
+import nilton.acelera.demo.busca.IndicePostagens;
+import nilton.acelera.demo.cache.CatalogoTemas;
+import nilton.acelera.demo.dto.PaginaDTO;
+import nilton.acelera.demo.dto.PostagemImportacaoDTO;
+import nilton.acelera.demo.dto.PostagemResumoDTO;
+import nilton.acelera.demo.dto.RelatorioImportacaoDTO;
+import nilton.acelera.demo.dto.StatusCriacaoDTO;
 import nilton.acelera.demo.model.Postagem;
 import nilton.acelera.demo.model.Usuario;
 import nilton.acelera.demo.repository.PostagemRepository;
-import nilton.acelera.demo.repository.UsuarioRepository;
+import nilton.acelera.demo.security.CacheUsuarios;
+import nilton.acelera.demo.security.UsuarioAutenticado;
+import nilton.acelera.demo.service.ExportacaoPostagensService;
+import nilton.acelera.demo.service.FilaCriacaoPostagens;
+import nilton.acelera.demo.service.ImportacaoPostagensService;
+import nilton.acelera.demo.service.PostagemService;
 
 @RestController
 @RequestMapping("/postagens")
 @CrossOrigin(origins = "*", allowedHeaders = "*")
 public class PostagemController {
 
+    private static final long PRAZO_EXPORTACAO_MS = 30 * 60 * 1000L;
+
     @Autowired
     private PostagemRepository postagemRepository;
 
     @Autowired
-    private UsuarioRepository usuarioRepository;
+    private CacheUsuarios cacheUsuarios;
+
+    @Autowired
+    private PostagemService postagemService;
+
+    @Autowired
+    private IndicePostagens indicePostagens;
+
+    @Autowired
+    private ExportacaoPostagensService exportacaoPostagensService;
+
+    @Autowired
+    private ImportacaoPostagensService importacaoPostagensService;
+
+    @Autowired
+    private FilaCriacaoPostagens filaCriacaoPostagens;
+
+    @Autowired
+    private CatalogoTemas catalogoTemas;
 
-    // Listar todas as postagens.
+    // Legado: antes devolvia a tabela inteira. Agora é a primeira página do feed (20 por padrão, até 100 com
+    // "tamanho"); se houver mais, o cabeçalho Link aponta para a próxima página em /postagens/pagina.
+    @Deprecated
     @GetMapping
-    public ResponseEntity<List<Postagem>> listarPostagens() {
-        return ResponseEntity.ok(postagemRepository.findAll());
+    public ResponseEntity<List<Postagem>> listarPostagens(@RequestParam(required = false) Integer tamanho) {
+        PaginaDTO<Postagem> pagina = postagemService.listarPagina(null, tamanho);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pagina.getProximoCursor() != null) {
+            resposta.header(HttpHeaders.LINK,
+                    "</postagens/pagina?cursor=" + pagina.getProximoCursor()
+                            + (tamanho == null ? "" : "&tamanho=" + tamanho) + ">; rel=\"next\"");
+        }
+        return resposta.body(pagina.getItens());
+    }
+
+    // Buscar por id
+    @GetMapping("/{id}")
+    public ResponseEntity<Postagem> buscarPorId(@PathVariable Long id) {
+        return postagemRepository.findById(id)
+                .map(postagem -> ResponseEntity.ok(postagem))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Exportação completa em streaming: ndjson (uma postagem por linha) ou json (array enviado em partes), somente ADMIN
+    // (regra em ConfiguracaoDeSeguranca). Roda como requisição assíncrona com prazo próprio: o padrão do MVC
+    // (30 s) cortaria a exportação, e aumentá-lo para toda a aplicação deixaria as outras requisições sem prazo.
+    @GetMapping("/exportar")
+    public WebAsyncTask<Void> exportarPostagens(@RequestParam(defaultValue = "ndjson") String formato,
+            HttpServletResponse response) {
+        ExportacaoPostagensService.Formato formatoExportacao;
+        try {
+            formatoExportacao = ExportacaoPostagensService.Formato.valueOf(formato.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            // Sem tarefa assíncrona: a resposta termina aqui, com o status definido
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return null;
+        }
+        response.setContentType(formatoExportacao == ExportacaoPostagensService.Formato.NDJSON
+                ? MediaType.APPLICATION_NDJSON_VALUE
+                : MediaType.APPLICATION_JSON_VALUE);
+        return new WebAsyncTask<>(PRAZO_EXPORTACAO_MS, () -> {
+            exportacaoPostagensService.exportar(response.getOutputStream(), formatoExportacao);
+            return null;
+        });
     }
 
     // Buscar por título
@@ -36,73 +113,241 @@ public class PostagemController {
         return ResponseEntity.ok(postagemRepository.findAllByTituloContainingIgnoreCase(titulo));
     }
 
+    // Busca textual (título e texto, sem diferenciar acentos/maiúsculas), ordenada por relevância
+    @GetMapping("/busca")
+    public ResponseEntity<List<PostagemResumoDTO>> buscarTexto(@RequestParam("q") String consulta,
+            @RequestParam(required = false) Integer limite) {
+        return postagemService.buscarTexto(consulta, limite)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5").build());
+    }
+
+    // Reconstrói o índice de busca a partir do banco e grava o arquivo local (somente ADMIN).
+    // Responde 202 na hora; a reconstrução segue em segundo plano e as buscas usam o índice atual até a troca.
+    @PostMapping("/busca/reconstruir")
+    public ResponseEntity<Void> reconstruirIndice(UsuarioAutenticado usuarioLogado) {
+        if (usuarioLogado == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        if (!usuarioLogado.isAdmin()) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        if (!indicePostagens.reconstruirEmSegundoPlano()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    // Feed paginado por cursor (mais recentes primeiro). Use o "proximoCursor" da resposta para a próxima página.
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaDTO<Postagem>> listarPagina(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            return ResponseEntity.ok(postagemService.listarPagina(cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/titulo/{titulo}/pagina")
+    public ResponseEntity<PaginaDTO<Postagem>> buscarPaginaPorTitulo(@PathVariable String titulo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            return ResponseEntity.ok(postagemService.listarPaginaPorTitulo(titulo, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/tema/{temaId}/pagina")
+    public ResponseEntity<PaginaDTO<Postagem>> buscarPaginaPorTema(@PathVariable Long temaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            return ResponseEntity.ok(postagemService.listarPaginaPorTema(temaId, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/usuario/{usuarioId}/pagina")
+    public ResponseEntity<PaginaDTO<Postagem>> buscarPaginaPorUsuario(@PathVariable Long usuarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            return ResponseEntity.ok(postagemService.listarPaginaPorUsuario(usuarioId, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Visão de leitura enxuta: postagem + nome/foto do autor + descrição do tema em uma única consulta.
+    @GetMapping("/resumo")
+    public ResponseEntity<PaginaDTO<PostagemResumoDTO>> listarResumos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            return ResponseEntity.ok(postagemService.listarResumos(cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/resumo/tema/{temaId}")
+    public ResponseEntity<PaginaDTO<PostagemResumoDTO>> listarResumosPorTema(@PathVariable Long temaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            return ResponseEntity.ok(postagemService.listarResumosPorTema(temaId, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/resumo/usuario/{usuarioId}")
+    public ResponseEntity<PaginaDTO<PostagemResumoDTO>> listarResumosPorUsuario(@PathVariable Long usuarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            return ResponseEntity.ok(postagemService.listarResumosPorUsuario(usuarioId, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Perfil do autor: postagens mais recentes, opcionalmente filtradas por tema
+    @GetMapping("/usuario/{usuarioId}/recentes")
+    public ResponseEntity<List<PostagemResumoDTO>> listarRecentesDoAutor(@PathVariable Long usuarioId,
+            @RequestParam(required = false) Long temaId,
+            @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(postagemService.listarRecentesDoAutor(usuarioId, temaId, limite));
+    }
+
     // Criar postagem (qualquer usuário autenticado pode criar)
     @PostMapping
-    public ResponseEntity<Postagem> criarPostagem(@RequestBody Postagem postagem, Principal principal) {
+    public ResponseEntity<Postagem> criarPostagem(@RequestBody Postagem postagem, UsuarioAutenticado usuarioLogado) {
+        if (usuarioLogado == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         // Garante que o usuário logado é o dono da postagem
-        Usuario usuario = usuarioRepository.findByUsuario(principal.getName()).orElse(null);
+        Usuario usuario = cacheUsuarios.buscar(usuarioLogado.getUsuario()).orElse(null);
         if (usuario == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        if (postagem.getTema() == null || postagem.getTema().getId() == null) return ResponseEntity.badRequest().build();
         postagem.setUsuario(usuario);
-        return ResponseEntity.status(HttpStatus.CREATED).body(postagemRepository.save(postagem));
+        return postagemService.criar(postagem)
+                .map(salva -> ResponseEntity.status(HttpStatus.CREATED).body(salva))
+                .orElse(ResponseEntity.badRequest().build());
+    }
+
+    // Criação assíncrona: responde 202 com um código de rastreio; a gravação acontece em lote logo depois.
+    // O id final sai em GET /postagens/assincrona/{rastreio}. Fila cheia = 503 com Retry-After.
+    // A fila é da instância e não sobrevive a uma queda (ver FilaCriacaoPostagens): quem precisa de garantia usa POST /postagens.
+    @PostMapping("/assincrona")
+    public ResponseEntity<StatusCriacaoDTO> criarPostagemAssincrona(@RequestBody Postagem postagem, UsuarioAutenticado usuarioLogado) {
+        // Só o id do autor é necessário: vem do usuário autenticado, sem buscar no banco
+        if (usuarioLogado == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        // Mesmos limites das colunas: aqui o erro vira 400, e não uma falha depois do 202 que ainda refaz o lote um a um
+        if (postagem.getTitulo() == null || postagem.getTitulo().isBlank()
+                || postagem.getTitulo().length() > Postagem.TAMANHO_MAXIMO_TITULO
+                || postagem.getTexto() == null || postagem.getTexto().isBlank()
+                || postagem.getTexto().length() > Postagem.TAMANHO_MAXIMO_TEXTO
+                || postagem.getTema() == null || !catalogoTemas.existe(postagem.getTema().getId())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        PostagemImportacaoDTO pedido = new PostagemImportacaoDTO();
+        pedido.setTitulo(postagem.getTitulo());
+        pedido.setTexto(postagem.getTexto());
+        pedido.setData(LocalDateTime.now());
+        pedido.setUsuarioId(usuarioLogado.getId());
+        pedido.setTemaId(postagem.getTema().getId());
+
+        return filaCriacaoPostagens.enfileirar(pedido)
+                .map(status -> ResponseEntity.accepted()
+                        .location(URI.create("/postagens/assincrona/" + status.getRastreio()))
+                        .body(status))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1").build());
+    }
+
+    // PENDENTE/FALHOU só na instância que recebeu o pedido; CRIADA em qualquer uma (registro de alterações)
+    @GetMapping("/assincrona/{rastreio}")
+    public ResponseEntity<StatusCriacaoDTO> consultarCriacaoAssincrona(@PathVariable String rastreio) {
+        return filaCriacaoPostagens.consultar(rastreio)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Importação em massa (somente ADMIN): corpo NDJSON, uma postagem por linha
+    // {"titulo": "...", "texto": "...", "data": "2024-01-31T10:00:00", "usuarioId": 1, "temaId": 2}
+    @PostMapping(value = "/lote", consumes = { "application/x-ndjson", MediaType.TEXT_PLAIN_VALUE })
+    public ResponseEntity<RelatorioImportacaoDTO> importarLote(InputStream corpo, UsuarioAutenticado usuarioLogado) throws IOException {
+        if (usuarioLogado == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        if (!usuarioLogado.isAdmin()) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        return ResponseEntity.ok(importacaoPostagensService.importar(corpo));
     }
 
     // Atualizar postagem
     @PutMapping
-public ResponseEntity<Postagem> atualizarPostagem(@RequestBody Postagem postagem, Principal principal) {
+public ResponseEntity<Postagem> atualizarPostagem(@RequestBody Postagem postagem, UsuarioAutenticado usuarioLogado) {
     Optional<Postagem> postagemExistente = postagemRepository.findById(postagem.getId());
     if (!postagemExistente.isPresent()) {
         return ResponseEntity.notFound().build();
     }
 
-    Usuario usuarioLogado = usuarioRepository.findByUsuario(principal.getName()).orElse(null);
     if (usuarioLogado == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
 
     Postagem postagemAtual = postagemExistente.get();
+    Long temaAnteriorId = postagemAtual.getTema().getId();
 
    
-    boolean isAdmin = usuarioLogado.getTipo().name().equals("ADMIN") || usuarioLogado.getTipo().name().equals("ROLE_ADMIN");
+    boolean isAdmin = usuarioLogado.isAdmin();
     boolean isDono = postagemAtual.getUsuario().getId().equals(usuarioLogado.getId());
 
     if (isAdmin) {
         if (isDono) {
             // Admin editando a própria postagem: pode editar tudo
-            postagem.setUsuario(usuarioLogado); // Garante que não muda o dono
-            return ResponseEntity.ok(postagemRepository.save(postagem));
+            postagem.setUsuario(postagemAtual.getUsuario()); // Garante que não muda o dono
+            postagem.setData(postagemAtual.getData()); // nem a data de criação (chave do cursor)
+            return ResponseEntity.ok(salvarAtualizacao(postagem, temaAnteriorId));
         } else {
             // Admin editando postagem de outro: só pode mudar o tema
             postagemAtual.setTema(postagem.getTema());
-            return ResponseEntity.ok(postagemRepository.save(postagemAtual));
+            return ResponseEntity.ok(salvarAtualizacao(postagemAtual, temaAnteriorId));
         }
     } else {
         // User comum: só pode editar a própria postagem
         if (isDono) {
-            postagem.setUsuario(usuarioLogado); // Garante que não muda o dono
-            return ResponseEntity.ok(postagemRepository.save(postagem));
+            postagem.setUsuario(postagemAtual.getUsuario()); // Garante que não muda o dono
+            postagem.setData(postagemAtual.getData()); // nem a data de criação (chave do cursor)
+            return ResponseEntity.ok(salvarAtualizacao(postagem, temaAnteriorId));
         } else {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
     }
 }
 
+    private Postagem salvarAtualizacao(Postagem postagem, Long temaAnteriorId) {
+        return postagemService.salvarAtualizacao(postagem, temaAnteriorId);
+    }
+
     // Excluir postagem
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deletarPostagem(@PathVariable Long id, Principal principal) {
+    public ResponseEntity<Void> deletarPostagem(@PathVariable Long id, UsuarioAutenticado usuarioLogado) {
         Optional<Postagem> postagemExistente = postagemRepository.findById(id);
         if (!postagemExistente.isPresent()) {
             return ResponseEntity.notFound().build();
         }
     
-        Usuario usuarioLogado = usuarioRepository.findByUsuario(principal.getName()).orElse(null);
         if (usuarioLogado == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     
         Postagem postagemAtual = postagemExistente.get();
     
         // Corrigido aqui:
-        boolean isAdmin = usuarioLogado.getTipo().name().equals("ADMIN") || usuarioLogado.getTipo().name().equals("ROLE_ADMIN");
+        boolean isAdmin = usuarioLogado.isAdmin();
         boolean isDono = postagemAtual.getUsuario().getId().equals(usuarioLogado.getId());
     
         if (isAdmin || isDono) {
-            postagemRepository.deleteById(id);
+            postagemService.remover(postagemAtual);
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
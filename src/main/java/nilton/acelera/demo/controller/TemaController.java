@@ -4,8 +4,10 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import nilton.acelera.demo.cache.CatalogoTemas;
+import nilton.acelera.demo.dto.TemaContagemDTO;
 import nilton.acelera.demo.model.Tema;
-import nilton.acelera.demo.repository.TemaRepository;
+import nilton.acelera.demo.service.TemaService;
 
 @RestController
 @RequestMapping("/temas")
@@ -13,32 +15,50 @@ import nilton.acelera.demo.repository.TemaRepository;
 public class TemaController {
 
     @Autowired
-    private TemaRepository temaRepository;
+    private TemaService temaService;
+
+    @Autowired
+    private CatalogoTemas catalogoTemas;
 
     @GetMapping
     public ResponseEntity<List<Tema>> listarTemas() {
-        return ResponseEntity.ok(temaRepository.findAll());
+        return ResponseEntity.ok(catalogoTemas.listarTodos());
     }
  //.
     @GetMapping("/{id}")
     public ResponseEntity<Tema> buscarPorId(@PathVariable Long id) {
-        return temaRepository.findById(id)
+        return catalogoTemas.buscarPorId(id)
                 .map(resposta -> ResponseEntity.ok(resposta))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/contagens")
+    public ResponseEntity<List<TemaContagemDTO>> listarTemasComContagem() {
+        return ResponseEntity.ok(temaService.listarComContagem());
+    }
+
+    @GetMapping("/descricao/{descricao}")
+    public ResponseEntity<List<Tema>> buscarPorDescricao(@PathVariable String descricao) {
+        return ResponseEntity.ok(catalogoTemas.buscarPorDescricao(descricao));
+    }
+
+    // Escritas pelo service: a gravação e o registro de alterações entram no mesmo commit
     @PostMapping
     public ResponseEntity<Tema> criarTema(@RequestBody Tema tema) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(temaRepository.save(tema));
+        return ResponseEntity.status(HttpStatus.CREATED).body(temaService.criar(tema));
     }
 
     @PutMapping
     public ResponseEntity<Tema> atualizarTema(@RequestBody Tema tema) {
-        return ResponseEntity.ok(temaRepository.save(tema));
+        if (tema.getId() == null) return ResponseEntity.badRequest().build();
+        return temaService.atualizar(tema.getId(), tema)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
+    // Delega ao service: só exclui temas sem postagens (o deleteById direto apagava as postagens em cascata)
     @DeleteMapping("/{id}")
-    public void deletarTema(@PathVariable Long id) {
-        temaRepository.deleteById(id);
+    public ResponseEntity<Void> deletarTema(@PathVariable Long id) {
+        return temaService.deletar(id);
     }
 }
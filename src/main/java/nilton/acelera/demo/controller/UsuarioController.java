@@ -1,6 +1,7 @@
 package nilton.acelera.demo.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -10,7 +11,13 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import nilton.acelera.demo.security.SobrecargaSenhasException;
+import nilton.acelera.demo.security.TokensRenovacao;
 import nilton.acelera.demo.security.jwt.JwtService;
+import nilton.acelera.demo.cache.ContadoresPostagens;
+import nilton.acelera.demo.dto.DisponibilidadeUsuarioDTO;
+import nilton.acelera.demo.dto.EstatisticasUsuarioDTO;
+import nilton.acelera.demo.dto.RenovacaoTokenDTO;
 import nilton.acelera.demo.dto.UsuarioTokenDTO;
 import nilton.acelera.demo.model.Usuario;
 import nilton.acelera.demo.service.UsuarioService;
@@ -29,6 +36,12 @@ public class UsuarioController {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private ContadoresPostagens contadoresPostagens;
+
+    @Autowired
+    private TokensRenovacao tokensRenovacao;
+
     // Acesso permitido para todos, não precisa estar logado
     @PostMapping("/cadastrar")
     public ResponseEntity<Usuario> cadastrar(@RequestBody Usuario usuario) {
@@ -37,6 +50,13 @@ public class UsuarioController {
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
     }
 
+    // Acesso permitido para todos: o formulário de cadastro consulta a cada digitação
+    @GetMapping("/disponivel")
+    public ResponseEntity<DisponibilidadeUsuarioDTO> disponivel(@RequestParam String usuario) {
+        if (usuario.isBlank()) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(new DisponibilidadeUsuarioDTO(usuario, usuarioService.usuarioDisponivel(usuario)));
+    }
+
     // Acesso permitido somente para usuários com ROLE_ADMIN
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/{id}")
@@ -55,6 +75,13 @@ public class UsuarioController {
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
+    @GetMapping("/{id}/estatisticas")
+    public ResponseEntity<EstatisticasUsuarioDTO> estatisticas(@PathVariable Long id) {
+        long total = contadoresPostagens.totalPorUsuario(id);
+        if (total < 0) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        return ResponseEntity.ok(new EstatisticasUsuarioDTO(id, total));
+    }
+
     @PostMapping("/login")
     public ResponseEntity<UsuarioTokenDTO> login(@RequestBody Usuario usuario) {
         UsernamePasswordAuthenticationToken authenticationToken =
@@ -74,7 +101,37 @@ public class UsuarioController {
             token,
             usuarioAutenticado.getTipo().name()
         );
+        dto.setTokenRenovacao(tokensRenovacao.emitir(usuarioAutenticado.getId()));
     
         return ResponseEntity.ok(dto);
     }
-}
\ No newline at end of file
+
+    // Troca um token de renovação (uso único) por um novo token de acesso e um novo token de renovação,
+    // sem verificar a senha de novo
+    @PostMapping("/renovar")
+    public ResponseEntity<UsuarioTokenDTO> renovar(@RequestBody RenovacaoTokenDTO renovacao) {
+        Usuario usuario = tokensRenovacao.consumir(renovacao.getTokenRenovacao())
+                .flatMap(usuarioService::buscarPorId)
+                .orElse(null);
+        if (usuario == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+
+        UsuarioTokenDTO dto = new UsuarioTokenDTO(
+            usuario.getId(),
+            usuario.getNome(),
+            usuario.getUsuario(),
+            usuario.getFoto(),
+            jwtService.gerarTokenComAuthorities(usuario),
+            usuario.getTipo().name()
+        );
+        dto.setTokenRenovacao(tokensRenovacao.emitir(usuario.getId()));
+        return ResponseEntity.ok(dto);
+    }
+
+    // Login/cadastro/atualização com o pool de senhas saturado: 503 rápido em vez de segurar a thread
+    @ExceptionHandler(SobrecargaSenhasException.class)
+    public ResponseEntity<Void> sobrecargaSenhas(SobrecargaSenhasException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package nilton.acelera.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import nilton.acelera.demo.model.Postagem;
+
+// Posição opaca no feed de postagens: (data_criacao, id) da última postagem entregue.
+// O cliente só repassa o valor recebido em "proximoCursor"; o formato interno pode mudar.
+public class CursorPostagem {
+
+    private final LocalDateTime data;
+    private final Long id;
+
+    public CursorPostagem(LocalDateTime data, Long id) {
+        this.data = data;
+        this.id = id;
+    }
+
+    public static CursorPostagem de(Postagem postagem) {
+        return new CursorPostagem(postagem.getData(), postagem.getId());
+    }
+
+    public String codificar() {
+        String bruto = data + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Lança IllegalArgumentException se o token não foi gerado por codificar()
+    public static CursorPostagem decodificar(String token) {
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = bruto.lastIndexOf('|');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new CursorPostagem(
+                LocalDateTime.parse(bruto.substring(0, separador)),
+                Long.valueOf(bruto.substring(separador + 1))
+            );
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public LocalDateTime getData() {
+        return data;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,31 @@
+package nilton.acelera.demo.dto;
+
+public class DisponibilidadeUsuarioDTO {
+
+    private String usuario;
+    private boolean disponivel;
+
+    public DisponibilidadeUsuarioDTO() {
+    }
+
+    public DisponibilidadeUsuarioDTO(String usuario, boolean disponivel) {
+        this.usuario = usuario;
+        this.disponivel = disponivel;
+    }
+
+    public String getUsuario() {
+        return usuario;
+    }
+
+    public void setUsuario(String usuario) {
+        this.usuario = usuario;
+    }
+
+    public boolean isDisponivel() {
+        return disponivel;
+    }
+
+    public void setDisponivel(boolean disponivel) {
+        this.disponivel = disponivel;
+    }
+}
@@ -0,0 +1,44 @@
+package nilton.acelera.demo.dto;
+
+import java.time.LocalDateTime;
+
+// Só o necessário para ordenar e filtrar a linha do tempo de um autor
+public class EntradaLinhaDoTempoDTO {
+
+    private Long postagemId;
+    private LocalDateTime data;
+    private Long temaId;
+
+    public EntradaLinhaDoTempoDTO() {
+    }
+
+    public EntradaLinhaDoTempoDTO(Long postagemId, LocalDateTime data, Long temaId) {
+        this.postagemId = postagemId;
+        this.data = data;
+        this.temaId = temaId;
+    }
+
+    public Long getPostagemId() {
+        return postagemId;
+    }
+
+    public void setPostagemId(Long postagemId) {
+        this.postagemId = postagemId;
+    }
+
+    public LocalDateTime getData() {
+        return data;
+    }
+
+    public void setData(LocalDateTime data) {
+        this.data = data;
+    }
+
+    public Long getTemaId() {
+        return temaId;
+    }
+
+    public void setTemaId(Long temaId) {
+        this.temaId = temaId;
+    }
+}
@@ -0,0 +1,31 @@
+package nilton.acelera.demo.dto;
+
+public class EstatisticasUsuarioDTO {
+
+    private Long usuarioId;
+    private long totalPostagens;
+
+    public EstatisticasUsuarioDTO() {
+    }
+
+    public EstatisticasUsuarioDTO(Long usuarioId, long totalPostagens) {
+        this.usuarioId = usuarioId;
+        this.totalPostagens = totalPostagens;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public long getTotalPostagens() {
+        return totalPostagens;
+    }
+
+    public void setTotalPostagens(long totalPostagens) {
+        this.totalPostagens = totalPostagens;
+    }
+}
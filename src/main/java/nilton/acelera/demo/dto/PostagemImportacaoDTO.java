@@ -0,0 +1,54 @@
+package nilton.acelera.demo.dto;
+
+import java.time.LocalDateTime;
+
+// Uma linha do NDJSON de importação em lote
+public class PostagemImportacaoDTO {
+
+    private String titulo;
+    private String texto;
+    // Opcional: quando ausente, usa o momento da importação
+    private LocalDateTime data;
+    private Long usuarioId;
+    private Long temaId;
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public void setTexto(String texto) {
+        this.texto = texto;
+    }
+
+    public LocalDateTime getData() {
+        return data;
+    }
+
+    public void setData(LocalDateTime data) {
+        this.data = data;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public Long getTemaId() {
+        return temaId;
+    }
+
+    public void setTemaId(Long temaId) {
+        this.temaId = temaId;
+    }
+}
@@ -0,0 +1,107 @@
+package nilton.acelera.demo.dto;
+
+import java.time.LocalDateTime;
+
+// Visão de leitura "achatada" de uma postagem: montada direto pela consulta JPQL (um único SELECT com JOIN),
+// sem entidades gerenciadas, sem selects extras para usuario/tema e sem expor dados sensíveis do autor.
+public class PostagemResumoDTO {
+
+    private Long id;
+    private String titulo;
+    private String texto;
+    private LocalDateTime data;
+    private Long usuarioId;
+    private String usuarioNome;
+    private String usuarioFoto;
+    private Long temaId;
+    private String temaDescricao;
+
+    public PostagemResumoDTO() {
+    }
+
+    public PostagemResumoDTO(Long id, String titulo, String texto, LocalDateTime data,
+            Long usuarioId, String usuarioNome, String usuarioFoto,
+            Long temaId, String temaDescricao) {
+        this.id = id;
+        this.titulo = titulo;
+        this.texto = texto;
+        this.data = data;
+        this.usuarioId = usuarioId;
+        this.usuarioNome = usuarioNome;
+        this.usuarioFoto = usuarioFoto;
+        this.temaId = temaId;
+        this.temaDescricao = temaDescricao;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public void setTexto(String texto) {
+        this.texto = texto;
+    }
+
+    public LocalDateTime getData() {
+        return data;
+    }
+
+    public void setData(LocalDateTime data) {
+        this.data = data;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getUsuarioNome() {
+        return usuarioNome;
+    }
+
+    public void setUsuarioNome(String usuarioNome) {
+        this.usuarioNome = usuarioNome;
+    }
+
+    public String getUsuarioFoto() {
+        return usuarioFoto;
+    }
+
+    public void setUsuarioFoto(String usuarioFoto) {
+        this.usuarioFoto = usuarioFoto;
+    }
+
+    public Long getTemaId() {
+        return temaId;
+    }
+
+    public void setTemaId(Long temaId) {
+        this.temaId = temaId;
+    }
+
+    public String getTemaDescricao() {
+        return temaDescricao;
+    }
+
+    public void setTemaDescricao(String temaDescricao) {
+        this.temaDescricao = temaDescricao;
+    }
+}
@@ -0,0 +1,86 @@
+package nilton.acelera.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RelatorioImportacaoDTO {
+
+    // Só as primeiras mensagens de erro são guardadas, para o relatório não crescer com o arquivo
+    public static final int MAXIMO_ERROS = 100;
+
+    private long linhasLidas;
+    private long inseridas;
+    private long rejeitadas;
+    private long lotes;
+    private long duracaoMs;
+    private double linhasPorSegundo;
+    private List<String> erros = new ArrayList<>();
+
+    public void registrarErro(long linha, String mensagem) {
+        rejeitadas++;
+        if (erros.size() < MAXIMO_ERROS) {
+            erros.add("linha " + linha + ": " + mensagem);
+        }
+    }
+
+    public void finalizar(long duracaoNanos) {
+        this.duracaoMs = duracaoNanos / 1_000_000;
+        this.linhasPorSegundo = duracaoNanos == 0 ? 0 : inseridas * 1_000_000_000d / duracaoNanos;
+    }
+
+    public long getLinhasLidas() {
+        return linhasLidas;
+    }
+
+    public void setLinhasLidas(long linhasLidas) {
+        this.linhasLidas = linhasLidas;
+    }
+
+    public long getInseridas() {
+        return inseridas;
+    }
+
+    public void setInseridas(long inseridas) {
+        this.inseridas = inseridas;
+    }
+
+    public long getRejeitadas() {
+        return rejeitadas;
+    }
+
+    public void setRejeitadas(long rejeitadas) {
+        this.rejeitadas = rejeitadas;
+    }
+
+    public long getLotes() {
+        return lotes;
+    }
+
+    public void setLotes(long lotes) {
+        this.lotes = lotes;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public void setDuracaoMs(long duracaoMs) {
+        this.duracaoMs = duracaoMs;
+    }
+
+    public double getLinhasPorSegundo() {
+        return linhasPorSegundo;
+    }
+
+    public void setLinhasPorSegundo(double linhasPorSegundo) {
+        this.linhasPorSegundo = linhasPorSegundo;
+    }
+
+    public List<String> getErros() {
+        return erros;
+    }
+
+    public void setErros(List<String> erros) {
+        this.erros = erros;
+    }
+}
@@ -0,0 +1,17 @@
+package nilton.acelera.demo.dto;
+
+public class RenovacaoTokenDTO {
+
+    private String tokenRenovacao;
+
+    public RenovacaoTokenDTO() {
+    }
+
+    public String getTokenRenovacao() {
+        return tokenRenovacao;
+    }
+
+    public void setTokenRenovacao(String tokenRenovacao) {
+        this.tokenRenovacao = tokenRenovacao;
+    }
+}
@@ -0,0 +1,57 @@
+package nilton.acelera.demo.dto;
+
+public class StatusCriacaoDTO {
+
+    public enum Situacao {
+        PENDENTE,
+        CRIADA,
+        FALHOU
+    }
+
+    private String rastreio;
+    private Situacao situacao;
+    private Long postagemId;
+    private String erro;
+
+    public StatusCriacaoDTO() {
+    }
+
+    public StatusCriacaoDTO(String rastreio, Situacao situacao, Long postagemId, String erro) {
+        this.rastreio = rastreio;
+        this.situacao = situacao;
+        this.postagemId = postagemId;
+        this.erro = erro;
+    }
+
+    public String getRastreio() {
+        return rastreio;
+    }
+
+    public void setRastreio(String rastreio) {
+        this.rastreio = rastreio;
+    }
+
+    public Situacao getSituacao() {
+        return situacao;
+    }
+
+    public void setSituacao(Situacao situacao) {
+        this.situacao = situacao;
+    }
+
+    public Long getPostagemId() {
+        return postagemId;
+    }
+
+    public void setPostagemId(Long postagemId) {
+        this.postagemId = postagemId;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public void setErro(String erro) {
+        this.erro = erro;
+    }
+}
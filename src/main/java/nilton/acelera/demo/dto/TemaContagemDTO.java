@@ -0,0 +1,41 @@
+package nilton.acelera.demo.dto;
+
+public class TemaContagemDTO {
+
+    private Long id;
+    private String descricao;
+    private long totalPostagens;
+
+    public TemaContagemDTO() {
+    }
+
+    public TemaContagemDTO(Long id, String descricao, long totalPostagens) {
+        this.id = id;
+        this.descricao = descricao;
+        this.totalPostagens = totalPostagens;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public long getTotalPostagens() {
+        return totalPostagens;
+    }
+
+    public void setTotalPostagens(long totalPostagens) {
+        this.totalPostagens = totalPostagens;
+    }
+}
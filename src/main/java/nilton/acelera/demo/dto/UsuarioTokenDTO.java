@@ -8,6 +8,7 @@ public class UsuarioTokenDTO {
     private String foto;
     private String token;
     private String tipo; 
+    private String tokenRenovacao;
 
     public UsuarioTokenDTO() {
     }
@@ -65,4 +66,10 @@ public class UsuarioTokenDTO {
     public void setTipo(String tipo) {
         this.tipo = tipo;
     }
+    public String getTokenRenovacao() {
+        return tokenRenovacao;
+    }
+    public void setTokenRenovacao(String tokenRenovacao) {
+        this.tokenRenovacao = tokenRenovacao;
+    }
 }
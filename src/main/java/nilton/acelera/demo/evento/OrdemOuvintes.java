@@ -0,0 +1,15 @@
+package nilton.acelera.demo.evento;
+
+import org.springframework.core.Ordered;
+
+// Ordem dos ouvintes de eventos de escrita (@Order nos métodos @TransactionalEventListener).
+// As estruturas em memória precisam estar atualizadas antes de a versão dos recursos mudar; senão uma leitura
+// entre os dois passos guardaria a resposta antiga sob a ETag nova.
+public final class OrdemOuvintes {
+
+    public static final int MODELOS_DE_LEITURA = 0;
+    public static final int VERSOES = Ordered.LOWEST_PRECEDENCE;
+
+    private OrdemOuvintes() {
+    }
+}
@@ -0,0 +1,75 @@
+package nilton.acelera.demo.evento;
+
+import nilton.acelera.demo.model.Postagem;
+
+// Publicado em toda escrita de postagem (service ou controller).
+// Os ouvintes usam @TransactionalEventListener, então só reagem depois do commit.
+public class PostagemEvento {
+
+    public enum Tipo {
+        CRIADA,
+        ATUALIZADA,
+        REMOVIDA
+    }
+
+    private final Tipo tipo;
+    private final Postagem postagem;
+    // Tema antes da atualização (igual ao atual quando o tema não mudou; nulo para CRIADA/REMOVIDA)
+    private final Long temaAnteriorId;
+    // Escrita feita por outra instância, lida do registro de alterações (já persistida lá)
+    private final boolean remoto;
+    // Código de rastreio da criação assíncrona (nulo nas demais escritas)
+    private final String rastreio;
+
+    private PostagemEvento(Tipo tipo, Postagem postagem, Long temaAnteriorId, boolean remoto) {
+        this(tipo, postagem, temaAnteriorId, remoto, null);
+    }
+
+    private PostagemEvento(Tipo tipo, Postagem postagem, Long temaAnteriorId, boolean remoto, String rastreio) {
+        this.tipo = tipo;
+        this.postagem = postagem;
+        this.temaAnteriorId = temaAnteriorId;
+        this.remoto = remoto;
+        this.rastreio = rastreio;
+    }
+
+    public static PostagemEvento criada(Postagem postagem) {
+        return new PostagemEvento(Tipo.CRIADA, postagem, null, false);
+    }
+
+    public static PostagemEvento criadaNaFila(Postagem postagem, String rastreio) {
+        return new PostagemEvento(Tipo.CRIADA, postagem, null, false, rastreio);
+    }
+
+    public static PostagemEvento atualizada(Postagem postagem, Long temaAnteriorId) {
+        return new PostagemEvento(Tipo.ATUALIZADA, postagem, temaAnteriorId, false);
+    }
+
+    public static PostagemEvento removida(Postagem postagem) {
+        return new PostagemEvento(Tipo.REMOVIDA, postagem, null, false);
+    }
+
+    public static PostagemEvento remoto(Tipo tipo, Postagem postagem, Long temaAnteriorId) {
+        return new PostagemEvento(tipo, postagem, temaAnteriorId, true);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Postagem getPostagem() {
+        return postagem;
+    }
+
+    public Long getTemaAnteriorId() {
+        return temaAnteriorId;
+    }
+
+    public boolean isRemoto() {
+        return remoto;
+    }
+
+    public String getRastreio() {
+        return rastreio;
+    }
+}
@@ -0,0 +1,40 @@
+package nilton.acelera.demo.evento;
+
+import nilton.acelera.demo.model.Tema;
+
+// Publicado em toda escrita de tema (service ou controller); tratado após o commit.
+public class TemaEvento {
+
+    public enum Tipo {
+        CRIADO,
+        ATUALIZADO,
+        REMOVIDO
+    }
+
+    private final Tipo tipo;
+    private final Tema tema;
+    // Escrita de outra instância (ver PostagemEvento)
+    private final boolean remoto;
+
+    public TemaEvento(Tipo tipo, Tema tema) {
+        this(tipo, tema, false);
+    }
+
+    public TemaEvento(Tipo tipo, Tema tema, boolean remoto) {
+        this.tipo = tipo;
+        this.tema = tema;
+        this.remoto = remoto;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Tema getTema() {
+        return tema;
+    }
+
+    public boolean isRemoto() {
+        return remoto;
+    }
+}
@@ -0,0 +1,58 @@
+package nilton.acelera.demo.evento;
+
+import nilton.acelera.demo.model.Usuario;
+
+// Publicado em toda escrita de usuário; tratado após o commit.
+public class UsuarioEvento {
+
+    public enum Tipo {
+        CADASTRADO,
+        ATUALIZADO,
+        REMOVIDO
+    }
+
+    private final Tipo tipo;
+    private final Usuario usuario;
+    // Login antes da atualização (igual ao atual quando não mudou; nulo para CADASTRADO/REMOVIDO)
+    private final String usuarioAnterior;
+    // ATUALIZADO com senha nova informada (não se compara com a anterior, que exigiria outro BCrypt)
+    private final boolean senhaAlterada;
+    // Escrita de outra instância; o usuário vem só com id e login (ver PostagemEvento)
+    private final boolean remoto;
+
+    public UsuarioEvento(Tipo tipo, Usuario usuario, String usuarioAnterior) {
+        this(tipo, usuario, usuarioAnterior, false);
+    }
+
+    public UsuarioEvento(Tipo tipo, Usuario usuario, String usuarioAnterior, boolean remoto) {
+        this(tipo, usuario, usuarioAnterior, false, remoto);
+    }
+
+    public UsuarioEvento(Tipo tipo, Usuario usuario, String usuarioAnterior, boolean senhaAlterada, boolean remoto) {
+        this.tipo = tipo;
+        this.usuario = usuario;
+        this.usuarioAnterior = usuarioAnterior;
+        this.senhaAlterada = senhaAlterada;
+        this.remoto = remoto;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Usuario getUsuario() {
+        return usuario;
+    }
+
+    public String getUsuarioAnterior() {
+        return usuarioAnterior;
+    }
+
+    public boolean isSenhaAlterada() {
+        return senhaAlterada;
+    }
+
+    public boolean isRemoto() {
+        return remoto;
+    }
+}
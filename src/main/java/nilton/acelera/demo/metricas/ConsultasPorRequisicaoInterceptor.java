@@ -0,0 +1,47 @@
+package nilton.acelera.demo.metricas;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Publica "blog.consultas.por.requisicao" (quantos SQLs cada endpoint executou), por padrão de URI.
+// Só conta o que roda na thread da requisição: a gravação assíncrona e os @Scheduled ficam de fora.
+@Component
+public class ConsultasPorRequisicaoInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry registro;
+    private final Map<String, DistributionSummary> porUri = new ConcurrentHashMap<>();
+
+    public ConsultasPorRequisicaoInterceptor(MeterRegistry registro) {
+        this.registro = registro;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ContadorConsultas.zerar();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = padrao == null ? "DESCONHECIDA" : padrao.toString();
+        porUri.computeIfAbsent(request.getMethod() + ' ' + uri, chave -> DistributionSummary
+                .builder("blog.consultas.por.requisicao")
+                .description("Comandos SQL executados pela requisição")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(100.0)
+                .register(registro))
+            .record(ContadorConsultas.total());
+    }
+}
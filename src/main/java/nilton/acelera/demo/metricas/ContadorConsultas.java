@@ -0,0 +1,24 @@
+package nilton.acelera.demo.metricas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// StatementInspector do Hibernate que só conta os SQLs preparados na thread atual (não altera o SQL).
+// ConsultasPorRequisicaoInterceptor zera no início da requisição e publica o total no fim.
+public class ContadorConsultas implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTAGEM = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        CONTAGEM.get()[0]++;
+        return sql;
+    }
+
+    static void zerar() {
+        CONTAGEM.get()[0] = 0;
+    }
+
+    static int total() {
+        return CONTAGEM.get()[0];
+    }
+}
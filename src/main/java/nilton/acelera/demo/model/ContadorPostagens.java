@@ -0,0 +1,75 @@
+package nilton.acelera.demo.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+
+// Total de postagens por tema ou por usuário. Mantido incrementalmente por ContadoresPostagens;
+// a entidade existe para o Hibernate criar a tabela (ddl-auto) e para a recontagem completa.
+@Entity
+@Table(name = "contadores_postagens")
+@IdClass(ContadorPostagens.Chave.class)
+public class ContadorPostagens {
+
+    public enum Escopo {
+        TEMA,
+        USUARIO
+    }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private Escopo escopo;
+
+    @Id
+    @Column(name = "referencia_id")
+    private Long referenciaId;
+
+    @Column(nullable = false)
+    private Long total;
+
+    public ContadorPostagens() {
+    }
+
+    public ContadorPostagens(Escopo escopo, Long referenciaId, Long total) {
+        this.escopo = escopo;
+        this.referenciaId = referenciaId;
+        this.total = total;
+    }
+
+    public Escopo getEscopo() { return escopo; }
+    public void setEscopo(Escopo escopo) { this.escopo = escopo; }
+
+    public Long getReferenciaId() { return referenciaId; }
+    public void setReferenciaId(Long referenciaId) { this.referenciaId = referenciaId; }
+
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+
+    public static class Chave implements Serializable {
+
+        private Escopo escopo;
+        private Long referenciaId;
+
+        public Chave() {
+        }
+
+        public Chave(Escopo escopo, Long referenciaId) {
+            this.escopo = escopo;
+            this.referenciaId = referenciaId;
+        }
+
+        @Override
+        public boolean equals(Object outro) {
+            if (this == outro) return true;
+            if (!(outro instanceof Chave chave)) return false;
+            return escopo == chave.escopo && Objects.equals(referenciaId, chave.referenciaId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(escopo, referenciaId);
+        }
+    }
+}
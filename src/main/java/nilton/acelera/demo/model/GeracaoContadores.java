@@ -0,0 +1,32 @@
+package nilton.acelera.demo.model;
+
+import jakarta.persistence.*;
+
+// Geração da última recontagem dos contadores de postagens (linha única). Escritas de postagem e gravações de
+// deltas a leem com trava compartilhada; a recontagem a incrementa com trava exclusiva (ver ContadoresPostagens).
+@Entity
+@Table(name = "contadores_geracao")
+public class GeracaoContadores {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long geracao;
+
+    public GeracaoContadores() {
+    }
+
+    public GeracaoContadores(Integer id, Long geracao) {
+        this.id = id;
+        this.geracao = geracao;
+    }
+
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public Long getGeracao() { return geracao; }
+    public void setGeracao(Long geracao) { this.geracao = geracao; }
+}
@@ -4,24 +4,41 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 
 
 @Entity
-@Table(name = "postagens") 
+@Table(name = "postagens", indexes = {
+    // Índices que sustentam a paginação por cursor (ORDER BY data_criacao DESC, id DESC)
+    @Index(name = "idx_postagens_data_id", columnList = "data_criacao, id"),
+    @Index(name = "idx_postagens_tema_data_id", columnList = "tema_id, data_criacao, id"),
+    @Index(name = "idx_postagens_usuario_data_id", columnList = "usuario_id, data_criacao, id")
+})
+// Autor e tema no mesmo SELECT das listagens de entidades (sem isso, um SELECT a mais por autor/tema fora do cache)
+@NamedEntityGraph(name = Postagem.COM_AUTOR_E_TEMA,
+    attributeNodes = { @NamedAttributeNode("usuario"), @NamedAttributeNode("tema") })
 public class Postagem {
+
+    public static final String COM_AUTOR_E_TEMA = "Postagem.comAutorETema";
+
+    // Tamanhos das colunas; quem grava sem passar pelo INSERT síncrono (fila, importação) valida antes
+    public static final int TAMANHO_MAXIMO_TITULO = 100;
+    public static final int TAMANHO_MAXIMO_TEXTO = 1000;
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(nullable = false, length = 100) 
+    @Column(nullable = false, length = TAMANHO_MAXIMO_TITULO)
     private String titulo;
     
-    @Column(nullable = false, length = 1000)
+    @Column(nullable = false, length = TAMANHO_MAXIMO_TEXTO)
     private String texto;
     
+    // Definida pelo servidor: é a chave do cursor de paginação, então o cliente não pode anulá-la nem escolhê-la
     @Column(name = "data_criacao")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private LocalDateTime data = LocalDateTime.now(); 
     
     @ManyToOne
@@ -38,6 +55,13 @@ public class Postagem {
 
     } 
 
+    @PrePersist
+    private void definirData() {
+        if (data == null) {
+            data = LocalDateTime.now();
+        }
+    }
+
     public Postagem(String titulo, String texto, Usuario usuario, Tema tema) {
         this.titulo = titulo;
         this.texto = texto;
@@ -0,0 +1,100 @@
+package nilton.acelera.demo.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+// Uma linha por escrita de postagem, tema ou usuário, gravada na mesma transação da escrita.
+// As outras instâncias leem a tabela em ordem de id (LeitorAlteracoes) para atualizar seus caches.
+// Só vão as chaves que os caches precisam; o conteúdo, quando preciso, é relido das tabelas de origem.
+@Entity
+@Table(name = "registro_alteracoes", indexes = {
+    @Index(name = "idx_registro_alteracoes_criado_em", columnList = "criado_em"),
+    @Index(name = "idx_registro_alteracoes_rastreio", columnList = "rastreio")
+})
+public class RegistroAlteracao {
+
+    public enum Entidade {
+        POSTAGEM,
+        TEMA,
+        USUARIO
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Instância que fez a escrita (ela mesma ignora a linha ao ler)
+    @Column(nullable = false, length = 36)
+    private String instancia;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Entidade entidade;
+
+    // Nome do Tipo do evento (CRIADA, ATUALIZADO, REMOVIDO...)
+    @Column(nullable = false, length = 12)
+    private String tipo;
+
+    @Column(name = "referencia_id", nullable = false)
+    private Long referenciaId;
+
+    // Postagem: tema e autor no momento da escrita (a linha pode não existir mais quando for lida)
+    @Column(name = "tema_id")
+    private Long temaId;
+
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(name = "tema_anterior_id")
+    private Long temaAnteriorId;
+
+    // Usuário: login atual e anterior
+    private String login;
+
+    @Column(name = "login_anterior")
+    private String loginAnterior;
+
+    // Postagem criada pela fila assíncrona: código de rastreio, consultável em qualquer instância
+    @Column(length = 36)
+    private String rastreio;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getInstancia() { return instancia; }
+    public void setInstancia(String instancia) { this.instancia = instancia; }
+
+    public Entidade getEntidade() { return entidade; }
+    public void setEntidade(Entidade entidade) { this.entidade = entidade; }
+
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+
+    public Long getReferenciaId() { return referenciaId; }
+    public void setReferenciaId(Long referenciaId) { this.referenciaId = referenciaId; }
+
+    public Long getTemaId() { return temaId; }
+    public void setTemaId(Long temaId) { this.temaId = temaId; }
+
+    public Long getUsuarioId() { return usuarioId; }
+    public void setUsuarioId(Long usuarioId) { this.usuarioId = usuarioId; }
+
+    public Long getTemaAnteriorId() { return temaAnteriorId; }
+    public void setTemaAnteriorId(Long temaAnteriorId) { this.temaAnteriorId = temaAnteriorId; }
+
+    public String getLogin() { return login; }
+    public void setLogin(String login) { this.login = login; }
+
+    public String getLoginAnterior() { return loginAnterior; }
+    public void setLoginAnterior(String loginAnterior) { this.loginAnterior = loginAnterior; }
+
+    public String getRastreio() { return rastreio; }
+    public void setRastreio(String rastreio) { this.rastreio = rastreio; }
+
+    public LocalDateTime getCriadoEm() { return criadoEm; }
+    public void setCriadoEm(LocalDateTime criadoEm) { this.criadoEm = criadoEm; }
+}
@@ -2,8 +2,12 @@ package nilton.acelera.demo.model;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -14,6 +18,8 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table (name = "Temas")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "temas")
 public class Tema {
     @Id
     @GeneratedValue (strategy = GenerationType.IDENTITY)
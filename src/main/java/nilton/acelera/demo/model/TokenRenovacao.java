@@ -0,0 +1,40 @@
+package nilton.acelera.demo.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+// Token de renovação (refresh token). Só o hash SHA-256 é gravado; o token em si fica com o cliente.
+// Cada token é de uso único: ao renovar, a linha é apagada e outra é criada (rotação).
+@Entity
+@Table(name = "tokens_renovacao", indexes = @Index(name = "idx_tokens_renovacao_usuario", columnList = "usuario_id"))
+public class TokenRenovacao {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    public TokenRenovacao() {
+    }
+
+    public TokenRenovacao(String hash, Long usuarioId, LocalDateTime expiraEm) {
+        this.hash = hash;
+        this.usuarioId = usuarioId;
+        this.expiraEm = expiraEm;
+    }
+
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+
+    public Long getUsuarioId() { return usuarioId; }
+    public void setUsuarioId(Long usuarioId) { this.usuarioId = usuarioId; }
+
+    public LocalDateTime getExpiraEm() { return expiraEm; }
+    public void setExpiraEm(LocalDateTime expiraEm) { this.expiraEm = expiraEm; }
+}
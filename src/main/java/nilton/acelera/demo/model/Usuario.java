@@ -5,6 +5,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,6 +19,9 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "usuarios")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
+@NaturalIdCache(region = "usuarios-login")
 public class Usuario implements UserDetails {
 
     @Id
@@ -23,6 +30,9 @@ public class Usuario implements UserDetails {
 
     private String nome;
 
+    // Natural id: login -> id em cache ("usuarios-login"); mutável porque o login pode ser alterado.
+    // A chave única que ele gera também serve de índice para as buscas por login
+    @NaturalId(mutable = true)
     private String usuario;
 
     private String senha;
@@ -0,0 +1,30 @@
+package nilton.acelera.demo.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import nilton.acelera.demo.model.ContadorPostagens;
+
+public interface ContadorPostagensRepository extends JpaRepository<ContadorPostagens, ContadorPostagens.Chave> {
+
+    // Soma um delta ao contador, criando a linha se ainda não existir
+    @Modifying
+    @Query(value = "INSERT INTO contadores_postagens (escopo, referencia_id, total) VALUES (:escopo, :referenciaId, :delta) "
+            + "ON DUPLICATE KEY UPDATE total = total + :delta", nativeQuery = true)
+    void somar(@Param("escopo") String escopo, @Param("referenciaId") Long referenciaId, @Param("delta") long delta);
+
+    // Releitura dos totais gravados, depois de deltas aplicados por outras instâncias
+    List<ContadorPostagens> findByEscopoAndReferenciaIdIn(ContadorPostagens.Escopo escopo, Collection<Long> referenciaIds);
+
+    // Recontagem completa a partir de postagens: [id, total]
+    @Query("SELECT p.tema.id, COUNT(p) FROM Postagem p GROUP BY p.tema.id")
+    List<Object[]> contarPorTema();
+
+    @Query("SELECT p.usuario.id, COUNT(p) FROM Postagem p GROUP BY p.usuario.id")
+    List<Object[]> contarPorUsuario();
+}
@@ -0,0 +1,23 @@
+package nilton.acelera.demo.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import jakarta.persistence.LockModeType;
+import nilton.acelera.demo.model.GeracaoContadores;
+
+public interface GeracaoContadoresRepository extends JpaRepository<GeracaoContadores, Integer> {
+
+    // Escritas de postagem e gravação dos deltas: FOR SHARE no MySQL, segura até o commit
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT g FROM GeracaoContadores g WHERE g.id = " + GeracaoContadores.ID)
+    Optional<GeracaoContadores> lerCompartilhada();
+
+    // Recontagem: espera as transações com a trava compartilhada e barra as novas até o commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM GeracaoContadores g WHERE g.id = " + GeracaoContadores.ID)
+    Optional<GeracaoContadores> lerExclusiva();
+}
@@ -0,0 +1,56 @@
+package nilton.acelera.demo.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import nilton.acelera.demo.dto.PostagemImportacaoDTO;
+
+// Inserção de postagens em lote via JDBC.
+// Com GenerationType.IDENTITY o Hibernate não agrupa INSERTs; aqui vai um único executeBatch por lote, que o
+// driver do MySQL reescreve em INSERT multi-linha quando a URL tem rewriteBatchedStatements=true.
+@Repository
+public class PostagemLoteRepository {
+
+    private static final String INSERT =
+        "INSERT INTO postagens (titulo, texto, data_criacao, usuario_id, tema_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostagemLoteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Deve ser chamado dentro de uma transação, com as postagens já validadas e com data preenchida.
+    // Devolve os ids gerados na mesma ordem da lista.
+    public long[] inserir(List<PostagemImportacaoDTO> postagens) {
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) conexao -> {
+            try (PreparedStatement comando = conexao.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                for (PostagemImportacaoDTO postagem : postagens) {
+                    comando.setString(1, postagem.getTitulo());
+                    comando.setString(2, postagem.getTexto());
+                    comando.setTimestamp(3, Timestamp.valueOf(postagem.getData()));
+                    comando.setLong(4, postagem.getUsuarioId());
+                    comando.setLong(5, postagem.getTemaId());
+                    comando.addBatch();
+                }
+                comando.executeBatch();
+
+                long[] ids = new long[postagens.size()];
+                try (ResultSet chaves = comando.getGeneratedKeys()) {
+                    int i = 0;
+                    while (chaves.next() && i < ids.length) {
+                        ids[i++] = chaves.getLong(1);
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+}
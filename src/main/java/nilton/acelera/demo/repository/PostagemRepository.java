@@ -1,28 +1,133 @@
 package nilton.acelera.demo.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import nilton.acelera.demo.dto.EntradaLinhaDoTempoDTO;
+import nilton.acelera.demo.dto.PostagemResumoDTO;
 import nilton.acelera.demo.model.Postagem;
 
+// As listagens que devolvem a entidade trazem autor e tema na mesma consulta: pelo grafo Postagem.COM_AUTOR_E_TEMA
+// nas listas sem ordem e por SELECT_POSTAGEM (LEFT JOIN FETCH) nas páginas por cursor.
 public interface PostagemRepository extends JpaRepository<Postagem, Long> {
 
     // Busca por título (case insensitive)
+    @EntityGraph(Postagem.COM_AUTOR_E_TEMA)
     List<Postagem> findAllByTituloContainingIgnoreCase(String titulo);
 
     // Busca por descrição do tema (case insensitive)
+    @EntityGraph(Postagem.COM_AUTOR_E_TEMA)
     List<Postagem> findAllByTemaDescricaoContainingIgnoreCase(String descricao);
 
     // Busca por nome do usuário (case insensitive)
+    @EntityGraph(Postagem.COM_AUTOR_E_TEMA)
     List<Postagem> findAllByUsuarioNomeContainingIgnoreCase(String nome);
 
     // Busca por ID do tema
+    @EntityGraph(Postagem.COM_AUTOR_E_TEMA)
     List<Postagem> findByTemaId(Long temaId);
 
+    // Existe ao menos uma postagem no tema (LIMIT 1, sem carregar linhas)
+    boolean existsByTemaId(Long temaId);
+
     // Busca por ID do usuário
+    @EntityGraph(Postagem.COM_AUTOR_E_TEMA)
     List<Postagem> findByUsuarioId(Long usuarioId);
 
     // Busca por ID do usuário e do tema
+    @EntityGraph(Postagem.COM_AUTOR_E_TEMA)
     List<Postagem> findByUsuarioIdAndTemaId(Long usuarioId, Long temaId);
-}
\ No newline at end of file
+
+    // Paginação por cursor (keyset): sempre ordenado por data_criacao e id decrescentes.
+    // O Pageable só é usado para o LIMIT; a posição vem do cursor (data, id) da última linha da página anterior.
+    // LEFT JOIN FETCH, e não o grafo: com usuario_id e tema_id obrigatórios o grafo vira INNER JOIN, e o otimizador
+    // pode começar pela tabela menor (temas) e ordenar todas as postagens. Junção externa fixa postagens à
+    // esquerda, percorrida pelo índice de (data_criacao, id) até o LIMIT.
+
+    String SELECT_POSTAGEM = "SELECT p FROM Postagem p LEFT JOIN FETCH p.usuario LEFT JOIN FETCH p.tema ";
+
+    String POR_TITULO = "LOWER(p.titulo) LIKE LOWER(CONCAT('%', :titulo, '%')) ";
+
+    @Query(SELECT_POSTAGEM + ORDEM_FEED)
+    List<Postagem> buscarPrimeiraPagina(Pageable limite);
+
+    @Query(SELECT_POSTAGEM + "WHERE " + APOS_CURSOR + ORDEM_FEED)
+    List<Postagem> buscarPaginaApos(@Param("data") LocalDateTime data, @Param("id") Long id, Pageable limite);
+
+    @Query(SELECT_POSTAGEM + "WHERE " + POR_TITULO + ORDEM_FEED)
+    List<Postagem> buscarPrimeiraPaginaPorTitulo(@Param("titulo") String titulo, Pageable limite);
+
+    @Query(SELECT_POSTAGEM + "WHERE " + POR_TITULO + "AND " + APOS_CURSOR + ORDEM_FEED)
+    List<Postagem> buscarPaginaPorTituloApos(@Param("titulo") String titulo, @Param("data") LocalDateTime data,
+            @Param("id") Long id, Pageable limite);
+
+    @Query(SELECT_POSTAGEM + "WHERE p.tema.id = :temaId " + ORDEM_FEED)
+    List<Postagem> buscarPrimeiraPaginaPorTema(@Param("temaId") Long temaId, Pageable limite);
+
+    @Query(SELECT_POSTAGEM + "WHERE p.tema.id = :temaId AND " + APOS_CURSOR + ORDEM_FEED)
+    List<Postagem> buscarPaginaPorTemaApos(@Param("temaId") Long temaId, @Param("data") LocalDateTime data,
+            @Param("id") Long id, Pageable limite);
+
+    @Query(SELECT_POSTAGEM + "WHERE p.usuario.id = :usuarioId " + ORDEM_FEED)
+    List<Postagem> buscarPrimeiraPaginaPorUsuario(@Param("usuarioId") Long usuarioId, Pageable limite);
+
+    @Query(SELECT_POSTAGEM + "WHERE p.usuario.id = :usuarioId AND " + APOS_CURSOR + ORDEM_FEED)
+    List<Postagem> buscarPaginaPorUsuarioApos(@Param("usuarioId") Long usuarioId, @Param("data") LocalDateTime data,
+            @Param("id") Long id, Pageable limite);
+
+    // Projeções de leitura: um único SELECT com JOIN em usuario e tema, sem carregar entidades. LEFT JOIN pelo mesmo
+    // motivo de SELECT_POSTAGEM.
+
+    String SELECT_RESUMO = "SELECT new nilton.acelera.demo.dto.PostagemResumoDTO("
+            + "p.id, p.titulo, p.texto, p.data, u.id, u.nome, u.foto, t.id, t.descricao) "
+            + "FROM Postagem p LEFT JOIN p.usuario u LEFT JOIN p.tema t ";
+
+    String APOS_CURSOR = "(p.data < :data OR (p.data = :data AND p.id < :id)) ";
+
+    String ORDEM_FEED = "ORDER BY p.data DESC, p.id DESC";
+
+    @Query(SELECT_RESUMO + ORDEM_FEED)
+    List<PostagemResumoDTO> buscarResumosPrimeiraPagina(Pageable limite);
+
+    @Query(SELECT_RESUMO + "WHERE " + APOS_CURSOR + ORDEM_FEED)
+    List<PostagemResumoDTO> buscarResumosApos(@Param("data") LocalDateTime data, @Param("id") Long id,
+            Pageable limite);
+
+    @Query(SELECT_RESUMO + "WHERE t.id = :temaId " + ORDEM_FEED)
+    List<PostagemResumoDTO> buscarResumosPrimeiraPaginaPorTema(@Param("temaId") Long temaId, Pageable limite);
+
+    @Query(SELECT_RESUMO + "WHERE t.id = :temaId AND " + APOS_CURSOR + ORDEM_FEED)
+    List<PostagemResumoDTO> buscarResumosPorTemaApos(@Param("temaId") Long temaId,
+            @Param("data") LocalDateTime data, @Param("id") Long id, Pageable limite);
+
+    @Query(SELECT_RESUMO + "WHERE u.id = :usuarioId " + ORDEM_FEED)
+    List<PostagemResumoDTO> buscarResumosPrimeiraPaginaPorUsuario(@Param("usuarioId") Long usuarioId,
+            Pageable limite);
+
+    @Query(SELECT_RESUMO + "WHERE u.id = :usuarioId AND " + APOS_CURSOR + ORDEM_FEED)
+    List<PostagemResumoDTO> buscarResumosPorUsuarioApos(@Param("usuarioId") Long usuarioId,
+            @Param("data") LocalDateTime data, @Param("id") Long id, Pageable limite);
+
+    @Query(SELECT_RESUMO + "WHERE u.id = :usuarioId AND t.id = :temaId " + ORDEM_FEED)
+    List<PostagemResumoDTO> buscarResumosPrimeiraPaginaPorUsuarioETema(@Param("usuarioId") Long usuarioId,
+            @Param("temaId") Long temaId, Pageable limite);
+
+    @Query(SELECT_RESUMO + "WHERE p.id IN :ids " + ORDEM_FEED)
+    List<PostagemResumoDTO> buscarResumosPorIds(@Param("ids") List<Long> ids);
+
+    // Varredura por id crescente em lotes (reconstrução de estruturas em memória)
+    @Query(SELECT_RESUMO + "WHERE p.id > :id ORDER BY p.id")
+    List<PostagemResumoDTO> buscarResumosComIdMaiorQue(@Param("id") Long id, Pageable limite);
+
+
+    // Postagens mais recentes de um autor, só com id/data/tema (linha do tempo em memória)
+    @Query("SELECT new nilton.acelera.demo.dto.EntradaLinhaDoTempoDTO(p.id, p.data, p.tema.id) "
+            + "FROM Postagem p WHERE p.usuario.id = :usuarioId " + ORDEM_FEED)
+    List<EntradaLinhaDoTempoDTO> buscarEntradasLinhaDoTempo(@Param("usuarioId") Long usuarioId, Pageable limite);
+}
@@ -0,0 +1,40 @@
+package nilton.acelera.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import nilton.acelera.demo.model.RegistroAlteracao;
+
+public interface RegistroAlteracaoRepository extends JpaRepository<RegistroAlteracao, Long> {
+
+    // Próximo lote a partir do cursor, pela chave primária
+    List<RegistroAlteracao> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
+    // Ids pulados em leituras anteriores (transação que ainda não tinha feito commit)
+    List<RegistroAlteracao> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    // Entidades alteradas (por qualquer instância) a partir de um instante; usa o índice em criado_em
+    @Query("SELECT DISTINCT r.referenciaId FROM RegistroAlteracao r WHERE r.entidade = :entidade AND r.criadoEm >= :desde")
+    List<Long> referenciasAlteradasDesde(@Param("entidade") RegistroAlteracao.Entidade entidade,
+            @Param("desde") LocalDateTime desde);
+
+    // Criação assíncrona feita por qualquer instância, pelo código de rastreio
+    Optional<RegistroAlteracao> findFirstByRastreio(String rastreio);
+
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM RegistroAlteracao r")
+    long ultimoId();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RegistroAlteracao r WHERE r.criadoEm < :instante")
+    int apagarAnteriores(@Param("instante") LocalDateTime instante);
+}
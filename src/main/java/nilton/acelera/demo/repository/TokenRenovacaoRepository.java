@@ -0,0 +1,36 @@
+package nilton.acelera.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import nilton.acelera.demo.model.TokenRenovacao;
+
+public interface TokenRenovacaoRepository extends JpaRepository<TokenRenovacao, String> {
+
+    List<TokenRenovacao> findByExpiraEmAfter(LocalDateTime instante);
+
+    // Retorna 0 quando o token já foi usado (inclusive por outra instância): é o que garante o uso único
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenRenovacao t WHERE t.hash = :hash")
+    int apagar(@Param("hash") String hash);
+
+    // Chamado depois do commit da remoção do usuário (TokensRenovacao.aoAlterarUsuario): a transação original
+    // ainda está associada à thread, mas já terminou; com REQUIRED o DELETE entraria nela e falharia
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("DELETE FROM TokenRenovacao t WHERE t.usuarioId = :usuarioId")
+    int apagarDoUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenRenovacao t WHERE t.expiraEm < :instante")
+    int apagarExpirados(@Param("instante") LocalDateTime instante);
+}
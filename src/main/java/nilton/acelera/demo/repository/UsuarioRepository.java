@@ -2,9 +2,25 @@ package nilton.acelera.demo.repository;
 
 import nilton.acelera.demo.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioRepositoryPorLogin {
 
+    // Sempre vai ao banco; para leituras por login prefira buscarPorLogin (cache de segundo nível)
     Optional<Usuario> findByUsuario(String usuario);  // Ou findByEmail dependendo do seu campo
+
+    boolean existsByUsuario(String usuario);
+
+    // Só os logins, para montar o filtro de Bloom sem carregar as entidades
+    @Query("SELECT u.usuario FROM Usuario u WHERE u.usuario IS NOT NULL")
+    List<String> listarLogins();
+
+    // Validação em massa: quais destes ids existem (uma consulta por lote de importação)
+    @Query("SELECT u.id FROM Usuario u WHERE u.id IN :ids")
+    List<Long> buscarIdsExistentes(@Param("ids") Collection<Long> ids);
 }
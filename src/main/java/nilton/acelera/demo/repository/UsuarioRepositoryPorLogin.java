@@ -0,0 +1,11 @@
+package nilton.acelera.demo.repository;
+
+import java.util.Optional;
+
+import nilton.acelera.demo.model.Usuario;
+
+// Busca por login via natural id, que passa pelo cache de segundo nível (regiões "usuarios-login" e "usuarios")
+public interface UsuarioRepositoryPorLogin {
+
+    Optional<Usuario> buscarPorLogin(String usuario);
+}
@@ -0,0 +1,30 @@
+package nilton.acelera.demo.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import jakarta.persistence.EntityManagerFactory;
+import nilton.acelera.demo.model.Usuario;
+
+// Sessão própria e sem transação: num acerto de cache nenhuma conexão é tirada do pool (uma transação
+// pegaria a conexão já no início). A entidade volta desanexada, como as de CacheUsuarios.
+public class UsuarioRepositoryPorLoginImpl implements UsuarioRepositoryPorLogin {
+
+    private final SessionFactory sessionFactory;
+
+    public UsuarioRepositoryPorLoginImpl(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @Override
+    public Optional<Usuario> buscarPorLogin(String usuario) {
+        if (usuario == null) {
+            return Optional.empty();
+        }
+        try (Session sessao = sessionFactory.openSession()) {
+            return sessao.bySimpleNaturalId(Usuario.class).loadOptional(usuario);
+        }
+    }
+}
@@ -13,7 +13,7 @@ public class AutenticacaoService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String usuario) throws UsernameNotFoundException {
-        return usuarioRepository.findByUsuario(usuario)
+        return usuarioRepository.buscarPorLogin(usuario)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
     }
 }
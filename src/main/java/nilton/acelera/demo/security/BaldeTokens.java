@@ -0,0 +1,34 @@
+package nilton.acelera.demo.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket sem lock no formato GCRA: o estado inteiro é um long (instante teórico da próxima chegada),
+// atualizado por CAS. Equivale a um balde de "capacidade" fichas reabastecido a uma ficha por "intervalo".
+final class BaldeTokens {
+
+    private final AtomicLong proximaChegada;
+
+    BaldeTokens(long agora) {
+        this.proximaChegada = new AtomicLong(agora);
+    }
+
+    // Consome uma ficha. Retorna 0 se permitido, ou quantos nanos faltam para a próxima ficha.
+    long consumir(long agora, long intervaloNanos, long toleranciaNanos) {
+        while (true) {
+            long atual = proximaChegada.get();
+            long base = Math.max(atual, agora);
+            long permitidoA = base - toleranciaNanos;
+            if (agora < permitidoA) {
+                return permitidoA - agora;
+            }
+            if (proximaChegada.compareAndSet(atual, base + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // Balde cheio de novo: pode ser descartado sem mudar o comportamento
+    boolean ocioso(long agora) {
+        return proximaChegada.get() <= agora;
+    }
+}
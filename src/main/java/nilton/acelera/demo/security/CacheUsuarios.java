@@ -0,0 +1,89 @@
+package nilton.acelera.demo.security;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import nilton.acelera.demo.evento.OrdemOuvintes;
+import nilton.acelera.demo.evento.UsuarioEvento;
+import nilton.acelera.demo.model.Usuario;
+import nilton.acelera.demo.repository.UsuarioRepository;
+
+// Cache local e de vida curta dos usuários por login, para os casos que ainda precisam da entidade
+// (TokenFilter fora do modo sem estado, dono da postagem na criação/edição).
+// As entidades ficam desanexadas: servem para leitura e como referência em associações.
+@Component
+public class CacheUsuarios {
+
+    private static final class Entrada {
+        final Usuario usuario;
+        final long expiraEm;
+
+        Entrada(Usuario usuario, long expiraEm) {
+            this.usuario = usuario;
+            this.expiraEm = expiraEm;
+        }
+    }
+
+    private final UsuarioRepository usuarioRepository;
+    private final long ttlMs;
+    private final int capacidade;
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+
+    public CacheUsuarios(UsuarioRepository usuarioRepository,
+            @Value("${blog.seguranca.cache-usuarios.ttl-ms:30000}") long ttlMs,
+            @Value("${blog.seguranca.cache-usuarios.capacidade:10000}") int capacidade) {
+        this.usuarioRepository = usuarioRepository;
+        this.ttlMs = ttlMs;
+        this.capacidade = capacidade;
+    }
+
+    public Optional<Usuario> buscar(String usuario) {
+        if (usuario == null) {
+            return Optional.empty();
+        }
+        long agora = System.currentTimeMillis();
+        Entrada entrada = entradas.get(usuario);
+        if (entrada != null && entrada.expiraEm > agora) {
+            return Optional.of(entrada.usuario);
+        }
+
+        // Usuário inexistente não entra no cache: um cadastro logo em seguida precisa ser visto
+        Optional<Usuario> encontrado = usuarioRepository.buscarPorLogin(usuario);
+        if (encontrado.isPresent()) {
+            if (entradas.size() >= capacidade) {
+                entradas.values().removeIf(e -> e.expiraEm <= agora);
+                if (entradas.size() >= capacidade) {
+                    entradas.clear();
+                }
+            }
+            entradas.put(usuario, new Entrada(encontrado.get(), agora + ttlMs));
+        } else {
+            entradas.remove(usuario);
+        }
+        return encontrado;
+    }
+
+    public void invalidar(String usuario) {
+        if (usuario != null) {
+            entradas.remove(usuario);
+        }
+    }
+
+    public void limpar() {
+        entradas.clear();
+    }
+
+    // Alteração de tipo, login ou remoção não espera o TTL
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(OrdemOuvintes.MODELOS_DE_LEITURA)
+    public void aoAlterarUsuario(UsuarioEvento evento) {
+        invalidar(evento.getUsuarioAnterior());
+        invalidar(evento.getUsuario().getUsuario());
+    }
+}
@@ -4,30 +4,38 @@ package nilton.acelera.demo.security;
 
 import static org.springframework.security.config.Customizer.*;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
 import nilton.acelera.demo.security.jwt.TokenFilter;
 
+// @EnableMethodSecurity: sem ela os @PreAuthorize dos controllers são ignorados. Há dois: DELETE /usuarios/{id}
+// (só ADMIN) e PUT /usuarios/atualizar (USER ou ADMIN, ou seja, todo TipoUsuario: nada muda para quem já entrava)
 @Configuration
+@EnableMethodSecurity
 public class ConfiguracaoDeSeguranca {
 
     private final TokenFilter tokenFilter;
+    private final LimiteRequisicoesFilter limiteRequisicoesFilter;
 
-    public ConfiguracaoDeSeguranca(TokenFilter tokenFilter) {
+    public ConfiguracaoDeSeguranca(TokenFilter tokenFilter, LimiteRequisicoesFilter limiteRequisicoesFilter) {
         this.tokenFilter = tokenFilter;
+        this.limiteRequisicoesFilter = limiteRequisicoesFilter;
     }
 
     @Bean
@@ -38,8 +46,16 @@ public class ConfiguracaoDeSeguranca {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-                .requestMatchers(HttpMethod.POST, "/usuarios/login", "/usuarios/cadastrar").permitAll()
+                // Segundo despacho de uma requisição assíncrona (exportação): a autorização já foi feita no primeiro,
+                // e o TokenFilter não roda de novo para montar o usuário
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers(HttpMethod.POST, "/usuarios/login", "/usuarios/cadastrar", "/usuarios/renovar").permitAll()
+                .requestMatchers(HttpMethod.GET, "/usuarios/disponivel").permitAll()
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**").permitAll()
+                // Actuator fica na porta de gerência (management.server.port), que não é exposta pela fly.io
+                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                // Exportação da tabela inteira: só ADMIN (antes da regra aberta de GET /postagens/**)
+                .requestMatchers(HttpMethod.GET, "/postagens/exportar").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/postagens/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/temas/**").permitAll()
                 .requestMatchers(HttpMethod.POST, "/temas/**").permitAll()
@@ -47,11 +63,22 @@ public class ConfiguracaoDeSeguranca {
                 
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(tokenFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(tokenFilter, UsernamePasswordAuthenticationFilter.class)
+            // Depois do TokenFilter para já saber quem é o usuário (limite por usuário em vez de por IP)
+            .addFilterAfter(limiteRequisicoesFilter, TokenFilter.class);
 
         return http.build();
     }
 
+    // O filtro só deve rodar dentro da cadeia de segurança; sem isto o Boot também o registraria
+    // direto no Tomcat, antes da autenticação, e todo cliente seria contado por IP
+    @Bean
+    public FilterRegistrationBean<LimiteRequisicoesFilter> registroLimiteRequisicoes() {
+        FilterRegistrationBean<LimiteRequisicoesFilter> registro = new FilterRegistrationBean<>(limiteRequisicoesFilter);
+        registro.setEnabled(false);
+        return registro;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -71,8 +98,13 @@ public class ConfiguracaoDeSeguranca {
         return config.getAuthenticationManager();
     }
 
+    // BCrypt em pool próprio e limitado (ver ExecutorSenhas); custo 10 é o padrão do BCryptPasswordEncoder
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public ExecutorSenhas passwordEncoder(
+            @Value("${blog.senha.custo:10}") int custo,
+            @Value("${blog.senha.threads:1}") int threads,
+            @Value("${blog.senha.capacidade-fila:32}") int capacidadeFila,
+            @Value("${blog.senha.prazo-fila-ms:2000}") long prazoFilaMs) {
+        return new ExecutorSenhas(custo, threads, capacidadeFila, prazoFilaMs);
     }
 }
\ No newline at end of file
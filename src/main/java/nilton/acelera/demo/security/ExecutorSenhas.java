@@ -0,0 +1,172 @@
+package nilton.acelera.demo.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import jakarta.annotation.PreDestroy;
+
+// PasswordEncoder que roda o BCrypt em um pool pequeno e limitado, fora das threads do Tomcat.
+// Em rajadas de login o BCrypt ocupa no máximo "threads" núcleos e o resto da CPU fica para as leituras.
+// Fila cheia ou espera maior que o prazo = SobrecargaSenhasException (503) na hora, sem gastar CPU.
+public class ExecutorSenhas implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorSenhas.class);
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final int custo;
+    private final long prazoFilaNanos;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder operacoes = new LongAdder();
+    private final LongAdder nanosTotais = new LongAdder();
+    private final AtomicLong nanosMaximo = new AtomicLong();
+    private final LongAdder recusadas = new LongAdder();
+    private final LongAdder prazoEsgotado = new LongAdder();
+
+    public ExecutorSenhas(int custo, int threads, int capacidadeFila, long prazoFilaMs) {
+        this.custo = custo;
+        this.bcrypt = new BCryptPasswordEncoder(custo);
+        this.prazoFilaNanos = TimeUnit.MILLISECONDS.toNanos(prazoFilaMs);
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "senhas-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence senha) {
+        return executar(() -> bcrypt.encode(senha));
+    }
+
+    @Override
+    public boolean matches(CharSequence senha, String senhaCodificada) {
+        return executar(() -> bcrypt.matches(senha, senhaCodificada));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String senhaCodificada) {
+        return bcrypt.upgradeEncoding(senhaCodificada);
+    }
+
+    private <T> T executar(Callable<T> operacao) {
+        long enfileirado = System.nanoTime();
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(() -> {
+                long inicio = System.nanoTime();
+                // Quem esperou demais na fila provavelmente já desistiu: não gasta CPU com ele
+                if (inicio - enfileirado > prazoFilaNanos) {
+                    prazoEsgotado.increment();
+                    throw new SobrecargaSenhasException("Prazo da fila de senhas esgotado");
+                }
+                try {
+                    return operacao.call();
+                } finally {
+                    registrar(System.nanoTime() - inicio);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            recusadas.increment();
+            throw new SobrecargaSenhasException("Fila de senhas cheia");
+        }
+
+        try {
+            // Prazo da fila + folga para o próprio hash
+            return futuro.get(prazoFilaNanos * 2, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(false);
+            prazoEsgotado.increment();
+            throw new SobrecargaSenhasException("Prazo da fila de senhas esgotado");
+        } catch (InterruptedException e) {
+            futuro.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new SobrecargaSenhasException("Hash de senha interrompido");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void registrar(long nanos) {
+        operacoes.increment();
+        nanosTotais.add(nanos);
+        nanosMaximo.accumulateAndGet(nanos, Math::max);
+    }
+
+    public int getCusto() {
+        return custo;
+    }
+
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getProfundidadeFila() {
+        return executor.getQueue().size();
+    }
+
+    public int getCapacidadeFila() {
+        return executor.getQueue().size() + executor.getQueue().remainingCapacity();
+    }
+
+    public int getEmExecucao() {
+        return executor.getActiveCount();
+    }
+
+    public long getOperacoes() {
+        return operacoes.sum();
+    }
+
+    public double getMediaMs() {
+        long total = operacoes.sum();
+        return total == 0 ? 0 : nanosTotais.sum() / (double) total / 1_000_000;
+    }
+
+    public double getMaximoMs() {
+        return nanosMaximo.get() / 1_000_000.0;
+    }
+
+    public long getRecusadas() {
+        return recusadas.sum();
+    }
+
+    public long getPrazoEsgotado() {
+        return prazoEsgotado.sum();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Executor de senhas encerrado ({} operações)", operacoes.sum());
+    }
+}
@@ -0,0 +1,201 @@
+package nilton.acelera.demo.security;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import nilton.acelera.demo.model.Usuario;
+
+// Limite de requisições por cliente, logo depois do TokenFilter na cadeia de segurança.
+// Cliente autenticado = um balde por usuário; anônimo = um balde por IP (IPv6 por prefixo /64, que é o que um
+// único cliente costuma receber). Cada grupo de rotas tem o seu limite. Excedeu = 429 com Retry-After.
+// Baldes cheios (ociosos) são descartados periodicamente e, se o mapa lotar, na hora.
+@Component
+public class LimiteRequisicoesFilter extends OncePerRequestFilter {
+
+    enum Grupo {
+        LOGIN,
+        ESCRITA,
+        LEITURA
+    }
+
+    private static final class Limite {
+        final long intervaloNanos;
+        final long toleranciaNanos;
+
+        Limite(int capacidade, int porMinuto) {
+            this.intervaloNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, porMinuto);
+            this.toleranciaNanos = intervaloNanos * (Math.max(1, capacidade) - 1);
+        }
+    }
+
+    private static final long INTERVALO_VARREDURA_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean ativo;
+    private final String cabecalhoIp;
+    private final int maximoBaldes;
+    private final Map<Grupo, Limite> limites = new ConcurrentHashMap<>();
+    private final Map<String, BaldeTokens> baldes = new ConcurrentHashMap<>();
+    private final LongAdder recusadas = new LongAdder();
+    // Varredura feita na requisição quando o mapa lota: uma thread por vez e no máximo uma por segundo,
+    // para que uma enxurrada de clientes novos não pague O(baldes) em cada requisição
+    private final ReentrantLock varredura = new ReentrantLock();
+    private volatile long ultimaVarredura = System.nanoTime() - INTERVALO_VARREDURA_NANOS;
+
+    public LimiteRequisicoesFilter(
+            @Value("${blog.limite.ativo:true}") boolean ativo,
+            @Value("${blog.limite.cabecalho-ip:}") String cabecalhoIp,
+            @Value("${blog.limite.maximo-baldes:100000}") int maximoBaldes,
+            @Value("${blog.limite.login.capacidade:10}") int capacidadeLogin,
+            @Value("${blog.limite.login.por-minuto:10}") int porMinutoLogin,
+            @Value("${blog.limite.escrita.capacidade:30}") int capacidadeEscrita,
+            @Value("${blog.limite.escrita.por-minuto:60}") int porMinutoEscrita,
+            @Value("${blog.limite.leitura.capacidade:100}") int capacidadeLeitura,
+            @Value("${blog.limite.leitura.por-minuto:600}") int porMinutoLeitura) {
+        this.ativo = ativo;
+        this.cabecalhoIp = cabecalhoIp;
+        this.maximoBaldes = maximoBaldes;
+        limites.put(Grupo.LOGIN, new Limite(capacidadeLogin, porMinutoLogin));
+        limites.put(Grupo.ESCRITA, new Limite(capacidadeEscrita, porMinutoEscrita));
+        limites.put(Grupo.LEITURA, new Limite(capacidadeLeitura, porMinutoLeitura));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !ativo || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Grupo grupo = grupo(request);
+        Limite limite = limites.get(grupo);
+        long agora = System.nanoTime();
+
+        BaldeTokens balde = balde(grupo.name() + '|' + cliente(request, grupo), agora);
+        // Sem balde (mapa lotado só com clientes ativos) a requisição é recusada: falha fechada, não sem limite
+        long espera = balde == null
+                ? INTERVALO_VARREDURA_NANOS
+                : balde.consumir(agora, limite.intervaloNanos, limite.toleranciaNanos);
+        if (espera > 0) {
+            recusadas.increment();
+            long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private BaldeTokens balde(String chave, long agora) {
+        BaldeTokens balde = baldes.get(chave);
+        if (balde != null) {
+            return balde;
+        }
+        if (baldes.size() >= maximoBaldes && !abrirEspaco(agora)) {
+            return null;
+        }
+        return baldes.computeIfAbsent(chave, c -> new BaldeTokens(agora));
+    }
+
+    private boolean abrirEspaco(long agora) {
+        if (agora - ultimaVarredura >= INTERVALO_VARREDURA_NANOS && varredura.tryLock()) {
+            try {
+                ultimaVarredura = agora;
+                baldes.values().removeIf(balde -> balde.ocioso(agora));
+            } finally {
+                varredura.unlock();
+            }
+        }
+        return baldes.size() < maximoBaldes;
+    }
+
+    private static Grupo grupo(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.equals("/usuarios/login") || uri.equals("/usuarios/cadastrar") || uri.equals("/usuarios/renovar")) {
+            return Grupo.LOGIN;
+        }
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())
+                ? Grupo.LEITURA
+                : Grupo.ESCRITA;
+    }
+
+    private String cliente(HttpServletRequest request, Grupo grupo) {
+        // Login é sempre por IP: é onde está o abuso de credenciais
+        if (grupo != Grupo.LOGIN) {
+            Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+            Object principal = autenticacao == null ? null : autenticacao.getPrincipal();
+            if (principal instanceof UsuarioAutenticado usuario) {
+                return "u" + usuario.getId();
+            }
+            if (principal instanceof Usuario usuario) {
+                return "u" + usuario.getId();
+            }
+        }
+        // Atrás de proxy (ex.: Fly-Client-IP na fly.io) o IP real vem em um cabeçalho
+        if (!cabecalhoIp.isEmpty()) {
+            String ip = request.getHeader(cabecalhoIp);
+            if (ip != null && !ip.isBlank()) {
+                return chaveIp(ip.trim());
+            }
+        }
+        return chaveIp(request.getRemoteAddr());
+    }
+
+    // IPv6 vira o prefixo /64: trocar de endereço dentro da própria rede não gera balde novo.
+    // Só textos com ':' são convertidos, e esses o InetAddress interpreta como literal, sem consultar DNS.
+    static String chaveIp(String ip) {
+        if (ip == null || ip.indexOf(':') < 0) {
+            return ip;
+        }
+        try {
+            InetAddress endereco = InetAddress.getByName(ip);
+            if (endereco instanceof Inet6Address) {
+                return HexFormat.of().formatHex(endereco.getAddress(), 0, 8) + "::/64";
+            }
+            // IPv4 mapeado em IPv6 (::ffff:a.b.c.d) conta como o IPv4
+            return endereco.getHostAddress();
+        } catch (UnknownHostException e) {
+            return ip;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${blog.limite.intervalo-limpeza-ms:60000}")
+    public void descartarOciosos() {
+        long agora = System.nanoTime();
+        int antes = baldes.size();
+        baldes.values().removeIf(balde -> balde.ocioso(agora));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Baldes de limite descartados: " + (antes - baldes.size()) + " (restam " + baldes.size() + ")");
+        }
+    }
+
+    public int getBaldes() {
+        return baldes.size();
+    }
+
+    public long getRecusadas() {
+        return recusadas.sum();
+    }
+}
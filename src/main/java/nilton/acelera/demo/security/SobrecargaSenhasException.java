@@ -0,0 +1,21 @@
+package nilton.acelera.demo.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// Fila de hashing de senhas cheia ou prazo esgotado: vira 503 com Retry-After para o cliente
+public class SobrecargaSenhasException extends ResponseStatusException {
+
+    private final HttpHeaders headers = new HttpHeaders();
+
+    public SobrecargaSenhasException(String motivo) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, motivo);
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+}
@@ -0,0 +1,166 @@
+package nilton.acelera.demo.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import nilton.acelera.demo.evento.OrdemOuvintes;
+import nilton.acelera.demo.evento.UsuarioEvento;
+import nilton.acelera.demo.model.TokenRenovacao;
+import nilton.acelera.demo.repository.TokenRenovacaoRepository;
+
+// Tokens de renovação opacos e de uso único. Renovar a sessão custa um SHA-256 e uma busca em memória,
+// em vez de uma verificação BCrypt da senha. A memória guarda hash -> (usuário, expiração);
+// toda escrita vai também para tokens_renovacao, para sobreviver a reinícios e valer entre instâncias.
+@Component
+public class TokensRenovacao {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokensRenovacao.class);
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private static final class Sessao {
+        final long usuarioId;
+        final long expiraEm;
+
+        Sessao(long usuarioId, long expiraEm) {
+            this.usuarioId = usuarioId;
+            this.expiraEm = expiraEm;
+        }
+    }
+
+    private final TokenRenovacaoRepository tokenRepository;
+    private final long validadeMs;
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final Map<String, Sessao> sessoes = new ConcurrentHashMap<>();
+
+    public TokensRenovacao(TokenRenovacaoRepository tokenRepository,
+            @Value("${blog.jwt.renovacao.validade-dias:30}") long validadeDias) {
+        this.tokenRepository = tokenRepository;
+        this.validadeMs = Duration.ofDays(validadeDias).toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        List<TokenRenovacao> gravados = tokenRepository.findByExpiraEmAfter(LocalDateTime.now());
+        for (TokenRenovacao token : gravados) {
+            sessoes.put(token.getHash(), new Sessao(token.getUsuarioId(), paraMillis(token.getExpiraEm())));
+        }
+        logger.info("Tokens de renovação carregados: {}", gravados.size());
+    }
+
+    // Novo token de renovação para o usuário (login ou rotação)
+    public String emitir(Long usuarioId) {
+        byte[] bytes = new byte[32];
+        aleatorio.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String hash = hash(token);
+        long expiraEm = System.currentTimeMillis() + validadeMs;
+
+        tokenRepository.save(new TokenRenovacao(hash, usuarioId, paraData(expiraEm)));
+        sessoes.put(hash, new Sessao(usuarioId, expiraEm));
+        return token;
+    }
+
+    // Consome o token (uso único) e devolve o id do usuário. Vazio se desconhecido, expirado ou já usado.
+    public Optional<Long> consumir(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String hash = hash(token);
+        Sessao sessao = sessoes.remove(hash);
+        if (sessao == null) {
+            // Pode ter sido emitido por outra instância ou antes do carregamento
+            sessao = tokenRepository.findById(hash)
+                    .map(t -> new Sessao(t.getUsuarioId(), paraMillis(t.getExpiraEm())))
+                    .orElse(null);
+            if (sessao == null) {
+                return Optional.empty();
+            }
+        }
+        // O DELETE é o árbitro: duas renovações simultâneas com o mesmo token, só uma apaga a linha
+        if (tokenRepository.apagar(hash) == 0 || sessao.expiraEm <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(sessao.usuarioId);
+    }
+
+    public int tamanho() {
+        return sessoes.size();
+    }
+
+    @Scheduled(fixedDelayString = "${blog.jwt.renovacao.intervalo-limpeza-ms:3600000}")
+    public void apagarExpirados() {
+        long agora = System.currentTimeMillis();
+        sessoes.values().removeIf(sessao -> sessao.expiraEm <= agora);
+        int apagados = tokenRepository.apagarExpirados(paraData(agora));
+        if (apagados > 0) {
+            logger.info("Tokens de renovação expirados apagados: {}", apagados);
+        }
+    }
+
+    // Usuário removido, ou com senha ou login trocados: as sessões abertas antes não podem mais ser renovadas
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(OrdemOuvintes.MODELOS_DE_LEITURA)
+    public void aoAlterarUsuario(UsuarioEvento evento) {
+        if (!encerraSessoes(evento)) {
+            return;
+        }
+        long usuarioId = evento.getUsuario().getId();
+        sessoes.values().removeIf(sessao -> sessao.usuarioId == usuarioId);
+        // Escrita feita em outra instância: as linhas já foram apagadas por ela
+        if (!evento.isRemoto()) {
+            tokenRepository.apagarDoUsuario(usuarioId);
+        }
+    }
+
+    // O log entre instâncias não diz se a senha mudou; lá vale o DELETE em consumir(), que não acha mais a linha
+    private static boolean encerraSessoes(UsuarioEvento evento) {
+        return switch (evento.getTipo()) {
+            case REMOVIDO -> true;
+            case ATUALIZADO -> evento.isSenhaAlterada()
+                    || !Objects.equals(evento.getUsuario().getUsuario(), evento.getUsuarioAnterior());
+            case CADASTRADO -> false;
+        };
+    }
+
+    private static String hash(String token) {
+        return HexFormat.of().formatHex(SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static long paraMillis(LocalDateTime data) {
+        return data.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime paraData(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
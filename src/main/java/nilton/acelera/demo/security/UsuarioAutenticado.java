@@ -0,0 +1,62 @@
+package nilton.acelera.demo.security;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import nilton.acelera.demo.model.TipoUsuario;
+import nilton.acelera.demo.model.Usuario;
+
+// Principal leve montado a partir das claims do token (id, login e tipo), sem ir ao banco.
+// Os controllers recebem este objeto como parâmetro (ver UsuarioAutenticadoResolver).
+// AuthenticatedPrincipal e não java.security.Principal: parâmetros do tipo Principal são resolvidos pelo Spring MVC
+// antes dos resolvers customizados (com request.getUserPrincipal()), e o nosso resolver nunca seria chamado.
+public class UsuarioAutenticado implements AuthenticatedPrincipal {
+
+    private final Long id;
+    private final String usuario;
+    private final TipoUsuario tipo;
+
+    public UsuarioAutenticado(Long id, String usuario, TipoUsuario tipo) {
+        this.id = id;
+        this.usuario = usuario;
+        this.tipo = tipo;
+    }
+
+    public static UsuarioAutenticado de(Usuario usuario) {
+        return new UsuarioAutenticado(usuario.getId(), usuario.getUsuario(), usuario.getTipo());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsuario() {
+        return usuario;
+    }
+
+    public TipoUsuario getTipo() {
+        return tipo;
+    }
+
+    public boolean isAdmin() {
+        return tipo == TipoUsuario.ROLE_ADMIN;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.singletonList(new SimpleGrantedAuthority(tipo.name()));
+    }
+
+    @Override
+    public String getName() {
+        return usuario;
+    }
+
+    @Override
+    public String toString() {
+        return usuario;
+    }
+}
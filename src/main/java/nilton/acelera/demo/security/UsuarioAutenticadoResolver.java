@@ -0,0 +1,40 @@
+package nilton.acelera.demo.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import nilton.acelera.demo.model.Usuario;
+
+// Injeta o UsuarioAutenticado nos métodos dos controllers a partir do contexto de segurança.
+// Resolve para null quando não há usuário autenticado (o controller responde 401).
+@Component
+public class UsuarioAutenticadoResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return UsuarioAutenticado.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao == null) {
+            return null;
+        }
+        Object principal = autenticacao.getPrincipal();
+        if (principal instanceof UsuarioAutenticado usuarioAutenticado) {
+            return usuarioAutenticado;
+        }
+        if (principal instanceof Usuario usuario) {
+            return UsuarioAutenticado.de(usuario);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package nilton.acelera.demo.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+
+// Claims de tokens já verificados, para que o mesmo token não passe de novo por HMAC + parse a cada requisição.
+// A chave é o SHA-256 do token (o token em si não fica em memória) e cada entrada vale até a expiração do token.
+// Capacidade 0 desliga o cache: toda requisição verifica o token (usado para medir esse caminho nos benchmarks).
+@Component
+public class CacheTokensVerificados {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private static final class Entrada {
+        final Claims claims;
+        final long expiraEm;
+
+        Entrada(Claims claims, long expiraEm) {
+            this.claims = claims;
+            this.expiraEm = expiraEm;
+        }
+    }
+
+    private final int capacidade;
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+
+    public CacheTokensVerificados(@Value("${blog.jwt.cache.capacidade:10000}") int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    public Claims buscar(String token) {
+        if (capacidade <= 0) {
+            return null;
+        }
+        String chave = hash(token);
+        Entrada entrada = entradas.get(chave);
+        if (entrada == null) {
+            return null;
+        }
+        if (entrada.expiraEm <= System.currentTimeMillis()) {
+            entradas.remove(chave, entrada);
+            return null;
+        }
+        return entrada.claims;
+    }
+
+    public void guardar(String token, Claims claims) {
+        if (capacidade <= 0 || claims.getExpiration() == null) {
+            return; // cache desligado, ou sem expiração não há como limitar a validade da entrada
+        }
+        if (entradas.size() >= capacidade) {
+            abrirEspaco();
+        }
+        entradas.put(hash(token), new Entrada(claims, claims.getExpiration().getTime()));
+    }
+
+    public int tamanho() {
+        return entradas.size();
+    }
+
+    // Remove os expirados; se ainda estiver cheio, descarta uma parte qualquer (voltam a ser verificados normalmente)
+    private void abrirEspaco() {
+        long agora = System.currentTimeMillis();
+        entradas.values().removeIf(entrada -> entrada.expiraEm <= agora);
+        Iterator<String> chaves = entradas.keySet().iterator();
+        int excedente = entradas.size() - capacidade * 3 / 4;
+        while (excedente-- > 0 && chaves.hasNext()) {
+            chaves.next();
+            chaves.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        byte[] resumo = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(resumo);
+    }
+}
@@ -2,6 +2,8 @@ package nilton.acelera.demo.security.jwt;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import nilton.acelera.demo.model.Usuario;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +12,8 @@ import org.springframework.stereotype.Service;
 import java.security.Key;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,8 +25,54 @@ public class JwtService {
     // Chave de 512 bits (64 caracteres)
     private static final String SEGREDO = "suaChaveSecretaParaJWTCom512BitsMuitoSeguraEGrande12345678901234567890";
 
-    private Key gerarChave() {
-        return Keys.hmacShaKeyFor(SEGREDO.getBytes());
+    // Chave e parser são imutáveis e thread-safe: criados uma vez só, não a cada token
+    private final Key chave = Keys.hmacShaKeyFor(SEGREDO.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(chave).build();
+
+    private final CacheTokensVerificados cacheTokens;
+
+    // Tempo de verificar(): resultado=cache (sem parse), valido (parse + HMAC) ou invalido
+    private final Timer tempoCache;
+    private final Timer tempoValido;
+    private final Timer tempoInvalido;
+
+    public JwtService(CacheTokensVerificados cacheTokens, MeterRegistry registro) {
+        this.cacheTokens = cacheTokens;
+        this.tempoCache = tempoVerificacao(registro, "cache");
+        this.tempoValido = tempoVerificacao(registro, "valido");
+        this.tempoInvalido = tempoVerificacao(registro, "invalido");
+    }
+
+    private static Timer tempoVerificacao(MeterRegistry registro, String resultado) {
+        return Timer.builder("blog.jwt.verificacao")
+                .description("Verificação do token JWT no TokenFilter")
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(registro);
+    }
+
+    // Verifica assinatura e expiração com um único parse e devolve as claims.
+    // Um token já verificado e ainda não expirado vem do cache, sem HMAC nem parse.
+    public Optional<Claims> verificar(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        long inicio = System.nanoTime();
+        Claims emCache = cacheTokens.buscar(token);
+        if (emCache != null) {
+            tempoCache.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return Optional.of(emCache);
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            cacheTokens.guardar(token, claims);
+            tempoValido.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            tempoInvalido.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            logger.debug("Token JWT inválido: {}", e.getMessage());
+            return Optional.empty();
+        }
     }
 
     // NOVO: Gera token incluindo as authorities do usuário
@@ -35,12 +85,14 @@ public class JwtService {
             String token = Jwts.builder()
                 .setSubject(usuario.getUsuario()) // ou getUsername()
                 .claim("authorities", authorities)
+                // id e tipo permitem montar o principal só com o token (blog.seguranca.sem-estado)
+                .claim("id", usuario.getId())
+                .claim("tipo", usuario.getTipo().name())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRACAO))
-                .signWith(gerarChave(), SignatureAlgorithm.HS512)
+                .signWith(chave, SignatureAlgorithm.HS512)
                 .compact();
 
-            logger.info("Token gerado: " + token);
             return token;
         } catch (Exception e) {
             logger.error("Erro ao gerar token: ", e);
@@ -55,10 +107,9 @@ public class JwtService {
                 .setSubject(usuario)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRACAO))
-                .signWith(gerarChave(), SignatureAlgorithm.HS512)
+                .signWith(chave, SignatureAlgorithm.HS512)
                 .compact();
 
-            logger.info("Token gerado: " + token);
             return token;
         } catch (Exception e) {
             logger.error("Erro ao gerar token: ", e);
@@ -68,31 +119,23 @@ public class JwtService {
 
     public boolean validarToken(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(gerarChave())
-                .build()
-                .parseClaimsJws(token);
-            logger.info("Token válido: " + token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
-            logger.error("Erro ao validar token: ", e);
+            logger.debug("Token JWT inválido: {}", e.getMessage());
             return false;
         }
     }
 
     public String extrairUsuario(String token) {
         try {
-            String usuario = Jwts.parserBuilder()
-                .setSigningKey(gerarChave())
-                .build()
-                .parseClaimsJws(token)
+            String usuario = parser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
 
-            logger.info("Usuário extraído do token: " + usuario);
             return usuario;
         } catch (JwtException | IllegalArgumentException e) {
-            logger.error("Erro ao extrair usuário do token: ", e);
+            logger.debug("Token JWT inválido: {}", e.getMessage());
             throw new RuntimeException("Token inválido ou mal formado", e);
         }
     }
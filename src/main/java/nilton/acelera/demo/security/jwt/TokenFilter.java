@@ -1,11 +1,15 @@
 package nilton.acelera.demo.security.jwt;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import nilton.acelera.demo.model.TipoUsuario;
 import nilton.acelera.demo.model.Usuario;
-import nilton.acelera.demo.repository.UsuarioRepository;
+import nilton.acelera.demo.security.CacheUsuarios;
+import nilton.acelera.demo.security.UsuarioAutenticado;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -18,11 +22,16 @@ import java.util.Optional;
 public class TokenFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UsuarioRepository usuarioRepository;
+    private final CacheUsuarios cacheUsuarios;
+    // Sem estado: o principal sai das claims (id, usuario, tipo), sem consultar o banco.
+    // Desligado: a entidade vem do cache de usuários (TTL curto, invalidado nas escritas).
+    private final boolean semEstado;
 
-    public TokenFilter(JwtService jwtService, UsuarioRepository usuarioRepository) {
+    public TokenFilter(JwtService jwtService, CacheUsuarios cacheUsuarios,
+            @Value("${blog.seguranca.sem-estado:false}") boolean semEstado) {
         this.jwtService = jwtService;
-        this.usuarioRepository = usuarioRepository;
+        this.cacheUsuarios = cacheUsuarios;
+        this.semEstado = semEstado;
     }
 
     @Override
@@ -32,52 +41,66 @@ public class TokenFilter extends OncePerRequestFilter {
         FilterChain filterChain
     ) throws ServletException, IOException {
         String requestUri = request.getRequestURI();
-        logger.info("Requisição recebida para: " + requestUri);
     
         // Ignorar endpoints públicos
-        if (requestUri.equals("/usuarios/login") || requestUri.equals("/usuarios/cadastrar")) {
-            logger.info("Ignorando filtro para o endpoint público: " + requestUri);
+        if (requestUri.equals("/usuarios/login") || requestUri.equals("/usuarios/cadastrar") || requestUri.equals("/usuarios/renovar")) {
             filterChain.doFilter(request, response);
             return;
         }
     
+        // Token e cabeçalho Authorization nunca vão para o log; a requisição em si fica no log de acesso
         String token = recuperarToken(request);
-        logger.info("Token recuperado: " + token);
     
-        if (token != null && jwtService.validarToken(token)) {
-            logger.info("Token é válido. Extraindo informações do usuário...");
-            String usuarioEmail = jwtService.extrairUsuario(token);
-            logger.info("Usuário extraído do token: " + usuarioEmail);
+        // Um único parse (ou nenhum, se o token já estiver no cache) em vez de validarToken + extrairUsuario
+        Optional<Claims> claims = token == null ? Optional.empty() : jwtService.verificar(token);
+        if (claims.isPresent()) {
+            String usuarioEmail = claims.get().getSubject();
     
-            Optional<Usuario> usuarioOpt = usuarioRepository.findByUsuario(usuarioEmail); // Retorna um Optional<Usuario>
+            UsuarioAutenticado doToken = semEstado ? lerUsuario(claims.get()) : null;
+            if (doToken != null) {
+                var authentication = new UsernamePasswordAuthenticationToken(doToken, null, doToken.getAuthorities());
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            // Token antigo (sem id/tipo) ou modo sem estado desligado
+            Optional<Usuario> usuarioOpt = cacheUsuarios.buscar(usuarioEmail);
     
             if (usuarioOpt.isPresent()) {
                 Usuario usuario = usuarioOpt.get();  
-                logger.info("Usuário encontrado: " + usuario.getUsuario());
                 var authentication = new UsernamePasswordAuthenticationToken(
                     usuario,
                     null,
                     usuario.getAuthorities() // Certifique-se que o usuário tem as roles configuradas
                 );
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                logger.info("Autenticação configurada no contexto de segurança para o usuário: " + usuarioEmail);
-            } else {
-                logger.warn("Usuário não encontrado para o token JWT: " + usuarioEmail);
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("Usuário do token JWT não encontrado: " + usuarioEmail);
             }
-        } else {
-            logger.warn("Token JWT ausente ou inválido.");
         }
     
         filterChain.doFilter(request, response);
     }
 
+    private UsuarioAutenticado lerUsuario(Claims claims) {
+        Object id = claims.get("id");
+        Object tipo = claims.get("tipo");
+        if (!(id instanceof Number) || !(tipo instanceof String)) {
+            return null;
+        }
+        try {
+            return new UsuarioAutenticado(((Number) id).longValue(), claims.getSubject(), TipoUsuario.valueOf((String) tipo));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private String recuperarToken(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
-        logger.info("Cabeçalho Authorization recebido: " + authHeader);
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             return authHeader.substring(7);
         }
-        logger.error("Token JWT ausente ou mal formatado.");
         return null;
     }
     
@@ -0,0 +1,91 @@
+package nilton.acelera.demo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+import nilton.acelera.demo.dto.PostagemResumoDTO;
+import nilton.acelera.demo.repository.PostagemRepository;
+
+// Exporta todas as postagens escrevendo direto na resposta, uma linha por vez.
+// Sai a visão de leitura (PostagemResumoDTO), sem entidades gerenciadas e sem dados sensíveis do autor,
+// então nem o heap nem o contexto de persistência crescem com a tabela.
+@Service
+public class ExportacaoPostagensService {
+
+    public enum Formato {
+        NDJSON,
+        JSON
+    }
+
+    // De quanto em quanto o buffer é enviado ao cliente
+    private static final int LINHAS_POR_FLUSH = 500;
+
+    private static final String CONSULTA = PostagemRepository.SELECT_RESUMO + "ORDER BY p.id";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    // Sem flush a cada valor: o flush é feito em lotes de LINHAS_POR_FLUSH
+    private final ObjectWriter escritor;
+    private final TransactionTemplate transacaoLeitura;
+    // Fetch size só desta consulta. No MySQL, Integer.MIN_VALUE faz o driver entregar o resultado linha a linha
+    // (streaming), sem useCursorFetch na URL, que mudaria todas as outras consultas da aplicação
+    private final int linhasPorLeitura;
+
+    public ExportacaoPostagensService(EntityManager entityManager, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${blog.exportacao.linhas-por-leitura:500}") int linhasPorLeitura) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.escritor = objectMapper.writerFor(PostagemResumoDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.linhasPorLeitura = linhasPorLeitura;
+    }
+
+    public void exportar(OutputStream saida, Formato formato) {
+        transacaoLeitura.executeWithoutResult(status -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+                 Stream<PostagemResumoDTO> postagens = entityManager.createQuery(CONSULTA, PostagemResumoDTO.class)
+                         .setHint(AvailableHints.HINT_FETCH_SIZE, linhasPorLeitura)
+                         .getResultStream()) {
+                gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // No NDJSON o separador entre valores é a quebra de linha escrita abaixo
+                gerador.setRootValueSeparator(null);
+                if (formato == Formato.JSON) {
+                    gerador.writeStartArray();
+                }
+                long escritas = 0;
+                for (PostagemResumoDTO postagem : (Iterable<PostagemResumoDTO>) postagens::iterator) {
+                    escritor.writeValue(gerador, postagem);
+                    if (formato == Formato.NDJSON) {
+                        gerador.writeRaw('\n');
+                    }
+                    if (++escritas % LINHAS_POR_FLUSH == 0) {
+                        gerador.flush();
+                    }
+                }
+                if (formato == Formato.JSON) {
+                    gerador.writeEndArray();
+                }
+                gerador.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
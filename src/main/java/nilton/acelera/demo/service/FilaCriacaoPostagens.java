@@ -0,0 +1,215 @@
+package nilton.acelera.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import nilton.acelera.demo.dto.PostagemImportacaoDTO;
+import nilton.acelera.demo.dto.StatusCriacaoDTO;
+import nilton.acelera.demo.evento.PostagemEvento;
+import nilton.acelera.demo.model.Postagem;
+import nilton.acelera.demo.model.Tema;
+import nilton.acelera.demo.model.Usuario;
+import nilton.acelera.demo.repository.PostagemLoteRepository;
+import nilton.acelera.demo.repository.RegistroAlteracaoRepository;
+
+// Criação assíncrona (write-behind): a requisição só enfileira e recebe um código de rastreio;
+// uma thread gravadora junta o que estiver na fila e grava em uma transação com JDBC batch.
+// Fila cheia = recusa imediata (o controller responde 503), em vez de segurar threads do Tomcat e conexões.
+//
+// Limites: a fila fica na memória desta instância. Entrega no máximo uma vez: se o processo cair, os pedidos
+// ainda na fila se perdem (na parada normal a gravadora esvazia a fila antes de sair). PENDENTE e FALHOU só
+// são conhecidos aqui; CRIADA também sai do registro de alterações, então qualquer instância responde pelo
+// rastreio enquanto a linha existir (blog.coerencia.retencao-horas, com o registro ativo).
+@Service
+public class FilaCriacaoPostagens {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilaCriacaoPostagens.class);
+
+    // Quanto tempo o status de um pedido concluído fica disponível para consulta
+    private static final long RETENCAO_STATUS_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final PostagemLoteRepository postagemLoteRepository;
+    private final RegistroAlteracaoRepository registroRepository;
+    private final ApplicationEventPublisher eventos;
+    private final TransactionTemplate transacao;
+    private final int tamanhoLote;
+
+    private final BlockingQueue<Pedido> fila;
+    private final Map<String, Situacao> situacoes = new ConcurrentHashMap<>();
+
+    private volatile boolean ativa = true;
+    private Thread gravadora;
+
+    private static final class Pedido {
+        final String rastreio;
+        final PostagemImportacaoDTO postagem;
+
+        Pedido(String rastreio, PostagemImportacaoDTO postagem) {
+            this.rastreio = rastreio;
+            this.postagem = postagem;
+        }
+    }
+
+    private static final class Situacao {
+        final StatusCriacaoDTO status;
+        final long atualizadoEm;
+
+        Situacao(StatusCriacaoDTO status) {
+            this.status = status;
+            this.atualizadoEm = System.currentTimeMillis();
+        }
+    }
+
+    public FilaCriacaoPostagens(PostagemLoteRepository postagemLoteRepository,
+            RegistroAlteracaoRepository registroRepository, ApplicationEventPublisher eventos,
+            PlatformTransactionManager transactionManager,
+            @Value("${blog.criacao-assincrona.capacidade-fila:1000}") int capacidadeFila,
+            @Value("${blog.criacao-assincrona.tamanho-lote:100}") int tamanhoLote) {
+        this.postagemLoteRepository = postagemLoteRepository;
+        this.registroRepository = registroRepository;
+        this.eventos = eventos;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        gravadora = new Thread(this::gravarContinuamente, "gravadora-postagens");
+        gravadora.setDaemon(true);
+        gravadora.start();
+    }
+
+    // A postagem já deve vir validada (usuário autenticado, tema existente). Vazio quando a fila está cheia.
+    public Optional<StatusCriacaoDTO> enfileirar(PostagemImportacaoDTO postagem) {
+        String rastreio = UUID.randomUUID().toString();
+        StatusCriacaoDTO status = new StatusCriacaoDTO(rastreio, StatusCriacaoDTO.Situacao.PENDENTE, null, null);
+        situacoes.put(rastreio, new Situacao(status));
+        if (!fila.offer(new Pedido(rastreio, postagem))) {
+            situacoes.remove(rastreio);
+            return Optional.empty();
+        }
+        return Optional.of(status);
+    }
+
+    // Pedido desta instância, ou criação feita por outra (ou antes do status local expirar) no registro
+    public Optional<StatusCriacaoDTO> consultar(String rastreio) {
+        Situacao situacao = situacoes.get(rastreio);
+        if (situacao != null) {
+            return Optional.of(situacao.status);
+        }
+        return registroRepository.findFirstByRastreio(rastreio).map(alteracao -> new StatusCriacaoDTO(
+            rastreio, StatusCriacaoDTO.Situacao.CRIADA, alteracao.getReferenciaId(), null));
+    }
+
+    public int getTamanhoFila() {
+        return fila.size();
+    }
+
+    private void gravarContinuamente() {
+        List<Pedido> lote = new ArrayList<>(tamanhoLote);
+        long ultimaLimpeza = System.currentTimeMillis();
+        while (ativa || !fila.isEmpty()) {
+            try {
+                Pedido primeiro = fila.poll(1, TimeUnit.SECONDS);
+                if (primeiro != null) {
+                    lote.add(primeiro);
+                    // Junta tudo o que já chegou, até o tamanho do lote, numa única transação
+                    fila.drainTo(lote, tamanhoLote - 1);
+                    gravar(lote);
+                    lote.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Erro inesperado na gravadora de postagens", e);
+                lote.clear();
+            }
+            if (System.currentTimeMillis() - ultimaLimpeza > RETENCAO_STATUS_MS) {
+                limparSituacoesAntigas();
+                ultimaLimpeza = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private void gravar(List<Pedido> lote) {
+        List<PostagemImportacaoDTO> postagens = lote.stream().map(pedido -> pedido.postagem).toList();
+        long[] ids;
+        try {
+            ids = transacao.execute(status -> publicarCriadas(lote, postagemLoteRepository.inserir(postagens)));
+        } catch (RuntimeException e) {
+            // Um pedido inválido (ex.: tema excluído nesse meio tempo) derruba o lote: grava um a um para isolar
+            logger.warn("Falha ao gravar lote de {} postagens, tentando individualmente", lote.size(), e);
+            lote.forEach(this::gravarSozinho);
+            return;
+        }
+        for (int i = 0; i < lote.size(); i++) {
+            concluir(lote.get(i), ids[i]);
+        }
+    }
+
+    private void gravarSozinho(Pedido pedido) {
+        try {
+            long[] ids = transacao.execute(status ->
+                publicarCriadas(List.of(pedido), postagemLoteRepository.inserir(List.of(pedido.postagem))));
+            concluir(pedido, ids[0]);
+        } catch (RuntimeException e) {
+            situacoes.put(pedido.rastreio, new Situacao(new StatusCriacaoDTO(
+                pedido.rastreio, StatusCriacaoDTO.Situacao.FALHOU, null, "Não foi possível gravar a postagem")));
+        }
+    }
+
+    private void concluir(Pedido pedido, long id) {
+        situacoes.put(pedido.rastreio, new Situacao(new StatusCriacaoDTO(
+            pedido.rastreio, StatusCriacaoDTO.Situacao.CRIADA, id, null)));
+    }
+
+    // Chamado dentro da transação do INSERT, para o registro de alterações entrar no mesmo commit;
+    // os ouvintes das estruturas em memória rodam depois dele
+    private long[] publicarCriadas(List<Pedido> pedidos, long[] ids) {
+        for (int i = 0; i < pedidos.size(); i++) {
+            PostagemImportacaoDTO origem = pedidos.get(i).postagem;
+            Usuario autor = new Usuario();
+            autor.setId(origem.getUsuarioId());
+            Tema tema = new Tema();
+            tema.setId(origem.getTemaId());
+            Postagem postagem = new Postagem(origem.getTitulo(), origem.getTexto(), autor, tema);
+            postagem.setId(ids[i]);
+            postagem.setData(origem.getData());
+            eventos.publishEvent(PostagemEvento.criadaNaFila(postagem, pedidos.get(i).rastreio));
+        }
+        return ids;
+    }
+
+    private void limparSituacoesAntigas() {
+        long limite = System.currentTimeMillis() - RETENCAO_STATUS_MS;
+        situacoes.entrySet().removeIf(entrada ->
+            entrada.getValue().status.getSituacao() != StatusCriacaoDTO.Situacao.PENDENTE
+                && entrada.getValue().atualizadoEm < limite);
+    }
+
+    // Na parada, a gravadora esvazia a fila antes de sair (até o limite de espera)
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        ativa = false;
+        gravadora.join(TimeUnit.SECONDS.toMillis(30));
+    }
+}
@@ -0,0 +1,196 @@
+package nilton.acelera.demo.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import nilton.acelera.demo.cache.CatalogoTemas;
+import nilton.acelera.demo.dto.PostagemImportacaoDTO;
+import nilton.acelera.demo.dto.RelatorioImportacaoDTO;
+import nilton.acelera.demo.evento.PostagemEvento;
+import nilton.acelera.demo.model.Postagem;
+import nilton.acelera.demo.model.Tema;
+import nilton.acelera.demo.model.Usuario;
+import nilton.acelera.demo.repository.PostagemLoteRepository;
+import nilton.acelera.demo.repository.UsuarioRepository;
+
+// Importação em massa de postagens a partir de NDJSON (uma postagem por linha).
+// Lê o corpo em streaming, valida usuários/temas por lote e grava cada lote em uma transação com JDBC batch.
+@Service
+public class ImportacaoPostagensService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoPostagensService.class);
+
+    private static final int TAMANHO_MAXIMO_TITULO = Postagem.TAMANHO_MAXIMO_TITULO;
+    private static final int TAMANHO_MAXIMO_TEXTO = Postagem.TAMANHO_MAXIMO_TEXTO;
+
+    private final PostagemLoteRepository postagemLoteRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final CatalogoTemas catalogoTemas;
+    private final ApplicationEventPublisher eventos;
+    private final ObjectReader leitor;
+    private final TransactionTemplate transacao;
+    private final int tamanhoLote;
+
+    public ImportacaoPostagensService(PostagemLoteRepository postagemLoteRepository,
+            UsuarioRepository usuarioRepository, CatalogoTemas catalogoTemas, ApplicationEventPublisher eventos,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            @Value("${blog.importacao.tamanho-lote:1000}") int tamanhoLote) {
+        this.postagemLoteRepository = postagemLoteRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.catalogoTemas = catalogoTemas;
+        this.eventos = eventos;
+        this.leitor = objectMapper.readerFor(PostagemImportacaoDTO.class);
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    public RelatorioImportacaoDTO importar(InputStream ndjson) throws IOException {
+        long inicio = System.nanoTime();
+        RelatorioImportacaoDTO relatorio = new RelatorioImportacaoDTO();
+        Lote lote = new Lote();
+        // Usuários já conferidos nesta importação, para não consultar o mesmo id em todo lote
+        Set<Long> usuariosExistentes = new HashSet<>();
+        Set<Long> usuariosInexistentes = new HashSet<>();
+
+        try (BufferedReader leitorLinhas = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String linha;
+            long numero = 0;
+            while ((linha = leitorLinhas.readLine()) != null) {
+                numero++;
+                if (linha.isBlank()) {
+                    continue;
+                }
+                relatorio.setLinhasLidas(relatorio.getLinhasLidas() + 1);
+                try {
+                    PostagemImportacaoDTO postagem = leitor.readValue(linha);
+                    String erro = validarCampos(postagem);
+                    if (erro != null) {
+                        relatorio.registrarErro(numero, erro);
+                        continue;
+                    }
+                    lote.adicionar(numero, postagem);
+                } catch (JsonProcessingException e) {
+                    relatorio.registrarErro(numero, "JSON inválido");
+                    continue;
+                }
+                if (lote.tamanho() == tamanhoLote) {
+                    gravarLote(lote, relatorio, usuariosExistentes, usuariosInexistentes);
+                }
+            }
+        }
+        if (lote.tamanho() > 0) {
+            gravarLote(lote, relatorio, usuariosExistentes, usuariosInexistentes);
+        }
+        relatorio.finalizar(System.nanoTime() - inicio);
+        logger.info("Importação concluída: {} inseridas, {} rejeitadas, {} linhas/s",
+            relatorio.getInseridas(), relatorio.getRejeitadas(), Math.round(relatorio.getLinhasPorSegundo()));
+        return relatorio;
+    }
+
+    private static String validarCampos(PostagemImportacaoDTO postagem) {
+        if (postagem.getTitulo() == null || postagem.getTitulo().isBlank()) return "titulo obrigatório";
+        if (postagem.getTitulo().length() > TAMANHO_MAXIMO_TITULO) return "titulo maior que " + TAMANHO_MAXIMO_TITULO;
+        if (postagem.getTexto() == null || postagem.getTexto().isBlank()) return "texto obrigatório";
+        if (postagem.getTexto().length() > TAMANHO_MAXIMO_TEXTO) return "texto maior que " + TAMANHO_MAXIMO_TEXTO;
+        if (postagem.getUsuarioId() == null) return "usuarioId obrigatório";
+        if (postagem.getTemaId() == null) return "temaId obrigatório";
+        return null;
+    }
+
+    private void gravarLote(Lote lote, RelatorioImportacaoDTO relatorio,
+            Set<Long> usuariosExistentes, Set<Long> usuariosInexistentes) {
+        // Uma única consulta para todos os usuários ainda não vistos neste lote
+        Set<Long> desconhecidos = new HashSet<>();
+        for (PostagemImportacaoDTO postagem : lote.postagens) {
+            Long usuarioId = postagem.getUsuarioId();
+            if (!usuariosExistentes.contains(usuarioId) && !usuariosInexistentes.contains(usuarioId)) {
+                desconhecidos.add(usuarioId);
+            }
+        }
+        if (!desconhecidos.isEmpty()) {
+            List<Long> encontrados = usuarioRepository.buscarIdsExistentes(desconhecidos);
+            usuariosExistentes.addAll(encontrados);
+            desconhecidos.removeAll(encontrados);
+            usuariosInexistentes.addAll(desconhecidos);
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<PostagemImportacaoDTO> validas = new ArrayList<>(lote.tamanho());
+        for (int i = 0; i < lote.tamanho(); i++) {
+            PostagemImportacaoDTO postagem = lote.postagens.get(i);
+            if (usuariosInexistentes.contains(postagem.getUsuarioId())) {
+                relatorio.registrarErro(lote.linhas.get(i), "usuario " + postagem.getUsuarioId() + " não existe");
+            } else if (!catalogoTemas.existe(postagem.getTemaId())) {
+                relatorio.registrarErro(lote.linhas.get(i), "tema " + postagem.getTemaId() + " não existe");
+            } else {
+                if (postagem.getData() == null) {
+                    postagem.setData(agora);
+                }
+                validas.add(postagem);
+            }
+        }
+        lote.limpar();
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        // Eventos publicados dentro da transação: o registro de alterações do lote entra no mesmo commit
+        transacao.executeWithoutResult(status -> publicarCriadas(validas, postagemLoteRepository.inserir(validas)));
+        relatorio.setInseridas(relatorio.getInseridas() + validas.size());
+        relatorio.setLotes(relatorio.getLotes() + 1);
+    }
+
+    // Mantém índice de busca, linhas do tempo e versões em dia, como numa criação comum (os ouvintes rodam após o commit)
+    private void publicarCriadas(List<PostagemImportacaoDTO> postagens, long[] ids) {
+        for (int i = 0; i < postagens.size(); i++) {
+            PostagemImportacaoDTO origem = postagens.get(i);
+            Usuario autor = new Usuario();
+            autor.setId(origem.getUsuarioId());
+            Tema tema = new Tema();
+            tema.setId(origem.getTemaId());
+            Postagem postagem = new Postagem(origem.getTitulo(), origem.getTexto(), autor, tema);
+            postagem.setId(ids[i]);
+            postagem.setData(origem.getData());
+            eventos.publishEvent(PostagemEvento.criada(postagem));
+        }
+    }
+
+    private static final class Lote {
+        final List<Long> linhas = new ArrayList<>();
+        final List<PostagemImportacaoDTO> postagens = new ArrayList<>();
+
+        void adicionar(long linha, PostagemImportacaoDTO postagem) {
+            linhas.add(linha);
+            postagens.add(postagem);
+        }
+
+        int tamanho() {
+            return postagens.size();
+        }
+
+        void limpar() {
+            linhas.clear();
+            postagens.clear();
+        }
+    }
+}
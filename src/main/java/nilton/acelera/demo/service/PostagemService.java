@@ -1,34 +1,57 @@
 package nilton.acelera.demo.service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import nilton.acelera.demo.busca.IndicePostagens;
+import nilton.acelera.demo.busca.ResultadoBusca;
+import nilton.acelera.demo.cache.CatalogoTemas;
+import nilton.acelera.demo.cache.LinhasDoTempoAutores;
+import nilton.acelera.demo.dto.CursorPostagem;
+import nilton.acelera.demo.dto.PaginaDTO;
+import nilton.acelera.demo.dto.PostagemResumoDTO;
+import nilton.acelera.demo.evento.PostagemEvento;
 import nilton.acelera.demo.model.Postagem;
 import nilton.acelera.demo.model.Tema;
 import nilton.acelera.demo.model.Usuario;
 import nilton.acelera.demo.repository.PostagemRepository;
-import nilton.acelera.demo.repository.TemaRepository;
 import nilton.acelera.demo.repository.UsuarioRepository;
 
 @Service
 public class PostagemService {
 
+    public static final int TAMANHO_PAGINA_PADRAO = 20;
+    public static final int TAMANHO_PAGINA_MAXIMO = 100;
+    public static final int LIMITE_BUSCA_PADRAO = 20;
+
     @Autowired
     private PostagemRepository postagemRepository;
 
     @Autowired
-    private TemaRepository temaRepository;
+    private CatalogoTemas catalogoTemas;
 
     @Autowired
     private UsuarioRepository usuarioRepository;
 
-    public List<Postagem> listarTodas() {
-        return postagemRepository.findAll();
-    }
+    @Autowired
+    private IndicePostagens indicePostagens;
+
+    @Autowired
+    private LinhasDoTempoAutores linhasDoTempo;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
 
     public Optional<Postagem> buscarPorId(Long id) {
         return postagemRepository.findById(id);
@@ -50,10 +73,124 @@ public class PostagemService {
         return postagemRepository.findByUsuarioIdAndTemaId(usuarioId, temaId);
     }
 
+    // Busca textual ranqueada no índice em memória; vazio enquanto o índice ainda está sendo construído.
+    public Optional<List<PostagemResumoDTO>> buscarTexto(String consulta, Integer limite) {
+        if (!indicePostagens.isPronto()) {
+            return Optional.empty();
+        }
+        int limiteEfetivo = limite == null || limite <= 0 ? LIMITE_BUSCA_PADRAO : Math.min(limite, TAMANHO_PAGINA_MAXIMO);
+        List<ResultadoBusca> resultados = indicePostagens.buscar(consulta, limiteEfetivo);
+        if (resultados.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        List<Long> ids = resultados.stream().map(ResultadoBusca::getPostagemId).toList();
+        Map<Long, PostagemResumoDTO> porId = postagemRepository.buscarResumosPorIds(ids).stream()
+            .collect(Collectors.toMap(PostagemResumoDTO::getId, Function.identity()));
+        // Mantém a ordem do ranqueamento
+        return Optional.of(ids.stream().map(porId::get).filter(Objects::nonNull).toList());
+    }
+
+    // Postagens mais recentes de um autor (e opcionalmente de um tema), servidas pela linha do tempo em memória
+    public List<PostagemResumoDTO> listarRecentesDoAutor(Long usuarioId, Long temaId, Integer limite) {
+        int limiteEfetivo = normalizarTamanho(limite);
+        List<Long> ids = linhasDoTempo.listar(usuarioId, temaId, limiteEfetivo);
+        if (ids == null) {
+            Pageable pagina = PageRequest.of(0, limiteEfetivo);
+            return temaId == null
+                ? postagemRepository.buscarResumosPrimeiraPaginaPorUsuario(usuarioId, pagina)
+                : postagemRepository.buscarResumosPrimeiraPaginaPorUsuarioETema(usuarioId, temaId, pagina);
+        }
+        return ids.isEmpty() ? List.of() : postagemRepository.buscarResumosPorIds(ids);
+    }
+
+    // Feed paginado por cursor. cursor nulo = primeira página.
+    public PaginaDTO<Postagem> listarPagina(String cursor, Integer tamanho) {
+        return paginar(cursor, tamanho,
+            limite -> postagemRepository.buscarPrimeiraPagina(limite),
+            (c, limite) -> postagemRepository.buscarPaginaApos(c.getData(), c.getId(), limite),
+            CursorPostagem::de);
+    }
+
+    public PaginaDTO<Postagem> listarPaginaPorTitulo(String titulo, String cursor, Integer tamanho) {
+        return paginar(cursor, tamanho,
+            limite -> postagemRepository.buscarPrimeiraPaginaPorTitulo(titulo, limite),
+            (c, limite) -> postagemRepository.buscarPaginaPorTituloApos(titulo, c.getData(), c.getId(), limite),
+            CursorPostagem::de);
+    }
+
+    public PaginaDTO<Postagem> listarPaginaPorTema(Long temaId, String cursor, Integer tamanho) {
+        return paginar(cursor, tamanho,
+            limite -> postagemRepository.buscarPrimeiraPaginaPorTema(temaId, limite),
+            (c, limite) -> postagemRepository.buscarPaginaPorTemaApos(temaId, c.getData(), c.getId(), limite),
+            CursorPostagem::de);
+    }
+
+    public PaginaDTO<Postagem> listarPaginaPorUsuario(Long usuarioId, String cursor, Integer tamanho) {
+        return paginar(cursor, tamanho,
+            limite -> postagemRepository.buscarPrimeiraPaginaPorUsuario(usuarioId, limite),
+            (c, limite) -> postagemRepository.buscarPaginaPorUsuarioApos(usuarioId, c.getData(), c.getId(), limite),
+            CursorPostagem::de);
+    }
+
+    // Visões de leitura (projeções): um único SELECT por página, sem entidades no contexto de persistência.
+    public PaginaDTO<PostagemResumoDTO> listarResumos(String cursor, Integer tamanho) {
+        return paginar(cursor, tamanho,
+            limite -> postagemRepository.buscarResumosPrimeiraPagina(limite),
+            (c, limite) -> postagemRepository.buscarResumosApos(c.getData(), c.getId(), limite),
+            PostagemService::cursorDe);
+    }
+
+    public PaginaDTO<PostagemResumoDTO> listarResumosPorTema(Long temaId, String cursor, Integer tamanho) {
+        return paginar(cursor, tamanho,
+            limite -> postagemRepository.buscarResumosPrimeiraPaginaPorTema(temaId, limite),
+            (c, limite) -> postagemRepository.buscarResumosPorTemaApos(temaId, c.getData(), c.getId(), limite),
+            PostagemService::cursorDe);
+    }
+
+    public PaginaDTO<PostagemResumoDTO> listarResumosPorUsuario(Long usuarioId, String cursor, Integer tamanho) {
+        return paginar(cursor, tamanho,
+            limite -> postagemRepository.buscarResumosPrimeiraPaginaPorUsuario(usuarioId, limite),
+            (c, limite) -> postagemRepository.buscarResumosPorUsuarioApos(usuarioId, c.getData(), c.getId(), limite),
+            PostagemService::cursorDe);
+    }
+
+    private static CursorPostagem cursorDe(PostagemResumoDTO resumo) {
+        return new CursorPostagem(resumo.getData(), resumo.getId());
+    }
+
+    // Busca uma linha a mais do que o pedido só para saber se existe próxima página
+    private <T> PaginaDTO<T> paginar(String cursor, Integer tamanho,
+            Function<Pageable, List<T>> primeiraPagina,
+            ConsultaApos<T> consultaApos,
+            Function<T, CursorPostagem> cursorDe) {
+        int tamanhoEfetivo = normalizarTamanho(tamanho);
+        Pageable limite = PageRequest.of(0, tamanhoEfetivo + 1);
+
+        List<T> linhas = cursor == null || cursor.isBlank()
+            ? primeiraPagina.apply(limite)
+            : consultaApos.buscar(CursorPostagem.decodificar(cursor), limite);
+
+        if (linhas.size() <= tamanhoEfetivo) {
+            return new PaginaDTO<>(linhas, null);
+        }
+        List<T> itens = linhas.subList(0, tamanhoEfetivo);
+        return new PaginaDTO<>(itens, cursorDe.apply(itens.get(tamanhoEfetivo - 1)).codificar());
+    }
+
+    private static int normalizarTamanho(Integer tamanho) {
+        if (tamanho == null || tamanho <= 0) return TAMANHO_PAGINA_PADRAO;
+        return Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+    }
+
+    @FunctionalInterface
+    private interface ConsultaApos<T> {
+        List<T> buscar(CursorPostagem cursor, Pageable limite);
+    }
+
     @Transactional
     public Optional<Postagem> criar(Postagem postagem) {
         // Valida se o tema existe
-        Optional<Tema> temaOpt = temaRepository.findById(postagem.getTema().getId());
+        Optional<Tema> temaOpt = catalogoTemas.buscarPorId(postagem.getTema().getId());
         if (temaOpt.isEmpty()) return Optional.empty();
 
         // Valida se o usuário existe
@@ -62,7 +199,24 @@ public class PostagemService {
 
         postagem.setTema(temaOpt.get());
         postagem.setUsuario(usuarioOpt.get());
-        return Optional.of(postagemRepository.save(postagem));
+        Postagem salva = postagemRepository.save(postagem);
+        eventos.publishEvent(PostagemEvento.criada(salva));
+        return Optional.of(salva);
+    }
+
+    // Gravação de uma edição já autorizada pelo chamador. A escrita e o evento ficam na mesma transação, para
+    // o registro de alterações entrar no mesmo commit
+    @Transactional
+    public Postagem salvarAtualizacao(Postagem postagem, Long temaAnteriorId) {
+        Postagem salva = postagemRepository.save(postagem);
+        eventos.publishEvent(PostagemEvento.atualizada(salva, temaAnteriorId));
+        return salva;
+    }
+
+    @Transactional
+    public void remover(Postagem postagem) {
+        postagemRepository.deleteById(postagem.getId());
+        eventos.publishEvent(PostagemEvento.removida(postagem));
     }
 
     @Transactional
@@ -74,13 +228,16 @@ public class PostagemService {
             )
             .flatMap(postagem -> {
                 // Valida se o tema existe
-                Optional<Tema> temaOpt = temaRepository.findById(postagemAtualizada.getTema().getId());
+                Optional<Tema> temaOpt = catalogoTemas.buscarPorId(postagemAtualizada.getTema().getId());
                 if (temaOpt.isEmpty()) return Optional.empty();
 
+                Long temaAnteriorId = postagem.getTema().getId();
                 postagem.setTitulo(postagemAtualizada.getTitulo());
                 postagem.setTexto(postagemAtualizada.getTexto());
                 postagem.setTema(temaOpt.get());
-                return Optional.of(postagemRepository.save(postagem));
+                Postagem salva = postagemRepository.save(postagem);
+                eventos.publishEvent(PostagemEvento.atualizada(salva, temaAnteriorId));
+                return Optional.of(salva);
             });
     }
 
@@ -93,6 +250,7 @@ public class PostagemService {
             )
             .map(postagem -> {
                 postagemRepository.deleteById(id);
+                eventos.publishEvent(PostagemEvento.removida(postagem));
                 return true;
             })
             .orElse(false);
@@ -4,11 +4,16 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import nilton.acelera.demo.cache.CatalogoTemas;
+import nilton.acelera.demo.cache.ContadoresPostagens;
+import nilton.acelera.demo.dto.TemaContagemDTO;
+import nilton.acelera.demo.evento.TemaEvento;
 import nilton.acelera.demo.model.Tema;
 import nilton.acelera.demo.repository.PostagemRepository;
 import nilton.acelera.demo.repository.TemaRepository;
@@ -22,41 +27,67 @@ public class TemaService {
     @Autowired
     private PostagemRepository postagemRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    // Leituras vêm do catálogo em memória; escritas vão ao banco e o catálogo é atualizado pelo TemaEvento
+    @Autowired
+    private CatalogoTemas catalogoTemas;
+
+    @Autowired
+    private ContadoresPostagens contadoresPostagens;
+
     public List<Tema> listarTodos() {
-        return temaRepository.findAll();
+        return catalogoTemas.listarTodos();
+    }
+
+    // Temas com o total de postagens de cada um, sem COUNT no banco
+    public List<TemaContagemDTO> listarComContagem() {
+        return catalogoTemas.listarTodos().stream()
+                .map(tema -> new TemaContagemDTO(tema.getId(), tema.getDescricao(),
+                        Math.max(contadoresPostagens.totalPorTema(tema.getId()), 0)))
+                .toList();
     }
 
     public Optional<Tema> buscarPorId(Long id) {
-        return temaRepository.findById(id);
+        return catalogoTemas.buscarPorId(id);
     }
 
     public List<Tema> buscarPorDescricao(String descricao) {
-        return temaRepository.findAllByDescricaoContainingIgnoreCase(descricao);
+        return catalogoTemas.buscarPorDescricao(descricao);
     }
 
     @Transactional
     public Tema criar(Tema tema) {
-        return temaRepository.save(tema);
+        Tema salvo = temaRepository.save(tema);
+        eventos.publishEvent(new TemaEvento(TemaEvento.Tipo.CRIADO, salvo));
+        return salvo;
     }
 
     @Transactional
     public Optional<Tema> atualizar(Long id, Tema temaAtualizado) {
-        return temaRepository.findById(id)
+        return catalogoTemas.buscarPorId(id)
                 .map(tema -> {
                     temaAtualizado.setId(id);
-                    return temaRepository.save(temaAtualizado);
+                    Tema salvo = temaRepository.save(temaAtualizado);
+                    eventos.publishEvent(new TemaEvento(TemaEvento.Tipo.ATUALIZADO, salvo));
+                    return salvo;
                 });
     }
 
     @Transactional
     public ResponseEntity<Void> deletar(Long id) {
-        if (!temaRepository.existsById(id)) {
+        Optional<Tema> tema = catalogoTemas.buscarPorId(id);
+        if (tema.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        if (!postagemRepository.findByTemaId(id).isEmpty()) {
+        // Contador positivo já decide sem consulta. Zero ainda é confirmado com um EXISTS (LIMIT 1), porque a
+        // exclusão cascateia para as postagens e um contador defasado (ex.: outra instância) não pode apagá-las.
+        if (contadoresPostagens.totalPorTema(id) > 0 || postagemRepository.existsByTemaId(id)) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
         }
         temaRepository.deleteById(id);
+        eventos.publishEvent(new TemaEvento(TemaEvento.Tipo.REMOVIDO, tema.get()));
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -3,12 +3,17 @@ package nilton.acelera.demo.service;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import nilton.acelera.demo.cache.FiltroUsuarios;
 import nilton.acelera.demo.dto.UsuarioLogin;
 import nilton.acelera.demo.dto.UsuarioTokenDTO;
+import nilton.acelera.demo.evento.PostagemEvento;
+import nilton.acelera.demo.evento.UsuarioEvento;
 import nilton.acelera.demo.model.TipoUsuario;
 import nilton.acelera.demo.model.Usuario;
 import nilton.acelera.demo.repository.UsuarioRepository;
@@ -26,16 +31,43 @@ public class UsuarioService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    // Registrar usuário (com validação aprimorada)
-    @Transactional
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private FiltroUsuarios filtroUsuarios;
+
+    // Cadastro e atualização abrem a transação só depois do hash da senha: o BCrypt leva dezenas de
+    // milissegundos de CPU, e com @Transactional a conexão do pool ficaria presa esse tempo todo
+    @Autowired
+    private TransactionTemplate transacao;
+
+    // Verificação do formulário de cadastro: o filtro de Bloom responde os "não existe" sem ir ao banco.
+    // O cadastro em si continua consultando o banco, que é quem garante a unicidade.
+    public boolean usuarioDisponivel(String usuario) {
+        if (filtroUsuarios.certamenteNaoExiste(usuario)) {
+            return true;
+        }
+        return !usuarioRepository.existsByUsuario(usuario);
+    }
+
+    // Registrar usuário (com validação aprimorada). Validação e login repetido saem antes do BCrypt, para que
+    // cadastros recusados não gastem CPU do pool de senhas; a consulta na transação continua valendo para corridas.
     public Optional<Usuario> cadastrarUsuario(Usuario usuario) {
-        return usuarioRepository.findByUsuario(usuario.getUsuario())
+        if (usuario.getUsuario() == null || usuario.getUsuario().isBlank()
+                || usuario.getSenha() == null || usuario.getSenha().isBlank()
+                || !usuarioDisponivel(usuario.getUsuario())) {
+            return Optional.empty();
+        }
+        usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
+        return transacao.execute(status -> usuarioRepository.findByUsuario(usuario.getUsuario())
             .map(u -> Optional.<Usuario>empty())
             .orElseGet(() -> {
                 usuario.setTipo(usuario.getTipo() != null ? usuario.getTipo() : TipoUsuario.ROLE_USER);
-                usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
-                return Optional.of(usuarioRepository.save(usuario));
-            });
+                Usuario salvo = usuarioRepository.save(usuario);
+                eventos.publishEvent(new UsuarioEvento(UsuarioEvento.Tipo.CADASTRADO, salvo, null));
+                return Optional.of(salvo);
+            }));
     }
 
     // Autenticar usuário (retorna DTO com token e tipo)
@@ -44,7 +76,7 @@ public class UsuarioService {
             return Optional.empty();
         }
 
-        return usuarioRepository.findByUsuario(usuarioLogin.getUsuario())
+        return usuarioRepository.buscarPorLogin(usuarioLogin.getUsuario())
             .filter(usuario -> passwordEncoder.matches(usuarioLogin.getSenha(), usuario.getSenha()))
             .map(usuario -> {
                 String token = jwtService.gerarToken(usuario.getUsuario());
@@ -60,10 +92,13 @@ public class UsuarioService {
     }
 
     // Atualizar usuário (com validação de senha e role)
-    @Transactional
     public Optional<Usuario> atualizarUsuario(Usuario usuarioAtualizado) {
-        return usuarioRepository.findById(usuarioAtualizado.getId())
+        String novaSenha = usuarioAtualizado.getSenha() != null && !usuarioAtualizado.getSenha().isBlank()
+            ? passwordEncoder.encode(usuarioAtualizado.getSenha())
+            : null;
+        return transacao.execute(status -> usuarioRepository.findById(usuarioAtualizado.getId())
             .map(usuario -> {
+                String usuarioAnterior = usuario.getUsuario();
                 usuario.setNome(usuarioAtualizado.getNome());
                 usuario.setUsuario(usuarioAtualizado.getUsuario());
                 usuario.setFoto(usuarioAtualizado.getFoto());
@@ -74,12 +109,15 @@ public class UsuarioService {
                 }
 
                 // Atualiza senha se foi informada
-                if (usuarioAtualizado.getSenha() != null && !usuarioAtualizado.getSenha().isBlank()) {
-                    usuario.setSenha(passwordEncoder.encode(usuarioAtualizado.getSenha()));
+                if (novaSenha != null) {
+                    usuario.setSenha(novaSenha);
                 }
 
-                return usuarioRepository.save(usuario);
-            });
+                Usuario salvo = usuarioRepository.save(usuario);
+                eventos.publishEvent(new UsuarioEvento(UsuarioEvento.Tipo.ATUALIZADO, salvo, usuarioAnterior,
+                    novaSenha != null, false));
+                return salvo;
+            }));
     }
 
     // Deletar usuário (com confirmação)
@@ -87,7 +125,10 @@ public class UsuarioService {
     public boolean deletarUsuario(Long id) {
         return usuarioRepository.findById(id)
             .map(usuario -> {
+                // As postagens do usuário saem junto (cascade); avisa quem mantém estruturas por postagem
+                usuario.getPostagens().forEach(postagem -> eventos.publishEvent(PostagemEvento.removida(postagem)));
                 usuarioRepository.delete(usuario);
+                eventos.publishEvent(new UsuarioEvento(UsuarioEvento.Tipo.REMOVIDO, usuario, null));
                 return true;
             })
             .orElse(false);
@@ -0,0 +1,52 @@
+package nilton.acelera.demo.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Responde 304 para GETs condicionais de /postagens e /temas antes de chegar ao controller:
+// sem consulta ao banco e sem serialização quando a versão da coleção não mudou.
+@Component
+public class GetCondicionalInterceptor implements HandlerInterceptor {
+
+    private final VersaoRecursos versaoRecursos;
+
+    public GetCondicionalInterceptor(VersaoRecursos versaoRecursos) {
+        this.versaoRecursos = versaoRecursos;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        VersaoRecursos.Recurso recurso = recursoDe(request.getRequestURI());
+        if (recurso == null) {
+            return true;
+        }
+        // A versão é lida antes da consulta: se uma escrita acontecer no meio, a próxima requisição já vê versão nova
+        String etag = versaoRecursos.etag(recurso);
+        // Permite guardar, mas obriga o navegador a revalidar a cada uso
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        boolean naoModificado = new ServletWebRequest(request, response).checkNotModified(etag);
+        return !naoModificado;
+    }
+
+    private static VersaoRecursos.Recurso recursoDe(String uri) {
+        // Os totais por tema mudam com as postagens (e a versão de postagens também muda com os temas)
+        if (uri.equals("/temas/contagens")) {
+            return VersaoRecursos.Recurso.POSTAGENS;
+        }
+        if (uri.equals("/postagens") || uri.startsWith("/postagens/")) {
+            return VersaoRecursos.Recurso.POSTAGENS;
+        }
+        if (uri.equals("/temas") || uri.startsWith("/temas/")) {
+            return VersaoRecursos.Recurso.TEMAS;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,142 @@
+package nilton.acelera.demo.web;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Log de acesso: uma linha por requisição (logfmt) no logger "acesso", com método, caminho, status,
+// duração e IP. Cabeçalhos nunca entram; parâmetros sensíveis da query saem como "***".
+// Com amostragem < 1 só parte das requisições é registrada, mas erros 5xx e requisições lentas sempre entram.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RegistroAcessoFilter extends OncePerRequestFilter {
+
+    private static final Logger acesso = LoggerFactory.getLogger("acesso");
+
+    private final double amostragem;
+    private final long lentoNanos;
+    private final String cabecalhoIp;
+    private final Set<String> parametrosOcultos;
+
+    public RegistroAcessoFilter(
+            @Value("${blog.acesso.amostragem:1.0}") double amostragem,
+            @Value("${blog.acesso.lento-ms:1000}") long lentoMs,
+            @Value("${blog.limite.cabecalho-ip:}") String cabecalhoIp,
+            @Value("${blog.acesso.parametros-ocultos:token,senha,password,tokenRenovacao}") String parametrosOcultos) {
+        this.amostragem = amostragem;
+        this.lentoNanos = lentoMs * 1_000_000;
+        this.cabecalhoIp = cabecalhoIp;
+        this.parametrosOcultos = Arrays.stream(parametrosOcultos.split(","))
+                .map(String::trim)
+                .filter(p -> !p.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !acesso.isInfoEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long inicio = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streaming (ex.: exportação): o status e a duração só existem quando a resposta termina
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent evento) {
+                        registrar(request, response, inicio);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent evento) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent evento) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent evento) {
+                    }
+                });
+            } else {
+                registrar(request, response, inicio);
+            }
+        }
+    }
+
+    private void registrar(HttpServletRequest request, HttpServletResponse response, long inicio) {
+        long duracao = System.nanoTime() - inicio;
+        int status = response.getStatus();
+        boolean obrigatorio = status >= 500 || duracao >= lentoNanos;
+        if (!obrigatorio && amostragem < 1.0 && ThreadLocalRandom.current().nextDouble() >= amostragem) {
+            return;
+        }
+
+        StringBuilder linha = new StringBuilder(160);
+        linha.append("metodo=").append(request.getMethod())
+                .append(" caminho=").append(request.getRequestURI());
+        String query = request.getQueryString();
+        if (query != null) {
+            linha.append('?');
+            ocultar(query, linha);
+        }
+        linha.append(" status=").append(status)
+                .append(" duracao_ms=").append(duracao / 1_000_000)
+                .append(" ip=").append(ip(request));
+        acesso.info(linha.toString());
+    }
+
+    private void ocultar(String query, StringBuilder destino) {
+        int inicio = 0;
+        while (inicio <= query.length()) {
+            int fim = query.indexOf('&', inicio);
+            if (fim < 0) {
+                fim = query.length();
+            }
+            int igual = query.indexOf('=', inicio);
+            if (igual > inicio && igual < fim && parametrosOcultos.contains(query.substring(inicio, igual))) {
+                destino.append(query, inicio, igual + 1).append("***");
+            } else {
+                destino.append(query, inicio, fim);
+            }
+            if (fim == query.length()) {
+                break;
+            }
+            destino.append('&');
+            inicio = fim + 1;
+        }
+    }
+
+    private String ip(HttpServletRequest request) {
+        if (!cabecalhoIp.isEmpty()) {
+            String ip = request.getHeader(cabecalhoIp);
+            if (ip != null && !ip.isBlank()) {
+                return ip;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,70 @@
+package nilton.acelera.demo.web;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import nilton.acelera.demo.evento.OrdemOuvintes;
+import nilton.acelera.demo.evento.PostagemEvento;
+import nilton.acelera.demo.evento.TemaEvento;
+import nilton.acelera.demo.evento.UsuarioEvento;
+
+// Número de versão por coleção, incrementado após o commit de cada escrita (local ou aplicada de outra instância)
+// e quando uma estrutura em memória muda sem escrita: troca do índice de busca, contadores relidos ou recontados.
+// Serve de base para o ETag: enquanto a versão não muda, qualquer resposta da coleção é a mesma.
+// Sem Last-Modified: com resolução de segundo, duas escritas no mesmo segundo dariam um 304 falso
+// a quem revalida só com If-Modified-Since.
+@Component
+public class VersaoRecursos {
+
+    public enum Recurso {
+        POSTAGENS,
+        TEMAS
+    }
+
+    // Distingue ETags de execuções diferentes (a versão recomeça do zero a cada subida)
+    private final String geracao = Long.toHexString(System.currentTimeMillis());
+    private final Map<Recurso, AtomicLong> versoes = new EnumMap<>(Recurso.class);
+
+    public VersaoRecursos() {
+        for (Recurso recurso : Recurso.values()) {
+            versoes.put(recurso, new AtomicLong());
+        }
+    }
+
+    // ETag forte (entre aspas) no formato "recurso-geracao-versao"
+    public String etag(Recurso recurso) {
+        return "\"" + recurso.name().toLowerCase() + "-" + geracao + "-" + versoes.get(recurso).get() + "\"";
+    }
+
+    public void incrementar(Recurso recurso) {
+        versoes.get(recurso).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(OrdemOuvintes.VERSOES)
+    public void aoAlterarPostagem(PostagemEvento evento) {
+        incrementar(Recurso.POSTAGENS);
+    }
+
+    // As postagens embutem o tema, então mudar um tema também muda as respostas de /postagens
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(OrdemOuvintes.VERSOES)
+    public void aoAlterarTema(TemaEvento evento) {
+        incrementar(Recurso.TEMAS);
+        incrementar(Recurso.POSTAGENS);
+    }
+
+    // Idem para o autor embutido em cada postagem
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(OrdemOuvintes.VERSOES)
+    public void aoAlterarUsuario(UsuarioEvento evento) {
+        if (evento.getTipo() != UsuarioEvento.Tipo.CADASTRADO) {
+            incrementar(Recurso.POSTAGENS);
+        }
+    }
+}
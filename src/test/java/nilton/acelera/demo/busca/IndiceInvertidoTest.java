@@ -0,0 +1,117 @@
+package nilton.acelera.demo.busca;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class IndiceInvertidoTest {
+
+    private static List<Long> ids(List<ResultadoBusca> resultados) {
+        return resultados.stream().map(ResultadoBusca::getPostagemId).toList();
+    }
+
+    @Test
+    void termoNoTituloPesaMaisQueNoTexto() {
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.indexar(1, "Receitas", "um texto sobre java e outras coisas");
+        indice.indexar(2, "Java na prática", "um texto sobre outras coisas");
+        indice.indexar(3, "Viagens", "praia e montanha");
+
+        assertThat(ids(indice.buscar("java", 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void buscaIgnoraAcentosEMaiusculas() {
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.indexar(1, "Programação funcional", "");
+
+        assertThat(ids(indice.buscar("PROGRAMACAO", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void documentoComMaisTermosDaConsultaVemPrimeiro() {
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.indexar(1, "", "banco de dados");
+        indice.indexar(2, "", "banco de dados relacional");
+        indice.indexar(3, "", "modelo relacional");
+
+        assertThat(ids(indice.buscar("banco relacional", 10)).get(0)).isEqualTo(2L);
+    }
+
+    @Test
+    void limiteCortaOsMenosRelevantes() {
+        IndiceInvertido indice = new IndiceInvertido();
+        for (long id = 1; id <= 30; id++) {
+            indice.indexar(id, id <= 3 ? "cache cache" : "", "cache");
+        }
+
+        List<ResultadoBusca> resultados = indice.buscar("cache", 3);
+        assertThat(ids(resultados)).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(resultados).isSortedAccordingTo((a, b) -> Double.compare(b.getPontuacao(), a.getPontuacao()));
+    }
+
+    @Test
+    void reindexarSubstituiOsTermosAnteriores() {
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.indexar(1, "Kotlin", "");
+        indice.indexar(1, "Scala", "");
+
+        assertThat(indice.buscar("kotlin", 10)).isEmpty();
+        assertThat(ids(indice.buscar("scala", 10))).containsExactly(1L);
+        assertThat(indice.totalDocumentos()).isEqualTo(1);
+        assertThat(indice.totalTermos()).isEqualTo(1);
+    }
+
+    @Test
+    void removerApagaTermosQueFicaramSemPostagem() {
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.indexar(1, "Docker", "containers");
+        indice.indexar(2, "Kubernetes", "containers");
+        indice.remover(1);
+
+        assertThat(indice.buscar("docker", 10)).isEmpty();
+        assertThat(ids(indice.buscar("containers", 10))).containsExactly(2L);
+        assertThat(indice.totalTermos()).isEqualTo(2);
+    }
+
+    @Test
+    void consultaSoComStopwordsNaoRetornaNada() {
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.indexar(1, "Uma postagem", "de teste");
+
+        assertThat(indice.buscar("de uma", 10)).isEmpty();
+    }
+
+    @Test
+    void gravarELerPreservaResultadosEMaiorId() throws IOException {
+        IndiceInvertido original = new IndiceInvertido();
+        original.indexar(5, "Segurança em APIs", "tokens jwt e senhas");
+        original.indexar(9, "Cache distribuído", "tokens em memória");
+        original.remover(9);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.gravar(new DataOutputStream(bytes));
+        IndiceInvertido lido = IndiceInvertido.ler(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(lido.getMaiorId()).isEqualTo(9L);
+        assertThat(lido.totalDocumentos()).isEqualTo(1);
+        assertThat(lido.buscar("tokens seguranca", 10)).usingRecursiveFieldByFieldElementComparator()
+            .containsExactlyElementsOf(original.buscar("tokens seguranca", 10));
+    }
+
+    @Test
+    void lerRecusaArquivoEmOutroFormato() {
+        byte[] lixo = {0, 0, 0, 1, 0, 0, 0, 1};
+
+        assertThatThrownBy(() -> IndiceInvertido.ler(new DataInputStream(new ByteArrayInputStream(lixo))))
+            .isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,36 @@
+package nilton.acelera.demo.busca;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TokenizadorTest {
+
+    @Test
+    void normalizaMaiusculasEAcentos() {
+        assertThat(Tokenizador.tokenizar("Programação em JAVA")).containsExactly("programacao", "java");
+    }
+
+    @Test
+    void descartaStopwordsETermosCurtos() {
+        assertThat(Tokenizador.tokenizar("O cão e a gata x, de novo")).containsExactly("cao", "gata", "novo");
+    }
+
+    @Test
+    void separaPorQualquerCaractereQueNaoSejaLetraOuDigito() {
+        assertThat(Tokenizador.tokenizar("spring-boot/3.4 (jvm)")).containsExactly("spring", "boot", "jvm");
+        assertThat(Tokenizador.tokenizar("java21")).containsExactly("java21");
+    }
+
+    @Test
+    void textoVazioOuNuloNaoGeraTermos() {
+        assertThat(Tokenizador.tokenizar(null)).isEmpty();
+        assertThat(Tokenizador.tokenizar("")).isEmpty();
+        assertThat(Tokenizador.tokenizar(" , . ")).isEmpty();
+    }
+
+    @Test
+    void normalizarMantemPontuacao() {
+        assertThat(Tokenizador.normalizar("João@Exemplo.COM")).isEqualTo("joao@exemplo.com");
+    }
+}
@@ -0,0 +1,154 @@
+package nilton.acelera.demo.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import nilton.acelera.demo.AceleraMakerBlogApplication;
+import nilton.acelera.demo.model.ContadorPostagens;
+import nilton.acelera.demo.model.ContadorPostagens.Escopo;
+import nilton.acelera.demo.model.Postagem;
+import nilton.acelera.demo.model.Tema;
+import nilton.acelera.demo.model.Usuario;
+import nilton.acelera.demo.repository.ContadorPostagensRepository;
+import nilton.acelera.demo.repository.UsuarioRepository;
+import nilton.acelera.demo.service.PostagemService;
+import nilton.acelera.demo.service.TemaService;
+
+// Banco H2 em memória compartilhado entre as classes de teste: cada teste cria o próprio tema e autor
+@SpringBootTest(classes = AceleraMakerBlogApplication.class)
+@ActiveProfiles("teste")
+class ContadoresPostagensTest {
+
+    @Autowired
+    private ContadoresPostagens contadores;
+    @Autowired
+    private ContadorPostagensRepository contadorRepository;
+    @Autowired
+    private PostagemService postagemService;
+    @Autowired
+    private TemaService temaService;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Usuario autor;
+    private Tema tema;
+
+    @BeforeEach
+    void criarAutorETema() {
+        autor = novoAutor(usuarioRepository);
+        tema = novoTema(temaService);
+    }
+
+    static Usuario novoAutor(UsuarioRepository usuarioRepository) {
+        Usuario usuario = new Usuario();
+        usuario.setNome("Autor");
+        usuario.setUsuario(UUID.randomUUID() + "@blog.com");
+        usuario.setSenha("senha-nao-usada");
+        return usuarioRepository.save(usuario);
+    }
+
+    static Tema novoTema(TemaService temaService) {
+        Tema tema = new Tema();
+        tema.setDescricao("Tema " + UUID.randomUUID());
+        return temaService.criar(tema);
+    }
+
+    private Postagem criarPostagem(Tema doTema) {
+        return postagemService.criar(new Postagem("Título", "Texto", autor, doTema)).orElseThrow();
+    }
+
+    private Map<Long, Long> gravados(Escopo escopo, Long... ids) {
+        return contadorRepository.findByEscopoAndReferenciaIdIn(escopo, List.of(ids)).stream()
+            .collect(Collectors.toMap(ContadorPostagens::getReferenciaId, ContadorPostagens::getTotal));
+    }
+
+    @Test
+    void criacaoApareceNaHoraEVaiParaATabelaNaGravacao() {
+        criarPostagem(tema);
+        criarPostagem(tema);
+
+        assertThat(contadores.totalPorTema(tema.getId())).isEqualTo(2);
+        assertThat(contadores.totalPorUsuario(autor.getId())).isEqualTo(2);
+        assertThat(gravados(Escopo.TEMA, tema.getId())).isEmpty();
+
+        contadores.gravarPendentes();
+
+        assertThat(gravados(Escopo.TEMA, tema.getId())).containsEntry(tema.getId(), 2L);
+        assertThat(gravados(Escopo.USUARIO, autor.getId())).containsEntry(autor.getId(), 2L);
+        assertThat(contadores.totalPorTema(tema.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void trocaDeTemaMoveAPostagemDeUmContadorParaOOutro() {
+        Tema outro = novoTema(temaService);
+        Postagem postagem = criarPostagem(tema);
+        contadores.gravarPendentes();
+
+        postagemService.atualizar(postagem.getId(), new Postagem("Título", "Texto", null, outro), autor).orElseThrow();
+
+        assertThat(contadores.totalPorTema(tema.getId())).isZero();
+        assertThat(contadores.totalPorTema(outro.getId())).isEqualTo(1);
+        assertThat(contadores.totalPorUsuario(autor.getId())).isEqualTo(1);
+
+        contadores.gravarPendentes();
+
+        assertThat(gravados(Escopo.TEMA, tema.getId(), outro.getId()))
+            .containsEntry(tema.getId(), 0L)
+            .containsEntry(outro.getId(), 1L);
+    }
+
+    @Test
+    void criacaoERemocaoAntesDaGravacaoNaoGravamNada() {
+        Postagem postagem = criarPostagem(tema);
+        assertThat(postagemService.deletar(postagem.getId(), autor)).isTrue();
+
+        assertThat(contadores.totalPorTema(tema.getId())).isZero();
+        contadores.gravarPendentes();
+
+        // Delta zerado não vira upsert
+        assertThat(gravados(Escopo.TEMA, tema.getId())).isEmpty();
+        assertThat(gravados(Escopo.USUARIO, autor.getId())).isEmpty();
+    }
+
+    @Test
+    void recontagemDescartaODeltaQueElaJaContou() {
+        criarPostagem(tema);
+
+        contadores.recontar();
+
+        assertThat(contadores.totalPorTema(tema.getId())).isEqualTo(1);
+        contadores.gravarPendentes();
+        assertThat(gravados(Escopo.TEMA, tema.getId())).containsEntry(tema.getId(), 1L);
+        assertThat(contadores.totalPorTema(tema.getId())).isEqualTo(1);
+
+        criarPostagem(tema);
+        contadores.gravarPendentes();
+        assertThat(gravados(Escopo.TEMA, tema.getId())).containsEntry(tema.getId(), 2L);
+        assertThat(contadores.totalPorUsuario(autor.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void escritaDesfeitaNaoConta() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            criarPostagem(tema);
+            status.setRollbackOnly();
+        });
+
+        assertThat(contadores.totalPorTema(tema.getId())).isZero();
+        assertThat(contadores.totalPorUsuario(autor.getId())).isZero();
+    }
+}
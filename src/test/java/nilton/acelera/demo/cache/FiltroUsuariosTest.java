@@ -0,0 +1,145 @@
+package nilton.acelera.demo.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import nilton.acelera.demo.evento.UsuarioEvento;
+import nilton.acelera.demo.evento.UsuarioEvento.Tipo;
+import nilton.acelera.demo.model.Usuario;
+import nilton.acelera.demo.repository.UsuarioRepository;
+
+class FiltroUsuariosTest {
+
+    private UsuarioRepository usuarioRepository;
+    private FiltroUsuarios filtro;
+
+    @BeforeEach
+    void criar() {
+        usuarioRepository = mock(UsuarioRepository.class);
+        filtro = new FiltroUsuarios(usuarioRepository, 1 << 16, 7);
+    }
+
+    @AfterEach
+    void encerrar() {
+        filtro.encerrar();
+    }
+
+    private static UsuarioEvento evento(Tipo tipo, String login, String anterior) {
+        Usuario usuario = new Usuario();
+        usuario.setUsuario(login);
+        return new UsuarioEvento(tipo, usuario, anterior);
+    }
+
+    @Test
+    void antesDeCarregarNadaEDescartado() {
+        assertThat(filtro.isPronto()).isFalse();
+        assertThat(filtro.certamenteNaoExiste("ana@blog.com")).isFalse();
+    }
+
+    @Test
+    void loginCarregadoPodeExistirEDesconhecidoCertamenteNao() {
+        when(usuarioRepository.listarLogins()).thenReturn(List.of("ana@blog.com", "bruno@blog.com"));
+        filtro.construir();
+
+        assertThat(filtro.certamenteNaoExiste("ana@blog.com")).isFalse();
+        assertThat(filtro.certamenteNaoExiste("bruno@blog.com")).isFalse();
+        assertThat(filtro.certamenteNaoExiste("carla@blog.com")).isTrue();
+        assertThat(filtro.getNegativos()).isEqualTo(1);
+        assertThat(filtro.getConsultasAoBanco()).isEqualTo(2);
+    }
+
+    // Mesma comparação da collation do MySQL: o banco acharia estes logins, então o filtro não pode descartá-los
+    @Test
+    void ignoraMaiusculasAcentosEEspacosNasPontas() {
+        when(usuarioRepository.listarLogins()).thenReturn(List.of("joão@blog.com"));
+        filtro.construir();
+
+        assertThat(filtro.certamenteNaoExiste("JOAO@blog.com")).isFalse();
+        assertThat(filtro.certamenteNaoExiste(" Joao@Blog.com ")).isFalse();
+    }
+
+    @Test
+    void cadastroERenomeacaoEntramNoFiltro() {
+        when(usuarioRepository.listarLogins()).thenReturn(List.of());
+        filtro.construir();
+
+        filtro.aoAlterarUsuario(evento(Tipo.CADASTRADO, "novo@blog.com", null));
+        filtro.aoAlterarUsuario(evento(Tipo.ATUALIZADO, "renomeado@blog.com", "novo@blog.com"));
+
+        assertThat(filtro.certamenteNaoExiste("novo@blog.com")).isFalse();
+        assertThat(filtro.certamenteNaoExiste("renomeado@blog.com")).isFalse();
+    }
+
+    @Test
+    void cadastroDuranteAConstrucaoNaoSePerde() {
+        when(usuarioRepository.listarLogins()).thenAnswer(chamada -> {
+            // Commit de um cadastro enquanto a consulta da construção ainda está em andamento
+            filtro.aoAlterarUsuario(evento(Tipo.CADASTRADO, "durante@blog.com", null));
+            return List.of("antes@blog.com");
+        });
+        filtro.construir();
+
+        assertThat(filtro.certamenteNaoExiste("antes@blog.com")).isFalse();
+        assertThat(filtro.certamenteNaoExiste("durante@blog.com")).isFalse();
+    }
+
+    @Test
+    void muitasRemocoesRefazemOFiltroForaDaThreadDoCommit() {
+        when(usuarioRepository.listarLogins())
+            .thenReturn(List.of("saiu@blog.com", "ficou@blog.com"))
+            .thenReturn(List.of("ficou@blog.com"));
+        filtro.construir();
+
+        for (int i = 0; i <= 100; i++) {
+            filtro.aoAlterarUsuario(evento(Tipo.REMOVIDO, "removido" + i + "@blog.com", null));
+        }
+
+        aguardar(() -> filtro.certamenteNaoExiste("saiu@blog.com"));
+        assertThat(filtro.certamenteNaoExiste("ficou@blog.com")).isFalse();
+        verify(usuarioRepository, times(2)).listarLogins();
+    }
+
+    @Test
+    void falhaAoRefazerMantemOFiltroAtualEPermiteNovaTentativa() {
+        when(usuarioRepository.listarLogins())
+            .thenReturn(List.of("ana@blog.com"))
+            .thenThrow(new IllegalStateException("banco fora"))
+            .thenReturn(List.of("ana@blog.com"));
+        filtro.construir();
+
+        for (int i = 0; i <= 100; i++) {
+            filtro.aoAlterarUsuario(evento(Tipo.REMOVIDO, "removido" + i + "@blog.com", null));
+        }
+        verify(usuarioRepository, timeout(5_000).times(2)).listarLogins();
+        assertThat(filtro.certamenteNaoExiste("ana@blog.com")).isFalse();
+
+        // Depois da falha, uma nova remoção agenda outra reconstrução
+        aguardar(() -> {
+            filtro.aoAlterarUsuario(evento(Tipo.REMOVIDO, "outro@blog.com", null));
+            return mockingDetails(usuarioRepository).getInvocations().size() >= 3;
+        });
+        verify(usuarioRepository, timeout(5_000).times(3)).listarLogins();
+    }
+
+    private static void aguardar(BooleanSupplier condicao) {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tempo de espera esgotado").isLessThan(limite);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package nilton.acelera.demo.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class LinhaDoTempoTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private static LocalDateTime minuto(int m) {
+        return BASE.plusMinutes(m);
+    }
+
+    private static LinhaDoTempo vazia(int capacidade) {
+        LinhaDoTempo linha = new LinhaDoTempo(capacidade);
+        linha.preencher(List.of(), List.of(), List.of(), true);
+        return linha;
+    }
+
+    @Test
+    void ordenaDaMaisNovaParaAMaisAntigaComDesempatePorId() {
+        LinhaDoTempo linha = vazia(5);
+        linha.inserir(1, minuto(1), 10);
+        linha.inserir(3, minuto(3), 10);
+        linha.inserir(2, minuto(3), 10);
+        linha.inserir(4, minuto(2), 10);
+
+        assertThat(linha.listar(10, null)).containsExactly(3L, 2L, 4L, 1L);
+    }
+
+    @Test
+    void cargaInicialMenorQueACapacidadeEAHistoriaInteira() {
+        LinhaDoTempo linha = new LinhaDoTempo(3);
+        linha.preencher(List.of(9L, 8L), List.of(minuto(9), minuto(8)), List.of(1L, 2L), true);
+
+        assertThat(linha.listar(3, null)).containsExactly(9L, 8L);
+        assertThat(linha.listar(3, 2L)).containsExactly(8L);
+    }
+
+    @Test
+    void cargaInicialMaiorQueACapacidadeGuardaSoOPrefixo() {
+        LinhaDoTempo linha = new LinhaDoTempo(2);
+        linha.preencher(List.of(9L, 8L, 7L), List.of(minuto(9), minuto(8), minuto(7)), List.of(1L, 1L, 1L), true);
+
+        assertThat(linha.listar(2, null)).containsExactly(9L, 8L);
+        // Pede mais do que o anel tem e ele não é a história inteira: vai ao banco
+        assertThat(linha.listar(3, null)).isNull();
+    }
+
+    @Test
+    void anelCheioDescartaAMaisAntigaEDeixaDeSerCompleto() {
+        LinhaDoTempo linha = vazia(3);
+        for (int i = 1; i <= 4; i++) {
+            linha.inserir(i, minuto(i), 10);
+        }
+
+        assertThat(linha.listar(3, null)).containsExactly(4L, 3L, 2L);
+        assertThat(linha.listar(4, null)).isNull();
+    }
+
+    @Test
+    void postagemMaisAntigaQueOAnelIncompletoFicaSoNoBanco() {
+        LinhaDoTempo linha = new LinhaDoTempo(3);
+        linha.preencher(List.of(9L, 8L, 7L), List.of(minuto(9), minuto(8), minuto(7)), List.of(1L, 1L, 1L), false);
+        linha.inserir(1, minuto(1), 1);
+
+        assertThat(linha.listar(3, null)).containsExactly(9L, 8L, 7L);
+    }
+
+    @Test
+    void removerEReinserirComNovaDataReposiciona() {
+        LinhaDoTempo linha = vazia(4);
+        linha.inserir(1, minuto(1), 10);
+        linha.inserir(2, minuto(2), 10);
+        linha.inserir(3, minuto(3), 10);
+
+        linha.inserir(1, minuto(5), 10);
+        assertThat(linha.listar(4, null)).containsExactly(1L, 3L, 2L);
+
+        linha.remover(3);
+        assertThat(linha.listar(4, null)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void filtroPorTemaSemEntradasSuficientesVaiAoBanco() {
+        LinhaDoTempo linha = vazia(3);
+        linha.inserir(1, minuto(1), 10);
+        linha.inserir(2, minuto(2), 20);
+        linha.inserir(3, minuto(3), 10);
+        linha.inserir(4, minuto(4), 20);
+
+        assertThat(linha.listar(1, 20L)).containsExactly(4L);
+        // O anel (4, 3, 2) não é mais completo: a postagem 1 do tema 10 pode estar fora dele
+        assertThat(linha.listar(2, 10L)).isNull();
+    }
+
+    @Test
+    void dataNulaVemDepoisDeTodasAsOutras() {
+        LinhaDoTempo linha = vazia(3);
+        linha.inserir(1, null, 10);
+        linha.inserir(2, minuto(1), 10);
+
+        assertThat(linha.listar(3, null)).containsExactly(2L, 1L);
+    }
+
+    // O que listar devolve (quando não pede o banco) é sempre o que a consulta ao banco devolveria
+    @Test
+    void sequenciaAleatoriaDeOperacoesConcordaComALinhaDoTempoReal() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        int capacidade = 6;
+        LinhaDoTempo linha = vazia(capacidade);
+        Map<Long, Entrada> reais = new HashMap<>();
+
+        for (int passo = 0; passo < 5_000; passo++) {
+            long id = 1 + aleatorio.nextInt(25);
+            if (aleatorio.nextInt(4) == 0) {
+                linha.remover(id);
+                reais.remove(id);
+            } else {
+                // Poucas datas distintas: força empates resolvidos pelo id
+                Entrada entrada = new Entrada(id, minuto(aleatorio.nextInt(15)), 1 + aleatorio.nextInt(3));
+                linha.inserir(id, entrada.data, entrada.tema);
+                reais.put(id, entrada);
+            }
+
+            int limite = 1 + aleatorio.nextInt(capacidade + 2);
+            Long tema = aleatorio.nextBoolean() ? null : (long) (1 + aleatorio.nextInt(3));
+            List<Long> listados = linha.listar(limite, tema);
+            if (listados != null) {
+                assertThat(listados).as("passo %d, limite %d, tema %s", passo, limite, tema)
+                    .isEqualTo(esperados(reais, limite, tema));
+            }
+        }
+    }
+
+    private static List<Long> esperados(Map<Long, Entrada> reais, int limite, Long tema) {
+        List<Entrada> ordenadas = new ArrayList<>(reais.values());
+        ordenadas.sort(Comparator.comparing((Entrada e) -> e.data).thenComparingLong(e -> e.id).reversed());
+        return ordenadas.stream()
+            .filter(e -> tema == null || e.tema == tema)
+            .limit(limite)
+            .map(e -> e.id)
+            .toList();
+    }
+
+    private record Entrada(long id, LocalDateTime data, long tema) {
+    }
+}
@@ -0,0 +1,184 @@
+package nilton.acelera.demo.cache;
+
+import static nilton.acelera.demo.cache.ContadoresPostagensTest.novoAutor;
+import static nilton.acelera.demo.cache.ContadoresPostagensTest.novoTema;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import nilton.acelera.demo.AceleraMakerBlogApplication;
+import nilton.acelera.demo.busca.IndicePostagens;
+import nilton.acelera.demo.busca.ResultadoBusca;
+import nilton.acelera.demo.evento.TemaEvento;
+import nilton.acelera.demo.model.Postagem;
+import nilton.acelera.demo.model.RegistroAlteracao;
+import nilton.acelera.demo.model.RegistroAlteracao.Entidade;
+import nilton.acelera.demo.model.Tema;
+import nilton.acelera.demo.model.Usuario;
+import nilton.acelera.demo.repository.PostagemRepository;
+import nilton.acelera.demo.repository.RegistroAlteracaoRepository;
+import nilton.acelera.demo.repository.TemaRepository;
+import nilton.acelera.demo.repository.UsuarioRepository;
+import nilton.acelera.demo.service.PostagemService;
+import nilton.acelera.demo.service.TemaService;
+
+@SpringBootTest(classes = AceleraMakerBlogApplication.class)
+@ActiveProfiles("teste")
+class RegistroAlteracoesTest {
+
+    private static final String OUTRA_INSTANCIA = "outra-instancia";
+
+    @Autowired
+    private RegistroAlteracoes registroAlteracoes;
+    @Autowired
+    private RegistroAlteracaoRepository registroRepository;
+    @Autowired
+    private LeitorAlteracoes leitor;
+    @Autowired
+    private ContadoresPostagens contadores;
+    @Autowired
+    private CatalogoTemas catalogoTemas;
+    @Autowired
+    private IndicePostagens indicePostagens;
+    @Autowired
+    private PostagemService postagemService;
+    @Autowired
+    private PostagemRepository postagemRepository;
+    @Autowired
+    private TemaService temaService;
+    @Autowired
+    private TemaRepository temaRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private ApplicationEventPublisher eventos;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Usuario autor;
+    private Tema tema;
+
+    @BeforeEach
+    void criarAutorETema() {
+        autor = novoAutor(usuarioRepository);
+        tema = novoTema(temaService);
+    }
+
+    private List<RegistroAlteracao> registradas(Entidade entidade, Long referenciaId) {
+        return registroRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.unlimited()).stream()
+            .filter(r -> r.getEntidade() == entidade && r.getReferenciaId().equals(referenciaId))
+            .toList();
+    }
+
+    @Test
+    void escritaEntraNoRegistroComTemaEAutor() {
+        Postagem postagem = postagemService.criar(new Postagem("Título", "Texto", autor, tema)).orElseThrow();
+
+        assertThat(registradas(Entidade.POSTAGEM, postagem.getId())).singleElement().satisfies(r -> {
+            assertThat(r.getTipo()).isEqualTo("CRIADA");
+            assertThat(r.getInstancia()).isEqualTo(registroAlteracoes.getInstancia());
+            assertThat(r.getTemaId()).isEqualTo(tema.getId());
+            assertThat(r.getUsuarioId()).isEqualTo(autor.getId());
+        });
+        assertThat(registradas(Entidade.TEMA, tema.getId())).extracting(RegistroAlteracao::getTipo)
+            .containsExactly("CRIADO");
+    }
+
+    @Test
+    void variasEscritasNaMesmaTransacaoEntramJuntas() {
+        Postagem postagem = new TransactionTemplate(transactionManager).execute(status -> {
+            Postagem criada = postagemService.criar(new Postagem("Título", "Texto", autor, tema)).orElseThrow();
+            criada.setTitulo("Outro título");
+            return postagemService.salvarAtualizacao(criada, tema.getId());
+        });
+
+        assertThat(registradas(Entidade.POSTAGEM, postagem.getId())).extracting(RegistroAlteracao::getTipo)
+            .containsExactly("CRIADA", "ATUALIZADA");
+    }
+
+    @Test
+    void escritaDesfeitaNaoDeixaLinha() {
+        Postagem desfeita = new TransactionTemplate(transactionManager).execute(status -> {
+            Postagem criada = postagemService.criar(new Postagem("Título", "Texto", autor, tema)).orElseThrow();
+            status.setRollbackOnly();
+            return criada;
+        });
+
+        assertThat(postagemRepository.existsById(desfeita.getId())).isFalse();
+        assertThat(registradas(Entidade.POSTAGEM, desfeita.getId())).isEmpty();
+    }
+
+    @Test
+    void eventoForaDeTransacaoFalhaNaHora() {
+        assertThatThrownBy(() -> eventos.publishEvent(new TemaEvento(TemaEvento.Tipo.ATUALIZADO, tema)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("fora de transação");
+    }
+
+    // Escritas de outra instância: as linhas e as entidades existem no banco, mas nenhum evento local foi publicado
+    @Test
+    void leitorAplicaAsEscritasDeOutraInstancia() {
+        aguardarIndice();
+        Tema remoto = new Tema();
+        remoto.setDescricao("Tema remoto " + System.nanoTime());
+        remoto = temaRepository.save(remoto);
+        Postagem postagem = postagemRepository.save(new Postagem("Observabilidade distribuída", "Texto", autor, remoto));
+        registroRepository.save(remota(Entidade.TEMA, "CRIADO", remoto.getId(), null, null));
+        registroRepository.save(remota(Entidade.POSTAGEM, "CRIADA", postagem.getId(), remoto.getId(), autor.getId()));
+        long aplicadas = leitor.getAplicadas();
+
+        assertThat(catalogoTemas.existe(remoto.getId())).isFalse();
+        assertThat(contadores.totalPorTema(remoto.getId())).isZero();
+
+        leitor.acompanhar();
+
+        assertThat(leitor.getAplicadas()).isEqualTo(aplicadas + 2);
+        assertThat(catalogoTemas.existe(remoto.getId())).isTrue();
+        assertThat(contadores.totalPorTema(remoto.getId())).isEqualTo(1);
+        assertThat(contadores.totalPorUsuario(autor.getId())).isEqualTo(1);
+        assertThat(indicePostagens.buscar("observabilidade", 10)).extracting(ResultadoBusca::getPostagemId)
+            .contains(postagem.getId());
+
+        // As linhas próprias são puladas: nada é aplicado duas vezes
+        postagemService.criar(new Postagem("Título", "Texto", autor, remoto)).orElseThrow();
+        leitor.acompanhar();
+        assertThat(leitor.getAplicadas()).isEqualTo(aplicadas + 2);
+        assertThat(contadores.totalPorTema(remoto.getId())).isEqualTo(2);
+    }
+
+    private static RegistroAlteracao remota(Entidade entidade, String tipo, Long referenciaId, Long temaId,
+            Long usuarioId) {
+        RegistroAlteracao alteracao = new RegistroAlteracao();
+        alteracao.setInstancia(OUTRA_INSTANCIA);
+        alteracao.setEntidade(entidade);
+        alteracao.setTipo(tipo);
+        alteracao.setReferenciaId(referenciaId);
+        alteracao.setTemaId(temaId);
+        alteracao.setUsuarioId(usuarioId);
+        alteracao.setCriadoEm(LocalDateTime.now());
+        return alteracao;
+    }
+
+    // O índice é construído numa thread própria depois da subida
+    private void aguardarIndice() {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!indicePostagens.isPronto()) {
+            assertThat(System.nanoTime()).as("índice não ficou pronto").isLessThan(limite);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+}
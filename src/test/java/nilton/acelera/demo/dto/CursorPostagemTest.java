@@ -0,0 +1,56 @@
+package nilton.acelera.demo.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class CursorPostagemTest {
+
+    private static String base64(String bruto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void decodificaOQueCodificou() {
+        LocalDateTime data = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000);
+        CursorPostagem cursor = CursorPostagem.decodificar(new CursorPostagem(data, 42L).codificar());
+
+        assertThat(cursor.getData()).isEqualTo(data);
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void preservaSegundosZeradosEMicrossegundos() {
+        LocalDateTime semSegundos = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime comMicros = LocalDateTime.of(2025, 1, 1, 0, 0, 0, 1_000);
+
+        assertThat(CursorPostagem.decodificar(new CursorPostagem(semSegundos, 1L).codificar()).getData())
+            .isEqualTo(semSegundos);
+        assertThat(CursorPostagem.decodificar(new CursorPostagem(comMicros, 1L).codificar()).getData())
+            .isEqualTo(comMicros);
+    }
+
+    @Test
+    void tokenEhSeguroEmQueryString() {
+        String token = new CursorPostagem(LocalDateTime.of(2025, 12, 31, 23, 59, 59), Long.MAX_VALUE).codificar();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void recusaTokenQueNaoVeioDeCodificar() {
+        assertThatThrownBy(() -> CursorPostagem.decodificar("não é base64"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorPostagem.decodificar(base64("sem separador")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorPostagem.decodificar(base64("ontem|42")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorPostagem.decodificar(base64("2025-01-01T00:00|abc")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
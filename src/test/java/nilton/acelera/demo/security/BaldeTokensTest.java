@@ -0,0 +1,95 @@
+package nilton.acelera.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class BaldeTokensTest {
+
+    // Capacidade 3, uma ficha a cada 100 ns (mesma conta do LimiteRequisicoesFilter)
+    private static final long INTERVALO = 100;
+    private static final long TOLERANCIA = INTERVALO * (3 - 1);
+
+    @Test
+    void baldeCheioAceitaARajadaDaCapacidadeERecusaAProxima() {
+        BaldeTokens balde = new BaldeTokens(1_000);
+
+        assertThat(balde.consumir(1_000, INTERVALO, TOLERANCIA)).isZero();
+        assertThat(balde.consumir(1_000, INTERVALO, TOLERANCIA)).isZero();
+        assertThat(balde.consumir(1_000, INTERVALO, TOLERANCIA)).isZero();
+        assertThat(balde.consumir(1_000, INTERVALO, TOLERANCIA)).isEqualTo(INTERVALO);
+    }
+
+    @Test
+    void recusaNaoConsomeFicha() {
+        BaldeTokens balde = new BaldeTokens(1_000);
+        for (int i = 0; i < 3; i++) {
+            balde.consumir(1_000, INTERVALO, TOLERANCIA);
+        }
+
+        assertThat(balde.consumir(1_050, INTERVALO, TOLERANCIA)).isEqualTo(50);
+        assertThat(balde.consumir(1_050, INTERVALO, TOLERANCIA)).isEqualTo(50);
+        assertThat(balde.consumir(1_100, INTERVALO, TOLERANCIA)).isZero();
+        assertThat(balde.consumir(1_100, INTERVALO, TOLERANCIA)).isEqualTo(INTERVALO);
+    }
+
+    @Test
+    void fichasVoltamUmaPorIntervaloAteACapacidade() {
+        BaldeTokens balde = new BaldeTokens(1_000);
+        for (int i = 0; i < 3; i++) {
+            balde.consumir(1_000, INTERVALO, TOLERANCIA);
+        }
+
+        // Muito tempo parado não acumula além da capacidade
+        long depois = 1_000_000;
+        int aceitas = 0;
+        while (balde.consumir(depois, INTERVALO, TOLERANCIA) == 0) {
+            aceitas++;
+        }
+        assertThat(aceitas).isEqualTo(3);
+    }
+
+    @Test
+    void ficaOciosoQuandoOBaldeEnche() {
+        BaldeTokens balde = new BaldeTokens(1_000);
+        balde.consumir(1_000, INTERVALO, TOLERANCIA);
+        balde.consumir(1_000, INTERVALO, TOLERANCIA);
+
+        assertThat(balde.ocioso(1_100)).isFalse();
+        assertThat(balde.ocioso(1_200)).isTrue();
+    }
+
+    @Test
+    void chamadasConcorrentesNaoPassamDaCapacidade() throws InterruptedException {
+        long intervalo = TimeUnit.HOURS.toNanos(1);
+        long tolerancia = intervalo * (50 - 1);
+        BaldeTokens balde = new BaldeTokens(0);
+        AtomicInteger aceitas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 200; i++) {
+            threads.execute(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (balde.consumir(0, intervalo, tolerancia) == 0) {
+                    aceitas.incrementAndGet();
+                }
+            });
+        }
+        largada.countDown();
+        threads.shutdown();
+        assertThat(threads.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(aceitas).hasValue(50);
+    }
+}
@@ -0,0 +1,165 @@
+package nilton.acelera.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import nilton.acelera.demo.AceleraMakerBlogApplication;
+import nilton.acelera.demo.cache.CatalogoTemas;
+import nilton.acelera.demo.cache.ContadoresPostagens;
+import nilton.acelera.demo.dto.RelatorioImportacaoDTO;
+import nilton.acelera.demo.model.Postagem;
+import nilton.acelera.demo.model.RegistroAlteracao;
+import nilton.acelera.demo.model.RegistroAlteracao.Entidade;
+import nilton.acelera.demo.model.Tema;
+import nilton.acelera.demo.model.Usuario;
+import nilton.acelera.demo.repository.PostagemLoteRepository;
+import nilton.acelera.demo.repository.PostagemRepository;
+import nilton.acelera.demo.repository.RegistroAlteracaoRepository;
+import nilton.acelera.demo.repository.UsuarioRepository;
+
+@SpringBootTest(classes = AceleraMakerBlogApplication.class)
+@ActiveProfiles("teste")
+class ImportacaoPostagensServiceTest {
+
+    private static final long INEXISTENTE = 999_999_999L;
+
+    @Autowired
+    private PostagemLoteRepository postagemLoteRepository;
+    @Autowired
+    private PostagemRepository postagemRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private RegistroAlteracaoRepository registroRepository;
+    @Autowired
+    private CatalogoTemas catalogoTemas;
+    @Autowired
+    private ContadoresPostagens contadores;
+    @Autowired
+    private TemaService temaService;
+    @Autowired
+    private ApplicationEventPublisher eventos;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Lotes de 2 linhas, para o teste passar por mais de um lote sem mudar a configuração do contexto compartilhado
+    private ImportacaoPostagensService importacao;
+    private Usuario autor;
+    private Tema tema;
+
+    @BeforeEach
+    void criar() {
+        importacao = new ImportacaoPostagensService(postagemLoteRepository, usuarioRepository, catalogoTemas,
+            eventos, objectMapper, transactionManager, 2);
+
+        autor = new Usuario();
+        autor.setNome("Autor");
+        autor.setUsuario(UUID.randomUUID() + "@blog.com");
+        autor.setSenha("senha-nao-usada");
+        autor = usuarioRepository.save(autor);
+        tema = new Tema();
+        tema.setDescricao("Tema " + UUID.randomUUID());
+        tema = temaService.criar(tema);
+    }
+
+    private RelatorioImportacaoDTO importar(String... linhas) throws IOException {
+        return importacao.importar(new ByteArrayInputStream(String.join("\n", linhas).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String linha(String titulo, String extra, long usuarioId, long temaId) {
+        return "{\"titulo\":\"" + titulo + "\",\"texto\":\"Texto importado\",\"usuarioId\":" + usuarioId
+            + ",\"temaId\":" + temaId + extra + "}";
+    }
+
+    @Test
+    void gravaAsValidasERelataAsRejeitadasComONumeroDaLinha() throws IOException {
+        RelatorioImportacaoDTO relatorio = importar(
+            linha("Primeira importada", "", autor.getId(), tema.getId()),
+            "{\"titulo\": sem aspas}",
+            linha("Segunda importada", "", autor.getId(), tema.getId()),
+            "{\"texto\":\"sem título\",\"usuarioId\":1,\"temaId\":1}",
+            "",
+            linha("Autor desconhecido", "", INEXISTENTE, tema.getId()),
+            linha("Tema desconhecido", "", autor.getId(), INEXISTENTE),
+            linha("Terceira importada", ",\"data\":\"2024-05-01T10:00:00\"", autor.getId(), tema.getId()));
+
+        assertThat(relatorio.getLinhasLidas()).isEqualTo(7);
+        assertThat(relatorio.getInseridas()).isEqualTo(3);
+        assertThat(relatorio.getRejeitadas()).isEqualTo(4);
+        // O lote das linhas 6 e 7 não tem nenhuma válida e não chega a abrir transação
+        assertThat(relatorio.getLotes()).isEqualTo(2);
+        assertThat(relatorio.getErros()).containsExactly(
+            "linha 2: JSON inválido",
+            "linha 4: titulo obrigatório",
+            "linha 6: usuario " + INEXISTENTE + " não existe",
+            "linha 7: tema " + INEXISTENTE + " não existe");
+
+        List<Postagem> gravadas = postagemRepository.findByUsuarioId(autor.getId());
+        assertThat(gravadas).extracting(Postagem::getTitulo)
+            .containsExactlyInAnyOrder("Primeira importada", "Segunda importada", "Terceira importada");
+        assertThat(gravadas).filteredOn(p -> p.getTitulo().startsWith("Terceira")).singleElement()
+            .extracting(Postagem::getData).isEqualTo(LocalDateTime.of(2024, 5, 1, 10, 0));
+        assertThat(gravadas).allSatisfy(p -> assertThat(p.getData()).isNotNull());
+    }
+
+    @Test
+    void importacaoAtualizaContadoresERegistroDeAlteracoes() throws IOException {
+        importar(
+            linha("Uma", "", autor.getId(), tema.getId()),
+            linha("Duas", "", autor.getId(), tema.getId()),
+            linha("Três", "", autor.getId(), tema.getId()));
+
+        assertThat(contadores.totalPorTema(tema.getId())).isEqualTo(3);
+        assertThat(contadores.totalPorUsuario(autor.getId())).isEqualTo(3);
+
+        List<Long> ids = postagemRepository.findByUsuarioId(autor.getId()).stream().map(Postagem::getId).toList();
+        List<RegistroAlteracao> registradas = registroRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.unlimited())
+            .stream()
+            .filter(r -> r.getEntidade() == Entidade.POSTAGEM && ids.contains(r.getReferenciaId()))
+            .toList();
+        assertThat(registradas).hasSize(3).allSatisfy(r -> {
+            assertThat(r.getTipo()).isEqualTo("CRIADA");
+            assertThat(r.getTemaId()).isEqualTo(tema.getId());
+            assertThat(r.getUsuarioId()).isEqualTo(autor.getId());
+        });
+    }
+
+    @Test
+    void camposForaDosLimitesSaoRecusadosAntesDoBanco() throws IOException {
+        String tituloLongo = "x".repeat(Postagem.TAMANHO_MAXIMO_TITULO + 1);
+
+        RelatorioImportacaoDTO relatorio = importar(
+            linha(tituloLongo, "", autor.getId(), tema.getId()),
+            "{\"titulo\":\"Sem texto\",\"usuarioId\":1,\"temaId\":1}",
+            "{\"titulo\":\"Sem autor\",\"texto\":\"Texto\",\"temaId\":1}",
+            "{\"titulo\":\"Sem tema\",\"texto\":\"Texto\",\"usuarioId\":1}");
+
+        assertThat(relatorio.getInseridas()).isZero();
+        assertThat(relatorio.getLotes()).isZero();
+        assertThat(relatorio.getErros()).containsExactly(
+            "linha 1: titulo maior que " + Postagem.TAMANHO_MAXIMO_TITULO,
+            "linha 2: texto obrigatório",
+            "linha 3: usuarioId obrigatório",
+            "linha 4: temaId obrigatório");
+        assertThat(postagemRepository.findByUsuarioId(autor.getId())).isEmpty();
+    }
+}